@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import storage.CacheFileHandler;
+
+/**
+ * A minimal harness for timing a piece of code. The code is run a number of
+ * times to warm up the JIT, then timed over a number of further runs.
+ *
+ * Benchmarks are plain classes with main methods in this package. They are
+ * meant to be run manually, with the same classpath as the application.
+ *
+ * Memory allocated during the timed runs is measured as well, where the JVM
+ * supports it. It is counted across all threads, so that work handed off to
+ * other threads, such as cache writes, is included.
+ */
+public class BenchmarkRunner {
+
+	private static final Logger logger = LogManager.getLogger(BenchmarkRunner.class.getName());
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Times the given task.
+	 * @param name identifies the measurement in reports
+	 * @param warmupIterations the number of untimed runs
+	 * @param iterations the number of timed runs
+	 * @param task the code to time
+	 * @return the timing of each run
+	 */
+	public static Measurement measure(String name, int warmupIterations, int iterations, Runnable task) {
+		assert iterations > 0;
+
+		for (int i = 0; i < warmupIterations; i++) {
+			task.run();
+		}
+
+		long[] samples = new long[iterations];
+		long allocatedBefore = getAllocatedBytes();
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			task.run();
+			samples[i] = System.nanoTime() - start;
+		}
+		long allocatedAfter = getAllocatedBytes();
+
+		long allocated = allocatedBefore < 0 || allocatedAfter < 0
+			? -1
+			: Math.max(allocatedAfter - allocatedBefore, 0);
+		Measurement measurement = new Measurement(name, samples, allocated);
+		logger.info(measurement);
+		return measurement;
+	}
+
+	/**
+	 * Parses the issue counts given to a benchmark on the command line.
+	 * @param args
+	 * @return the issue counts
+	 */
+	public static int[] parseSizes(String[] args) {
+		int[] sizes = new int[args.length];
+		for (int i = 0; i < args.length; i++) {
+			sizes[i] = Integer.parseInt(args[i]);
+		}
+		return sizes;
+	}
+
+	/**
+	 * Keeps cache files in a temporary directory, which is deleted when the
+	 * JVM exits, so that benchmarks neither read nor overwrite the caches
+	 * of the application.
+	 */
+	public static void useTemporaryCacheDirectory() {
+		File directory;
+		try {
+			directory = Files.createTempDirectory("hubturbo-benchmark").toFile();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		CacheFileHandler.setCacheDirectory(directory.getPath());
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			CacheFileHandler.flushWrites();
+			FileUtils.deleteQuietly(directory);
+		}));
+		logger.info("Writing cache files to " + directory);
+	}
+
+	/**
+	 * @return the number of bytes allocated so far by all live threads,
+	 * or -1 if the JVM does not support measuring it
+	 */
+	private static long getAllocatedBytes() {
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+		if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+
+		long total = 0;
+		for (long bytes : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			// Threads which have died in the meantime are reported as -1
+			if (bytes > 0) {
+				total += bytes;
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.List;
+
+import model.MemoryReport;
+import model.Model;
+import model.TurboIssue;
+
+import org.eclipse.egit.github.core.RepositoryId;
+
+import service.RepositoryResources;
+import storage.CacheFileHandler;
+import storage.CachedRepoData;
+
+/**
+ * Measures the stages of loading a repository from its cache file at
+ * startup, and of writing it back, for synthetic repositories of various
+ * sizes. For each stage, reports the time taken, the throughput in issues
+ * per second, and the memory allocated. Finally, reports the memory
+ * retained by the fields of the issues loaded.
+ *
+ * Usage: CacheBenchmark [issue count...]
+ */
+public class CacheBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {1000, 10000, 50000};
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int ITERATIONS = 10;
+
+	// Consumes results, so that the work producing them cannot be optimised away
+	private static volatile Object sink;
+
+	public static void main(String[] args) {
+		int[] sizes = args.length == 0 ? DEFAULT_SIZES : BenchmarkRunner.parseSizes(args);
+		Model.isInTestMode = true;
+		BenchmarkRunner.useTemporaryCacheDirectory();
+
+		System.out.println(String.format("%8s  %-24s  %12s  %14s  %14s  %16s",
+			"issues", "stage", "median (ms)", "issues/s", "alloc (MB/s)", "alloc (B/issue)"));
+		for (int size : sizes) {
+			run(size);
+			System.out.println();
+		}
+	}
+
+	private static void run(int size) {
+		Model model = new Model();
+		CacheFileHandler handler = CacheFixtureGenerator.write(model, size, false);
+		String repoId = CacheFixtureGenerator.getRepoId(size);
+
+		report(size, "write cache file", () -> {
+			handler.writeToFile(repoId, null, null, null, null, CacheFixtureGenerator.getCheckTime(),
+				model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues());
+			CacheFileHandler.flushWrites();
+		});
+
+		report(size, "read cache file", handler::readFromFile);
+
+		report(size, "convert to cache form", () -> sink = new CachedRepoData(null, null, null, null, null,
+			model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues()));
+
+		handler.readFromFile();
+		CachedRepoData data = handler.getRepo();
+		report(size, "convert from cache form", () -> sink = data.getIssues(model));
+
+		List<TurboIssue> issues = data.getIssues(model);
+		report(size, "Model.loadTurboIssues", () -> model.loadTurboIssues(issues));
+
+		RepositoryId id = RepositoryId.createFromId(repoId);
+		report(size, "Model.populateComponents", () -> model.populateComponents(id,
+			RepositoryResources.fromCache(issues, data.getLabels(), data.getMilestones(), data.getCollaborators())));
+
+		System.out.println(MemoryReport.of(issues));
+	}
+
+	private static void report(int size, String stage, Runnable task) {
+		Measurement measurement = BenchmarkRunner.measure(stage + " (" + size + " issues)",
+			WARMUP_ITERATIONS, ITERATIONS, task);
+		System.out.println(String.format("%8d  %-24s  %12.2f  %14.0f  %14s  %16s", size, stage,
+			measurement.getMedianMillis(), measurement.getOperationsPerSecond(size),
+			measurement.isAllocationKnown() ? String.format("%.1f", measurement.getAllocationRate()) : "?",
+			measurement.isAllocationKnown()
+				? String.format("%.0f", measurement.getAllocatedBytesPerRun() / size)
+				: "?"));
+	}
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.Date;
+
+import model.Model;
+import storage.CacheFileHandler;
+
+/**
+ * Compares the size and load time of compressed and uncompressed cache files
+ * for synthetic repositories of various sizes.
+ *
+ * Usage: CacheCompressionBenchmark [issue count...]
+ */
+public class CacheCompressionBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {1000, 5000, 20000};
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int ITERATIONS = 10;
+	private static final long SEED = 42;
+
+	public static void main(String[] args) {
+		int[] sizes = args.length == 0 ? DEFAULT_SIZES : BenchmarkRunner.parseSizes(args);
+		Model.isInTestMode = true;
+		BenchmarkRunner.useTemporaryCacheDirectory();
+
+		System.out.println(String.format("%8s  %-6s  %12s  %12s  %12s",
+			"issues", "format", "size (KB)", "write (ms)", "read (ms)"));
+		for (int size : sizes) {
+			Model model = new Model();
+			new RepositoryGenerator(SEED).populate(model, size);
+
+			run(model, size, false);
+			run(model, size, true);
+		}
+	}
+
+	private static void run(Model model, int size, boolean compressed) {
+		String format = compressed ? "gzip" : "plain";
+		String repoId = "benchmark/n" + size + "-" + format;
+
+		CacheFileHandler handler = new CacheFileHandler(repoId);
+		handler.setCompressionEnabled(compressed);
+
+		Measurement write = BenchmarkRunner.measure(repoId + " write", WARMUP_ITERATIONS, ITERATIONS, () -> {
+			handler.writeToFile(repoId, "", "", "", "", new Date(),
+				model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues());
+			CacheFileHandler.flushWrites();
+		});
+		Measurement read = BenchmarkRunner.measure(repoId + " read", WARMUP_ITERATIONS, ITERATIONS,
+			handler::readFromFile);
+
+		System.out.println(String.format("%8d  %-6s  %12.1f  %12.2f  %12.2f",
+			size, format, handler.getCacheFile().length() / 1024.0,
+			write.getMedianMillis(), read.getMedianMillis()));
+	}
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import model.Model;
+import storage.CacheFileHandler;
+import util.Utility;
+
+/**
+ * Writes cache files for synthetic repositories, so that benchmarks and
+ * manual testing can start from a known cache. The repositories are named
+ * after their size, and files written for the same size are identical.
+ *
+ * Usage: CacheFixtureGenerator [--compressed] [issue count...]
+ */
+public class CacheFixtureGenerator {
+
+	private static final int[] DEFAULT_SIZES = {1000, 10000, 50000};
+	private static final long SEED = 42;
+
+	public static void main(String[] args) {
+		boolean compressed = args.length > 0 && args[0].equals("--compressed");
+		int first = compressed ? 1 : 0;
+		int[] sizes = args.length > first
+			? BenchmarkRunner.parseSizes(Arrays.copyOfRange(args, first, args.length))
+			: DEFAULT_SIZES;
+
+		Model.isInTestMode = true;
+		for (int size : sizes) {
+			CacheFileHandler handler = write(new Model(), size, compressed);
+			System.out.println(String.format("Wrote %s (%d issues, %.1f KB)",
+				handler.getCacheFile(), size, handler.getCacheFile().length() / 1024.0));
+		}
+	}
+
+	/**
+	 * @param issueCount
+	 * @return the id of the synthetic repository with the given number of issues
+	 */
+	public static String getRepoId(int issueCount) {
+		return "benchmark/n" + issueCount;
+	}
+
+	/**
+	 * Populates a model with a synthetic repository, and writes its cache file.
+	 * @param model the model to populate
+	 * @param issueCount the number of issues in the repository
+	 * @param compressed whether to write the cache file compressed
+	 * @return the handler of the cache file, which has been written by the time this returns
+	 */
+	public static CacheFileHandler write(Model model, int issueCount, boolean compressed) {
+		new RepositoryGenerator(SEED).populate(model, issueCount);
+
+		String repoId = getRepoId(issueCount);
+		CacheFileHandler handler = new CacheFileHandler(repoId);
+		handler.setCompressionEnabled(compressed);
+		handler.writeToFile(repoId, null, null, null, null, getCheckTime(),
+			model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues());
+		CacheFileHandler.flushWrites();
+		return handler;
+	}
+
+	/**
+	 * @return the time at which synthetic repositories were last checked for updates
+	 */
+	public static Date getCheckTime() {
+		return Utility.localDateTimeToDate(RepositoryGenerator.CURRENT_TIME);
+	}
+}
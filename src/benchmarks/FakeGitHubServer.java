@@ -0,0 +1,494 @@
+package benchmarks;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.PARAM_PAGE;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.PARAM_PER_PAGE;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_V3_API;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.Repository;
+import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.client.GsonUtils;
+
+import service.GitHubClientExtended;
+import service.HttpTransport;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in for the GitHub API, serving a single repository from generated
+ * fixtures over HTTP on the loopback interface. It is meant for measuring
+ * how HubTurbo loads and syncs repositories without going over the network.
+ *
+ * It serves the resources HubTurbo reads (the repository, its issues, labels,
+ * milestones and collaborators, and the events and comments of each issue)
+ * the way GitHub does: in pages with Link headers, with ETags, answering
+ * conditional requests for unchanged resources with 304, compressing
+ * responses if asked to, and counting requests against a rate limit which is
+ * reported in the usual headers. Any credentials are accepted, and requests
+ * which would change the repository are not supported.
+ *
+ * Point HubTurbo at a server with
+ * {@code ServiceManager.getInstance().setGitHubClient(server.createClient())}.
+ *
+ * Usage: FakeGitHubServer [issue count [port]]
+ */
+public class FakeGitHubServer {
+
+	private static final Logger logger = LogManager.getLogger(FakeGitHubServer.class.getName());
+
+	public static final String HOSTNAME = "127.0.0.1";
+
+	// Without this, the JDK server's headers and body are held up by Nagle's
+	// algorithm, adding tens of milliseconds to every response
+	static {
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private static final int DEFAULT_ISSUE_COUNT = 1000;
+	private static final long SEED = 42;
+
+	private static final int DEFAULT_PAGE_SIZE = 30;
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int DEFAULT_RATE_LIMIT = 5000;
+	private static final long RATE_LIMIT_WINDOW = 60 * 60 * 1000;
+	private static final int THREADS = 4;
+
+	private static final int HTTP_OK = 200;
+	private static final int HTTP_NOT_MODIFIED = 304;
+	private static final int HTTP_FORBIDDEN = 403;
+	private static final int HTTP_NOT_FOUND = 404;
+	private static final int HTTP_BAD_METHOD = 405;
+
+	private static final String[] SINCE_FORMATS = {"yyyy-MM-dd'T'HH:mm:ss'Z'", "yyyy-MM-dd'T'HH:mm'Z'"};
+
+	private static final Pattern REPOSITORY_PATH = Pattern.compile("/repos/([^/]+)/([^/]+)(/.*)?");
+	private static final Pattern ISSUE_RESOURCE_PATH = Pattern.compile("/issues/(\\d+)/(events|comments)");
+
+	private final GitHubFixtures fixtures;
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Gson gson = GsonUtils.getGson();
+
+	private int rateLimit = DEFAULT_RATE_LIMIT;
+	private int remainingRequests = DEFAULT_RATE_LIMIT;
+	private long rateLimitReset = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
+
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong notModifiedCount = new AtomicLong();
+
+	/**
+	 * Creates a server on an unused port. It has to be started before use.
+	 * @param fixtures the repository to serve
+	 * @throws IOException
+	 */
+	public FakeGitHubServer(GitHubFixtures fixtures) throws IOException {
+		this(fixtures, 0);
+	}
+
+	/**
+	 * @param fixtures the repository to serve
+	 * @param port the port to listen on, or 0 for any unused port
+	 * @throws IOException
+	 */
+	public FakeGitHubServer(GitHubFixtures fixtures, int port) throws IOException {
+		this.fixtures = fixtures;
+		server = HttpServer.create(new InetSocketAddress(HOSTNAME, port), 0);
+		server.createContext("/", this::handle);
+
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "Fake GitHub " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+	}
+
+	public static void main(String[] args) throws IOException {
+		int issueCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ISSUE_COUNT;
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+		FakeGitHubServer server = new FakeGitHubServer(GitHubFixtures.generate(SEED, issueCount), port);
+		server.start();
+		System.out.println(String.format("Serving %s/%s with %d issues at http://%s:%d%s",
+			GitHubFixtures.OWNER, GitHubFixtures.REPOSITORY, issueCount, HOSTNAME, server.getPort(),
+			SEGMENT_V3_API));
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public GitHubFixtures getFixtures() {
+		return fixtures;
+	}
+
+	/**
+	 * @return a client which makes its requests to this server
+	 */
+	public GitHubClientExtended createClient() {
+		return createClient(new HttpTransport(30000));
+	}
+
+	/**
+	 * @param transport makes the requests of the client
+	 * @return a client which makes its requests to this server
+	 */
+	public GitHubClientExtended createClient(HttpTransport transport) {
+		return new GitHubClientExtended(HOSTNAME, getPort(), "http", transport);
+	}
+
+	/**
+	 * Sets the number of requests allowed in each hour, and starts a new hour.
+	 * @param rateLimit
+	 */
+	public synchronized void setRateLimit(int rateLimit) {
+		this.rateLimit = rateLimit;
+		remainingRequests = rateLimit;
+		rateLimitReset = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
+	}
+
+	public synchronized int getRemainingRequests() {
+		return remainingRequests;
+	}
+
+	/**
+	 * @return the number of requests received so far
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @return the number of requests answered with 304 so far
+	 */
+	public long getNotModifiedCount() {
+		return notModifiedCount.get();
+	}
+
+	private void ______REQUESTS______() {
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		try {
+			Response response = route(exchange);
+			send(exchange, response);
+		} catch (RuntimeException e) {
+			logger.error(e.getLocalizedMessage(), e);
+			exchange.sendResponseHeaders(500, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Works out the response to a request, without sending it.
+	 */
+	private Response route(HttpExchange exchange) {
+		if (!"GET".equals(exchange.getRequestMethod())) {
+			return Response.error(HTTP_BAD_METHOD, "Not supported by the fake GitHub server");
+		}
+
+		URI uri = exchange.getRequestURI();
+		String path = uri.getPath();
+		if (path.startsWith(SEGMENT_V3_API)) {
+			path = path.substring(SEGMENT_V3_API.length());
+		}
+		if (path.length() > 1 && path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+		Map<String, String> params = parseQuery(uri.getRawQuery());
+
+		if (path.isEmpty() || path.equals("/")) {
+			return Response.ok(Collections.emptyMap(), null);
+		}
+		if (path.equals("/user")) {
+			return Response.ok(getUser(), null);
+		}
+		if (path.equals("/user/repos")) {
+			return Response.list(Collections.singletonList(getRepository()), null);
+		}
+
+		Matcher repository = REPOSITORY_PATH.matcher(path);
+		if (!repository.matches()
+			|| !repository.group(1).equals(GitHubFixtures.OWNER)
+			|| !repository.group(2).equals(GitHubFixtures.REPOSITORY)) {
+			return Response.error(HTTP_NOT_FOUND, "Not Found");
+		}
+
+		String resource = repository.group(3) == null ? "" : repository.group(3);
+		switch (resource) {
+		case "":
+			return Response.ok(getRepository(), null);
+		case "/issues":
+			return Response.list(fixtures.getIssues(parseSince(params.get("since"))), fixtures.getIssuesETag());
+		case "/labels":
+			return Response.list(fixtures.getLabels(), fixtures.getStaticETag("labels"));
+		case "/milestones":
+			return Response.list(fixtures.getMilestones(), fixtures.getStaticETag("milestones"));
+		case "/collaborators":
+			return Response.list(fixtures.getCollaborators(), fixtures.getStaticETag("collaborators"));
+		default:
+			break;
+		}
+
+		Matcher issueResource = ISSUE_RESOURCE_PATH.matcher(resource);
+		if (issueResource.matches()) {
+			int number = Integer.parseInt(issueResource.group(1));
+			String kind = issueResource.group(2);
+			List<?> items = kind.equals("events") ? fixtures.getEvents(number) : fixtures.getComments(number);
+			if (items != null) {
+				return Response.list(items, fixtures.getIssueETag(kind, number));
+			}
+		}
+		return Response.error(HTTP_NOT_FOUND, "Not Found");
+	}
+
+	private User getUser() {
+		return fixtures.getCollaborators().get(0);
+	}
+
+	private Repository getRepository() {
+		return new Repository()
+			.setName(GitHubFixtures.REPOSITORY)
+			.setOwner(new User().setLogin(GitHubFixtures.OWNER));
+	}
+
+	/**
+	 * Sends a response, taking care of conditional requests, paging, rate
+	 * limiting and compression.
+	 */
+	private void send(HttpExchange exchange, Response response) throws IOException {
+		Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+
+		if (response.etag != null) {
+			exchange.getResponseHeaders().set("ETag", "\"" + response.etag + "\"");
+			String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+			if (ifNoneMatch != null && stripETag(ifNoneMatch).equals(response.etag)) {
+				// Conditional requests which find nothing new are free, as on GitHub
+				notModifiedCount.incrementAndGet();
+				addRateLimitHeaders(exchange, false);
+				exchange.sendResponseHeaders(HTTP_NOT_MODIFIED, -1);
+				return;
+			}
+		}
+
+		if (!addRateLimitHeaders(exchange, true)) {
+			response = Response.error(HTTP_FORBIDDEN, "API rate limit exceeded");
+		}
+
+		Object body = response.body;
+		if (response.items != null) {
+			body = page(exchange, params, response.items);
+		}
+
+		byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+		String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+			bytes = gzip(bytes);
+			exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+		}
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(response.status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Selects the requested page of a list, and adds the Link header
+	 * pointing to the others.
+	 */
+	private List<?> page(HttpExchange exchange, Map<String, String> params, List<?> items) {
+		int pageSize = Math.min(parseInt(params.get(PARAM_PER_PAGE), DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+		int page = Math.max(parseInt(params.get(PARAM_PAGE), 1), 1);
+		int lastPage = Math.max((items.size() + pageSize - 1) / pageSize, 1);
+
+		if (lastPage > 1) {
+			String base = "http://" + HOSTNAME + ":" + getPort() + exchange.getRequestURI().getRawPath() + "?"
+				+ withoutPaging(exchange.getRequestURI().getRawQuery())
+				+ PARAM_PER_PAGE + "=" + pageSize + "&" + PARAM_PAGE + "=";
+			StringBuilder links = new StringBuilder();
+			if (page < lastPage) {
+				links.append("<").append(base).append(page + 1).append(">; rel=\"next\", ");
+				links.append("<").append(base).append(lastPage).append(">; rel=\"last\"");
+			}
+			if (page > 1) {
+				if (links.length() > 0) {
+					links.append(", ");
+				}
+				links.append("<").append(base).append(1).append(">; rel=\"first\", ");
+				links.append("<").append(base).append(page - 1).append(">; rel=\"prev\"");
+			}
+			exchange.getResponseHeaders().set("Link", links.toString());
+		}
+
+		int from = Math.min((page - 1) * pageSize, items.size());
+		int to = Math.min(from + pageSize, items.size());
+		return items.subList(from, to);
+	}
+
+	/**
+	 * Counts a request against the rate limit, if it is to be counted, and
+	 * reports the state of the rate limit in the response.
+	 * @return false if the rate limit has been exceeded
+	 */
+	private synchronized boolean addRateLimitHeaders(HttpExchange exchange, boolean counted) {
+		long now = System.currentTimeMillis();
+		if (now >= rateLimitReset) {
+			remainingRequests = rateLimit;
+			rateLimitReset = now + RATE_LIMIT_WINDOW;
+		}
+		boolean allowed = !counted || remainingRequests > 0;
+		if (counted && allowed) {
+			remainingRequests--;
+		}
+		exchange.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(rateLimit));
+		exchange.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(remainingRequests));
+		exchange.getResponseHeaders().set("X-RateLimit-Reset", Long.toString(rateLimitReset / 1000));
+		return allowed;
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static String stripETag(String etag) {
+		if (etag.startsWith("W/")) {
+			etag = etag.substring(2);
+		}
+		return etag.replaceAll("^\"|\"$", "");
+	}
+
+	private static Map<String, String> parseQuery(String query) {
+		Map<String, String> params = new HashMap<>();
+		if (query == null || query.isEmpty()) {
+			return params;
+		}
+		for (String param : query.split("&")) {
+			int equals = param.indexOf('=');
+			String name = equals < 0 ? param : param.substring(0, equals);
+			String value = equals < 0 ? "" : param.substring(equals + 1);
+			try {
+				params.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+			} catch (IOException e) {
+				// UTF-8 is always supported
+				throw new AssertionError(e);
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * @return the query without its paging parameters, followed by an
+	 * ampersand if it is not empty
+	 */
+	private static String withoutPaging(String query) {
+		if (query == null || query.isEmpty()) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder();
+		for (String param : query.split("&")) {
+			if (!param.startsWith(PARAM_PAGE + "=") && !param.startsWith(PARAM_PER_PAGE + "=")) {
+				result.append(param).append('&');
+			}
+		}
+		return result.toString();
+	}
+
+	private static Date parseSince(String since) {
+		if (since == null) {
+			return null;
+		}
+		for (String pattern : SINCE_FORMATS) {
+			SimpleDateFormat format = new SimpleDateFormat(pattern);
+			format.setTimeZone(TimeZone.getTimeZone("UTC"));
+			try {
+				return format.parse(since);
+			} catch (ParseException e) {
+				// Try the next format
+			}
+		}
+		return null;
+	}
+
+	private static int parseInt(String value, int defaultValue) {
+		try {
+			return value == null ? defaultValue : Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * A response yet to be sent: either a single object, or a list of items
+	 * to be paged.
+	 */
+	private static class Response {
+		public final int status;
+		public final Object body;
+		public final List<?> items;
+		public final String etag;
+
+		private Response(int status, Object body, List<?> items, String etag) {
+			this.status = status;
+			this.body = body;
+			this.items = items;
+			this.etag = etag;
+		}
+
+		public static Response ok(Object body, String etag) {
+			return new Response(HTTP_OK, body, null, etag);
+		}
+
+		public static Response list(List<?> items, String etag) {
+			return new Response(HTTP_OK, null, items, etag);
+		}
+
+		public static Response error(int status, String message) {
+			return new Response(status, Collections.singletonMap("message", message), null, null);
+		}
+	}
+}
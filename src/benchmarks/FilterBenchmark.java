@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.util.List;
+
+import model.Model;
+import model.TurboIssue;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import filter.lexer.Lexer;
+
+/**
+ * Measures the cost of lexing, parsing and evaluating a catalogue of
+ * representative filters, the last over synthetic repositories of various
+ * sizes.
+ *
+ * Usage: FilterBenchmark [issue count...]
+ */
+public class FilterBenchmark {
+
+	private static final int[] DEFAULT_SIZES = {1000, 10000, 100000};
+	private static final long SEED = 42;
+
+	// Filters of the kinds people put in their panels, from simple to complex
+	private static final String[] FILTERS = {
+		"is:open",
+		"label:type.bug",
+		"milestone:V0.20",
+		"assignee:user1",
+		"involves:user2",
+		"no:assignee is:open",
+		"is:open label:priority.high -label:status.done",
+		"(label:ui OR label:model) is:open",
+		"label:type.bug OR label:type.feature OR label:type.task",
+		"milestone:V0.19 && (assignee:user3 || assignee:user4) && ~is:closed",
+		"updated:<48",
+		"created:>2014-12-01",
+		"title:crash",
+		"sync cache",
+		"body:window",
+	};
+
+	private static final int PARSES_PER_RUN = 10000;
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int ITERATIONS = 10;
+
+	// Consumes results, so that the work producing them cannot be optimised away
+	private static volatile int sink;
+
+	public static void main(String[] args) {
+		int[] sizes = args.length == 0 ? DEFAULT_SIZES : BenchmarkRunner.parseSizes(args);
+		Model.isInTestMode = true;
+		Qualifier.setCurrentTime(RepositoryGenerator.CURRENT_TIME);
+
+		benchmarkParsing();
+		for (int size : sizes) {
+			benchmarkEvaluation(size);
+		}
+	}
+
+	private static void benchmarkParsing() {
+		System.out.println(String.format("%-70s  %12s  %12s", "filter", "lex (us)", "parse (us)"));
+		for (String filter : FILTERS) {
+			Measurement lex = BenchmarkRunner.measure("lex " + filter, WARMUP_ITERATIONS, ITERATIONS, () -> {
+				for (int i = 0; i < PARSES_PER_RUN; i++) {
+					sink = new Lexer(filter).lex().size();
+				}
+			});
+			// Parsing includes lexing
+			Measurement parse = BenchmarkRunner.measure("parse " + filter, WARMUP_ITERATIONS, ITERATIONS, () -> {
+				for (int i = 0; i < PARSES_PER_RUN; i++) {
+					sink = Parser.parse(filter).hashCode();
+				}
+			});
+			System.out.println(String.format("%-70s  %12.3f  %12.3f", filter,
+				1_000_000 / lex.getOperationsPerSecond(PARSES_PER_RUN),
+				1_000_000 / parse.getOperationsPerSecond(PARSES_PER_RUN)));
+		}
+		System.out.println();
+	}
+
+	private static void benchmarkEvaluation(int size) {
+		Model model = new Model();
+		new RepositoryGenerator(SEED).populate(model, size);
+		List<TurboIssue> issues = model.getIssues();
+
+		System.out.println(String.format("%8s  %-70s  %8s  %12s  %14s",
+			"issues", "filter", "matches", "eval (ms)", "issues/ms"));
+		for (String filter : FILTERS) {
+			FilterExpression expression = Parser.parse(filter);
+			int matches = evaluate(expression, issues);
+
+			Measurement eval = BenchmarkRunner.measure("evaluate " + filter + " over " + size,
+				WARMUP_ITERATIONS, ITERATIONS, () -> sink = evaluate(expression, issues));
+
+			System.out.println(String.format("%8d  %-70s  %8d  %12.2f  %14.1f", size, filter, matches,
+				eval.getMedianMillis(), eval.getOperationsPerSecond(size) / 1000));
+		}
+		System.out.println();
+	}
+
+	/**
+	 * Evaluates a filter the way panels do.
+	 * @return the number of issues matching the filter
+	 */
+	private static int evaluate(FilterExpression expression, List<TurboIssue> issues) {
+		int matches = 0;
+		for (TurboIssue issue : issues) {
+			if (Qualifier.process(expression, issue)) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+}
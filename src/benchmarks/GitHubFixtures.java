@@ -0,0 +1,251 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+import model.TurboMilestone;
+import model.TurboUser;
+
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.service.IssueService;
+
+/**
+ * The contents of a synthetic repository, as served by {@link FakeGitHubServer}.
+ * Generated with {@link RepositoryGenerator}, so fixtures with the same seed
+ * and size are identical.
+ *
+ * Each kind of resource has a version, which is part of its ETag and changes
+ * whenever the resource does. Fixtures can be changed while being served, to
+ * simulate activity in the repository.
+ *
+ * Issue events and comments are generated on demand from the issues they
+ * belong to. All methods are thread-safe.
+ */
+public class GitHubFixtures {
+
+	public static final String OWNER = "benchmark";
+	public static final String REPOSITORY = "repo";
+
+	private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("d MMM yy, h:mm a");
+
+	private final List<Label> labels;
+	private final List<Milestone> milestones;
+	private final List<User> collaborators;
+
+	// Issues, from the most recently created, as GitHub lists them
+	private final List<Issue> issues;
+
+	// The version of each issue, which changes whenever the issue does
+	private final Map<Integer, Integer> issueVersions = new HashMap<>();
+	private int issuesVersion = 0;
+
+	private final Random random;
+
+	private GitHubFixtures(long seed, List<Label> labels, List<Milestone> milestones, List<User> collaborators,
+			List<Issue> issues) {
+		this.random = new Random(seed);
+		this.labels = labels;
+		this.milestones = milestones;
+		this.collaborators = collaborators;
+		this.issues = issues;
+	}
+
+	/**
+	 * Generates a synthetic repository.
+	 * @param seed
+	 * @param issueCount the number of issues in the repository
+	 * @return its contents
+	 */
+	public static GitHubFixtures generate(long seed, int issueCount) {
+		Model model = new Model();
+		new RepositoryGenerator(seed).populate(model, issueCount);
+
+		List<Label> labels = model.getLabels().stream()
+			.map(TurboLabel::toGhResource)
+			.collect(Collectors.toList());
+		List<Milestone> milestones = model.getMilestones().stream()
+			.map(TurboMilestone::toGhResource)
+			.collect(Collectors.toList());
+		List<User> collaborators = model.getCollaborators().stream()
+			.map(TurboUser::toGhResource)
+			.collect(Collectors.toList());
+		List<Issue> issues = model.getIssues().stream()
+			.map(GitHubFixtures::toGhIssue)
+			.collect(Collectors.toList());
+
+		return new GitHubFixtures(seed, labels, milestones, collaborators, issues);
+	}
+
+	/**
+	 * Fills in the fields which {@link TurboIssue#toGhResource()} leaves out,
+	 * but which GitHub always provides.
+	 */
+	private static Issue toGhIssue(TurboIssue turboIssue) {
+		Issue issue = turboIssue.toGhResource();
+		issue.setUser(new User().setLogin(turboIssue.getCreator()));
+		issue.setComments(turboIssue.getCommentCount());
+		issue.setCreatedAt(toDate(LocalDateTime.parse(turboIssue.getCreatedAt(), CREATED_AT_FORMAT)));
+		issue.setUpdatedAt(toDate(turboIssue.getUpdatedAt()));
+		return issue;
+	}
+
+	private static Date toDate(LocalDateTime dateTime) {
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	public synchronized List<Label> getLabels() {
+		return new ArrayList<>(labels);
+	}
+
+	public synchronized List<Milestone> getMilestones() {
+		return new ArrayList<>(milestones);
+	}
+
+	public synchronized List<User> getCollaborators() {
+		return new ArrayList<>(collaborators);
+	}
+
+	/**
+	 * @param since if not null, only issues updated at or after this time are returned
+	 * @return the issues, from the most recently created
+	 */
+	public synchronized List<Issue> getIssues(Date since) {
+		if (since == null) {
+			return new ArrayList<>(issues);
+		}
+		return issues.stream()
+			.filter(issue -> !issue.getUpdatedAt().before(since))
+			.collect(Collectors.toList());
+	}
+
+	public synchronized Issue getIssue(int number) {
+		return issues.stream()
+			.filter(issue -> issue.getNumber() == number)
+			.findFirst()
+			.orElse(null);
+	}
+
+	/**
+	 * Changes the titles of the given number of randomly chosen issues, and
+	 * marks them as updated now.
+	 * @param count
+	 */
+	public synchronized void updateIssues(int count) {
+		Date now = new Date();
+		for (int i = 0; i < count && !issues.isEmpty(); i++) {
+			Issue issue = issues.get(random.nextInt(issues.size()));
+			issue.setTitle(issue.getTitle() + " (updated)");
+			issue.setUpdatedAt(now);
+			issueVersions.merge(issue.getNumber(), 1, Integer::sum);
+		}
+		issuesVersion++;
+	}
+
+	/**
+	 * @return the ETag of the list of issues, without quotes
+	 */
+	public synchronized String getIssuesETag() {
+		return "issues-" + issuesVersion;
+	}
+
+	/**
+	 * Labels, milestones and collaborators never change.
+	 * @param resource the name of the resource
+	 * @return its ETag, without quotes
+	 */
+	public String getStaticETag(String resource) {
+		return resource + "-0";
+	}
+
+	/**
+	 * @return the ETag of the events or comments of an issue, without quotes
+	 */
+	public synchronized String getIssueETag(String resource, int number) {
+		return resource + "-" + number + "-" + issueVersions.getOrDefault(number, 0);
+	}
+
+	/**
+	 * Generates the events of an issue, in the form GitHub sends them:
+	 * a label or milestone being added, an assignment, and closing.
+	 * @param number
+	 * @return the events, oldest first, or null if there is no such issue
+	 */
+	public synchronized List<Map<String, Object>> getEvents(int number) {
+		Issue issue = getIssue(number);
+		if (issue == null) {
+			return null;
+		}
+
+		List<Map<String, Object>> events = new ArrayList<>();
+		for (Label label : issue.getLabels()) {
+			Map<String, Object> labelFields = new LinkedHashMap<>();
+			labelFields.put("name", label.getName());
+			labelFields.put("color", label.getColor());
+			events.add(createEvent(issue, "labeled", issue.getCreatedAt(), "label", labelFields));
+		}
+		if (issue.getMilestone() != null) {
+			Map<String, Object> milestoneFields = new LinkedHashMap<>();
+			milestoneFields.put("title", issue.getMilestone().getTitle());
+			events.add(createEvent(issue, "milestoned", issue.getCreatedAt(), "milestone", milestoneFields));
+		}
+		if (issue.getAssignee() != null) {
+			events.add(createEvent(issue, "assigned", issue.getCreatedAt(), "assignee", issue.getAssignee()));
+		}
+		if (!IssueService.STATE_OPEN.equals(issue.getState())) {
+			events.add(createEvent(issue, "closed", issue.getUpdatedAt(), null, null));
+		}
+		return events;
+	}
+
+	private static Map<String, Object> createEvent(Issue issue, String type, Date createdAt,
+			String field, Object value) {
+		Map<String, Object> event = new LinkedHashMap<>();
+		event.put("actor", issue.getUser());
+		event.put("event", type);
+		event.put("created_at", createdAt);
+		if (field != null) {
+			event.put(field, value);
+		}
+		return event;
+	}
+
+	/**
+	 * Generates the comments of an issue, as many as its comment count.
+	 * @param number
+	 * @return the comments, oldest first, or null if there is no such issue
+	 */
+	public synchronized List<Comment> getComments(int number) {
+		Issue issue = getIssue(number);
+		if (issue == null) {
+			return null;
+		}
+
+		List<Comment> comments = new ArrayList<>();
+		for (int i = 0; i < issue.getComments(); i++) {
+			Comment comment = new Comment();
+			comment.setId((long) number * 1000 + i);
+			comment.setUser(collaborators.get((number + i) % collaborators.size()));
+			comment.setBody("Comment " + (i + 1) + " on issue " + number);
+			comment.setCreatedAt(issue.getCreatedAt());
+			comment.setUpdatedAt(issue.getCreatedAt());
+			comments.add(comment);
+		}
+		return comments;
+	}
+}
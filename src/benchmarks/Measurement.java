@@ -0,0 +1,98 @@
+package benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * The timings of a number of runs of a benchmarked task, along with the
+ * memory they allocated.
+ */
+public class Measurement {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	private final String name;
+	private final long[] samples;
+	private final long allocatedBytes;
+
+	public Measurement(String name, long[] samples) {
+		this(name, samples, -1);
+	}
+
+	/**
+	 * @param name
+	 * @param samples the time taken by each run, in nanoseconds
+	 * @param allocatedBytes the memory allocated by all runs together, or -1 if unknown
+	 */
+	public Measurement(String name, long[] samples, long allocatedBytes) {
+		assert samples.length > 0;
+		this.name = name;
+		this.samples = Arrays.copyOf(samples, samples.length);
+		this.allocatedBytes = allocatedBytes;
+		Arrays.sort(this.samples);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getIterations() {
+		return samples.length;
+	}
+
+	public double getMeanMillis() {
+		return Arrays.stream(samples).average().getAsDouble() / NANOS_PER_MILLI;
+	}
+
+	public double getMinMillis() {
+		return samples[0] / NANOS_PER_MILLI;
+	}
+
+	public double getMedianMillis() {
+		return samples[samples.length / 2] / NANOS_PER_MILLI;
+	}
+
+	public double getMaxMillis() {
+		return samples[samples.length - 1] / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @param operationsPerRun the number of operations each run performs
+	 * @return the number of operations per second, based on the median run
+	 */
+	public double getOperationsPerSecond(long operationsPerRun) {
+		return operationsPerRun / (samples[samples.length / 2] / (NANOS_PER_MILLI * 1000));
+	}
+
+	public boolean isAllocationKnown() {
+		return allocatedBytes >= 0;
+	}
+
+	/**
+	 * @return the mean number of bytes allocated by each run, or -1 if unknown
+	 */
+	public double getAllocatedBytesPerRun() {
+		return isAllocationKnown() ? (double) allocatedBytes / samples.length : -1;
+	}
+
+	/**
+	 * @return the rate at which the runs allocated memory, in MB per second, or -1 if unknown
+	 */
+	public double getAllocationRate() {
+		if (!isAllocationKnown()) {
+			return -1;
+		}
+		double seconds = Arrays.stream(samples).sum() / (NANOS_PER_MILLI * 1000);
+		return allocatedBytes / BYTES_PER_MB / seconds;
+	}
+
+	@Override
+	public String toString() {
+		String allocation = isAllocationKnown()
+			? String.format(", %.1f MB allocated per run, %.1f MB/s",
+				getAllocatedBytesPerRun() / BYTES_PER_MB, getAllocationRate())
+			: "";
+		return String.format("%s: mean %.2f ms, median %.2f ms, min %.2f ms, max %.2f ms (%d runs)%s",
+			name, getMeanMillis(), getMedianMillis(), getMinMillis(), getMaxMillis(), getIterations(), allocation);
+	}
+}
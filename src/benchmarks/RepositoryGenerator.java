@@ -0,0 +1,188 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+import model.TurboMilestone;
+import model.TurboUser;
+
+/**
+ * Generates synthetic repositories for benchmarking. Output is determined
+ * entirely by the seed, so runs with the same seed are comparable.
+ *
+ * The distributions are rough approximations of those in real repositories:
+ * most issues are closed, carry a type and a priority label, belong to one
+ * of a handful of recent milestones, and have short descriptions, while a
+ * few have long ones.
+ */
+public class RepositoryGenerator {
+
+	// The time at which generated repositories are current; all dates are before it
+	public static final LocalDateTime CURRENT_TIME = LocalDateTime.of(2015, 1, 1, 0, 0);
+
+	private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("d MMM yy, h:mm a");
+
+	private static final String[] WORDS = {
+		"panel", "filter", "issue", "label", "milestone", "sync", "cache", "crash", "slow", "update",
+		"column", "board", "repository", "window", "login", "error", "should", "when", "after", "before",
+		"the", "a", "is", "not", "does", "work", "fails", "add", "remove", "support", "improve", "fix"
+	};
+
+	// Label groups, the labels in each, and whether each group is exclusive
+	private static final String[][] LABEL_GROUPS = {
+		{"type", "bug", "feature", "enhancement", "docs", "task"},
+		{"priority", "high", "medium", "low"},
+		{"status", "ongoing", "pending", "done"},
+		{"component", "ui", "model", "storage", "service", "filter", "tests"},
+	};
+	private static final boolean[] LABEL_GROUP_EXCLUSIVE = {true, true, true, false};
+
+	private static final int DEFAULT_MILESTONE_COUNT = 20;
+	private static final int DEFAULT_USER_COUNT = 25;
+
+	private final Random random;
+	private final LocalDateTime now = CURRENT_TIME;
+
+	public RepositoryGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Fills the given model with a synthetic repository of the given size.
+	 * @param model the model to populate
+	 * @param issueCount the number of issues to generate
+	 */
+	public void populate(Model model, int issueCount) {
+		model.loadTurboLabels(generateLabels());
+		model.loadTurboMilestones(generateMilestones(DEFAULT_MILESTONE_COUNT));
+		model.loadTurboCollaborators(generateUsers(DEFAULT_USER_COUNT));
+		model.loadTurboIssues(generateIssues(model, issueCount));
+	}
+
+	public List<TurboLabel> generateLabels() {
+		List<TurboLabel> labels = new ArrayList<>();
+		for (int g = 0; g < LABEL_GROUPS.length; g++) {
+			for (int i = 1; i < LABEL_GROUPS[g].length; i++) {
+				TurboLabel label = new TurboLabel();
+				label.setGroup(LABEL_GROUPS[g][0]);
+				label.setName(LABEL_GROUPS[g][i]);
+				label.setExclusive(LABEL_GROUP_EXCLUSIVE[g]);
+				label.setColour(String.format("%06x", random.nextInt(0x1000000)));
+				labels.add(label);
+			}
+		}
+		return labels;
+	}
+
+	public List<TurboMilestone> generateMilestones(int count) {
+		List<TurboMilestone> milestones = new ArrayList<>();
+		LocalDate due = now.toLocalDate().minusWeeks(2 * (count - 2));
+		for (int i = 1; i <= count; i++) {
+			TurboMilestone milestone = new TurboMilestone("V0." + i);
+			milestone.setNumber(i);
+			milestone.setState(i < count - 1 ? "closed" : "open");
+			milestone.setDueOn(due);
+			milestones.add(milestone);
+			due = due.plusWeeks(2);
+		}
+		return milestones;
+	}
+
+	public List<TurboUser> generateUsers(int count) {
+		List<TurboUser> users = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			TurboUser user = new TurboUser();
+			user.setGithubName("user" + i);
+			users.add(user);
+		}
+		return users;
+	}
+
+	/**
+	 * Generates issues referring to the labels, milestones and collaborators
+	 * already in the given model.
+	 */
+	public List<TurboIssue> generateIssues(Model model, int count) {
+		List<TurboLabel> labels = model.getLabels();
+		List<TurboMilestone> milestones = model.getMilestones();
+		List<TurboUser> users = model.getCollaborators();
+
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int id = count; id >= 1; id--) {
+			TurboIssue issue = new TurboIssue(sentence(4 + random.nextInt(8)), description(), model);
+			issue.setId(id);
+			issue.setHtmlUrl("https://github.com/benchmark/repo/issues/" + id);
+			issue.setOpen(random.nextInt(10) < 3);
+			issue.setCreator(pick(users).getGithubName());
+			issue.setCommentCount(skewed(30));
+
+			// Older issues have lower ids
+			LocalDateTime created = now.minusHours((long) count - id + random.nextInt(48));
+			issue.setCreatedAt(created.format(CREATED_AT_FORMAT));
+			issue.setUpdatedAt(created.plusHours(skewed(24 * 60)));
+
+			if (random.nextInt(10) < 6) {
+				issue.setAssignee(pick(users));
+			}
+			if (!milestones.isEmpty() && random.nextInt(10) < 7) {
+				// Recent milestones are far more common
+				int index = milestones.size() - 1 - Math.min(skewed(milestones.size()), milestones.size() - 1);
+				issue.setMilestone(milestones.get(index));
+			}
+			issue.setLabels(pickLabels(labels));
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	private List<TurboLabel> pickLabels(List<TurboLabel> labels) {
+		List<TurboLabel> result = new ArrayList<>();
+		for (TurboLabel label : labels) {
+			boolean isComponent = !label.isExclusive();
+			int groupSize = (int) labels.stream().filter(l -> l.getGroup().equals(label.getGroup())).count();
+			// Each exclusive group is present 80% of the time; components are sparse
+			int odds = isComponent ? 8 : groupSize * 10 / 8;
+			if (random.nextInt(odds) == 0) {
+				result.add(label);
+			}
+		}
+		return result;
+	}
+
+	private String description() {
+		// Most descriptions are short, but there's a long tail
+		int length = random.nextInt(10) == 0 ? 200 + random.nextInt(1500) : random.nextInt(60);
+		return sentence(length);
+	}
+
+	private String sentence(int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				sb.append(' ');
+			}
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns a number in [0, bound) from a roughly exponential distribution,
+	 * so that small values are common and large ones rare.
+	 */
+	private int skewed(int bound) {
+		double value = -Math.log(1 - random.nextDouble()) * bound / 6;
+		return Math.min((int) value, bound - 1);
+	}
+
+	private <T> T pick(List<T> list) {
+		return list.get(random.nextInt(list.size()));
+	}
+}
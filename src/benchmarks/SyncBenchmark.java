@@ -0,0 +1,336 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import model.Model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.RepositoryId;
+
+import service.GitHubClientExtended;
+import service.HttpTransport;
+import service.HttpTransport.RequestTiming;
+import service.ModelUpdater;
+import service.RepositoryResources;
+import service.ServiceManager;
+import service.UpdateSignature;
+import service.UpdatedIssueMetadata;
+import storage.CacheFileHandler;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * Measures periodic syncs end to end, against a {@link FakeGitHubServer}
+ * serving a synthetic repository. The repository is loaded once, then
+ * synced a number of times for each scenario, with a given number of
+ * issues changed on the server before every sync.
+ *
+ * Each sync goes through the same steps as the sync timer in
+ * {@link ServiceManager}, minus the UI, and the time taken by each is
+ * recorded:
+ *
+ * - http: waiting for responses to the requests made by {@link ModelUpdater},
+ *   up to the arrival of their headers
+ * - transfer and decode: reading and deserialising their bodies, which
+ *   happen together, as bodies are parsed as they are streamed
+ * - model update: applying the changes to the model
+ * - cache write: writing the cache file, as {@link Model#updateCache(UpdateSignature)} does
+ * - metadata download: fetching events and comments of recently-updated
+ *   issues, as panels with an updated filter would request
+ * - event dispatch: notifying listeners of the model change
+ *
+ * Runs headless. Results are printed, and written as JSON to a report file
+ * for comparison between runs.
+ *
+ * Usage: SyncBenchmark [--issues count] [--ticks count] [--report file] [changed issues per tick...]
+ */
+public class SyncBenchmark {
+
+	private static final Logger logger = LogManager.getLogger(SyncBenchmark.class.getName());
+
+	private static final long SEED = 42;
+	private static final int DEFAULT_ISSUE_COUNT = 10000;
+	private static final int[] DEFAULT_CHANGES_PER_TICK = {0, 10, 500};
+	private static final int DEFAULT_TICKS = 10;
+	private static final int WARMUP_TICKS = 1;
+	private static final String DEFAULT_REPORT_FILE = "sync-benchmark.json";
+
+	// What a panel showing recently-updated issues would have as its filter
+	private static final String UPDATED_FILTER = "updated:<24";
+
+	private static final String[] PHASES = {
+		"http", "transfer and decode", "model update", "cache write",
+		"metadata download", "event dispatch", "total"
+	};
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final int issueCount;
+	private final int ticks;
+
+	private FakeGitHubServer server;
+	private HttpTransport transport;
+	private GitHubClientExtended client;
+	private ServiceManager serviceManager;
+	private Model model;
+	private String repoId;
+
+	private UpdateSignature updateSignature;
+	private CacheFileHandler cacheFileHandler;
+
+	// Totals for the requests made since they were last reset
+	private final AtomicLong responseNanos = new AtomicLong();
+	private final AtomicLong requestNanos = new AtomicLong();
+	private final Consumer<RequestTiming> timingListener = timing -> {
+		responseNanos.addAndGet(timing.responseNanos);
+		requestNanos.addAndGet(timing.totalNanos);
+	};
+
+	public SyncBenchmark(int issueCount, int ticks) {
+		this.issueCount = issueCount;
+		this.ticks = ticks;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int issueCount = DEFAULT_ISSUE_COUNT;
+		int ticks = DEFAULT_TICKS;
+		String reportFile = DEFAULT_REPORT_FILE;
+		List<Integer> changesPerTick = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--issues":
+				issueCount = Integer.parseInt(args[++i]);
+				break;
+			case "--ticks":
+				ticks = Integer.parseInt(args[++i]);
+				break;
+			case "--report":
+				reportFile = args[++i];
+				break;
+			default:
+				changesPerTick.add(Integer.parseInt(args[i]));
+				break;
+			}
+		}
+		if (changesPerTick.isEmpty()) {
+			for (int changes : DEFAULT_CHANGES_PER_TICK) {
+				changesPerTick.add(changes);
+			}
+		}
+
+		BenchmarkRunner.useTemporaryCacheDirectory();
+		Map<String, Object> report = new SyncBenchmark(issueCount, ticks).run(changesPerTick);
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		Files.write(Paths.get(reportFile), gson.toJson(report).getBytes(StandardCharsets.UTF_8));
+		System.out.println("Report written to " + reportFile);
+
+		// The service manager leaves threads behind
+		System.exit(0);
+	}
+
+	/**
+	 * Loads the repository, then runs each scenario in turn.
+	 * @param changesPerTick the number of issues changed before each sync, for each scenario
+	 * @return the report
+	 * @throws IOException
+	 */
+	public Map<String, Object> run(List<Integer> changesPerTick) throws IOException {
+		Model.isInTestMode = true;
+
+		server = new FakeGitHubServer(GitHubFixtures.generate(SEED, issueCount));
+		server.setRateLimit(Integer.MAX_VALUE);
+		server.start();
+		transport = new HttpTransport(30000);
+		transport.addTimingListener(timingListener);
+		client = server.createClient(transport);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		try {
+			report.put("environment", getEnvironment());
+			Map<String, Object> config = new LinkedHashMap<>();
+			config.put("issues", issueCount);
+			config.put("ticks", ticks);
+			config.put("warmupTicks", WARMUP_TICKS);
+			config.put("seed", SEED);
+			report.put("config", config);
+
+			report.put("initialLoad", load());
+
+			List<Object> scenarios = new ArrayList<>();
+			System.out.println(String.format("%8s  %-20s  %12s  %12s  %12s  %12s",
+				"changed", "phase", "median (ms)", "mean (ms)", "min (ms)", "max (ms)"));
+			for (int changes : changesPerTick) {
+				scenarios.add(runScenario(changes));
+				System.out.println();
+			}
+			report.put("scenarios", scenarios);
+		} finally {
+			transport.removeTimingListener(timingListener);
+			server.stop();
+		}
+		return report;
+	}
+
+	/**
+	 * Logs in and loads the repository from scratch, as on first use.
+	 * @return the report on the initial load
+	 * @throws IOException
+	 */
+	private Map<String, Object> load() throws IOException {
+		serviceManager = ServiceManager.getInstance();
+		serviceManager.setGitHubClient(client);
+		serviceManager.login(GitHubFixtures.OWNER, "");
+		model = serviceManager.getModel();
+
+		RepositoryId repository = RepositoryId.create(GitHubFixtures.OWNER, GitHubFixtures.REPOSITORY);
+		repoId = repository.generateId();
+		new CacheFileHandler(repoId).deleteCacheFiles();
+
+		long requestsBefore = transport.getRequestCount();
+		long bytesBefore = transport.getBytesReceived();
+		long start = System.nanoTime();
+		RepositoryResources resources = serviceManager.getResources(repository, (message, progress) -> {});
+		model.populateComponents(repository, resources);
+		long elapsed = System.nanoTime() - start;
+
+		// The signature a first sync would start from
+		updateSignature = new UpdateSignature(null, null, null, null, new Date());
+		cacheFileHandler = new CacheFileHandler(repoId);
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("millis", elapsed / NANOS_PER_MILLI);
+		result.put("requests", transport.getRequestCount() - requestsBefore);
+		result.put("bytes", transport.getBytesReceived() - bytesBefore);
+		System.out.println(String.format("Loaded %d issues in %.2f ms%n", model.getIssues().size(),
+			elapsed / NANOS_PER_MILLI));
+		return result;
+	}
+
+	/**
+	 * Runs a number of syncs, with the given number of issues changed before each.
+	 * @param changes
+	 * @return the report on the scenario
+	 */
+	private Map<String, Object> runScenario(int changes) {
+		// Metadata ETags are kept per issue, so they carry over between syncs
+		UpdatedIssueMetadata metadata = new UpdatedIssueMetadata(serviceManager);
+		FilterExpression updatedFilter = Parser.parse(UPDATED_FILTER);
+
+		Map<String, long[]> samples = new LinkedHashMap<>();
+		for (String phase : PHASES) {
+			samples.put(phase, new long[ticks]);
+		}
+		long requests = 0;
+		long notModified = 0;
+		long bytes = 0;
+		long metadataIssues = 0;
+
+		for (int tick = -WARMUP_TICKS; tick < ticks; tick++) {
+			server.getFixtures().updateIssues(changes);
+
+			long requestsBefore = transport.getRequestCount();
+			long notModifiedBefore = server.getNotModifiedCount();
+			long bytesBefore = transport.getBytesReceived();
+			responseNanos.set(0);
+			requestNanos.set(0);
+
+			long start = System.nanoTime();
+			ModelUpdater modelUpdater = new ModelUpdater(client, model, updateSignature);
+			if (!modelUpdater.updateModel(repoId)) {
+				logger.warn("Model update did not complete");
+			}
+			long updated = System.nanoTime();
+			long http = responseNanos.get();
+			long transfer = requestNanos.get() - http;
+			updateSignature = modelUpdater.getNewUpdateSignature();
+
+			// Model.updateCache does nothing in test mode, so it is done directly
+			cacheFileHandler.writeToFile(repoId, updateSignature.issuesETag, updateSignature.labelsETag,
+				updateSignature.milestonesETag, updateSignature.collaboratorsETag, updateSignature.lastCheckTime,
+				model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues());
+			CacheFileHandler.flushWrites();
+			long cached = System.nanoTime();
+
+			List<Integer> updatedIssues = model.getIssues().stream()
+				.filter(issue -> Qualifier.process(updatedFilter, issue))
+				.map(issue -> issue.getId())
+				.collect(Collectors.toList());
+			metadata.download(updatedIssues);
+			long downloaded = System.nanoTime();
+
+			model.triggerModelChangeEvent();
+			long end = System.nanoTime();
+
+			if (tick < 0) {
+				continue;
+			}
+			samples.get("http")[tick] = http;
+			samples.get("transfer and decode")[tick] = transfer;
+			samples.get("model update")[tick] = updated - start - http - transfer;
+			samples.get("cache write")[tick] = cached - updated;
+			samples.get("metadata download")[tick] = downloaded - cached;
+			samples.get("event dispatch")[tick] = end - downloaded;
+			samples.get("total")[tick] = end - start;
+
+			requests += transport.getRequestCount() - requestsBefore;
+			notModified += server.getNotModifiedCount() - notModifiedBefore;
+			bytes += transport.getBytesReceived() - bytesBefore;
+			metadataIssues += updatedIssues.size();
+		}
+
+		Map<String, Object> phases = new LinkedHashMap<>();
+		for (String phase : PHASES) {
+			Measurement measurement = new Measurement(phase + " (" + changes + " changed)", samples.get(phase));
+			phases.put(phase, summarise(measurement));
+			System.out.println(String.format("%8d  %-20s  %12.2f  %12.2f  %12.2f  %12.2f", changes, phase,
+				measurement.getMedianMillis(), measurement.getMeanMillis(),
+				measurement.getMinMillis(), measurement.getMaxMillis()));
+		}
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("changedIssuesPerTick", changes);
+		result.put("requestsPerTick", (double) requests / ticks);
+		result.put("notModifiedPerTick", (double) notModified / ticks);
+		result.put("bytesPerTick", (double) bytes / ticks);
+		result.put("metadataIssuesPerTick", (double) metadataIssues / ticks);
+		result.put("phases", phases);
+		return result;
+	}
+
+	private static Map<String, Object> summarise(Measurement measurement) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("medianMillis", measurement.getMedianMillis());
+		result.put("meanMillis", measurement.getMeanMillis());
+		result.put("minMillis", measurement.getMinMillis());
+		result.put("maxMillis", measurement.getMaxMillis());
+		return result;
+	}
+
+	private static Map<String, Object> getEnvironment() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("javaVersion", System.getProperty("java.version"));
+		result.put("javaVm", System.getProperty("java.vm.name"));
+		result.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+		result.put("processors", Runtime.getRuntime().availableProcessors());
+		result.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+		return result;
+	}
+}
@@ -244,10 +244,19 @@ public class BrowserComponent {
 	 * Run on a separate thread.
 	 */
 	public void showIssue(int id) {
-		logger.info("Showing issue #" + id);
+		showIssue(null, id);
+	}
+
+	/**
+	 * @param repoId the repository the issue belongs to, or null for the current one
+	 * @param id
+	 */
+	public void showIssue(String repoId, int id) {
+		logger.info("Showing issue #" + id + (repoId == null ? "" : " of " + repoId));
+		String url = GitHubURL.getPathForIssue(repoId, id);
 		runBrowserOperation(() -> {
-			if (!driver.getCurrentUrl().equals(GitHubURL.getPathForIssue(id))) {
-				driver.get(GitHubURL.getPathForIssue(id));
+			if (!driver.getCurrentUrl().equals(url)) {
+				driver.get(url);
 			}
 		});
 	}
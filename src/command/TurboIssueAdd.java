@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
-import javafx.application.Platform;
 import model.Model;
 import model.TurboIssue;
 
@@ -12,6 +11,7 @@ import org.eclipse.egit.github.core.Issue;
 
 import service.ServiceManager;
 import util.DialogMessage;
+import util.PlatformEx;
 
 /**
  * Creates a new github issue on github and updates model with the created issue data
@@ -32,7 +32,7 @@ public class TurboIssueAdd extends TurboIssueCommand{
 		try {
 			createdIssue = ServiceManager.getInstance().createIssue(ghIssue);
 		} catch (SocketTimeoutException | UnknownHostException e){
-			Platform.runLater(()->{
+			PlatformEx.runLater(()->{
 				DialogMessage.showWarningDialog("Internet Connection Timeout", 
 						"Timeout adding issue in GitHub, please check your internet connection.");
 			});
@@ -49,7 +49,7 @@ public class TurboIssueAdd extends TurboIssueCommand{
 	}
 	
 	private void addIssueToLocalCache(TurboIssue issue){
-		Platform.runLater(() -> {
+		PlatformEx.runLater(() -> {
 			model.get().appendToCachedIssues(issue);
 		});
 	}
@@ -5,7 +5,6 @@ import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.util.List;
 
-import javafx.application.Platform;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -16,6 +15,7 @@ import org.eclipse.egit.github.core.client.RequestException;
 import service.ServiceManager;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 
 /**
  * Adds given list of labels to the issue on github. Also adds labels to the given TurboIssue object
@@ -59,13 +59,13 @@ public class TurboIssueAddLabels extends TurboIssueCommand{
 			issue.removeLabels(addedLabels);
 			isSuccessful = false;
 			if(e instanceof SocketTimeoutException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout adding label(s) to issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Failed to add label to issue on GitHub: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot add label(s) to issue.");
 				});
@@ -92,13 +92,13 @@ public class TurboIssueAddLabels extends TurboIssueCommand{
 			issue.addLabels(addedLabels);
 			isUndone = false;
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying label(s) for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not modify labels of issue on GitHub: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue labels.");
 				});
@@ -3,7 +3,6 @@ package command;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 
-import javafx.application.Platform;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -12,6 +11,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import service.ServiceManager;
+import util.PlatformEx;
 
 public abstract class TurboIssueCommand {
 	protected static final Logger logger = LogManager.getLogger(TurboIssueCommand.class.getName());
@@ -36,7 +36,7 @@ public abstract class TurboIssueCommand {
 	public boolean execute(){
 		boolean result = performExecuteAction();
 		if(result){
-			Platform.runLater(() -> {
+			PlatformEx.runLater(() -> {
 				model.get().refresh();
 			});
 		}
@@ -47,7 +47,7 @@ public abstract class TurboIssueCommand {
 	public boolean undo(){
 		boolean result = performUndoAction();
 		if(result){
-			Platform.runLater(() -> {
+			PlatformEx.runLater(() -> {
 				model.get().refresh();
 			});
 		}
@@ -6,7 +6,6 @@ import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.HashSet;
 
-import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import model.Model;
 import model.TurboIssue;
@@ -20,6 +19,7 @@ import org.eclipse.egit.github.core.client.RequestException;
 import service.ServiceManager;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 
 public class TurboIssueEdit extends TurboIssueCommand{
 	protected static final String TITLE_FIELD = "title";
@@ -73,20 +73,20 @@ public class TurboIssueEdit extends TurboIssueCommand{
 						+ "Please reload and enter your descripton again.");
 			}
 			
-			Platform.runLater(() -> {
+			PlatformEx.runLater(() -> {
 				//Must be run on application thread since this triggers ui updates.
 				model.get().updateCachedIssue(latestIssue);
 			});
 			return true;
 		} catch (IOException e) {
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout while editing issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not edit issue: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot edit issue.");
 				});
@@ -4,12 +4,11 @@ import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 
@@ -49,13 +48,13 @@ public class TurboIssueEditDescription extends TurboIssueCommand{
 		} catch (IOException e) {
 			issue.setDescription(oldDesc);
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying description for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not edit issue description: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue description.");
 				});
@@ -4,12 +4,11 @@ import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 
@@ -43,13 +42,13 @@ public class TurboIssueEditTitle extends TurboIssueCommand{
 		} catch (IOException e) {
 			isSuccessful = false;
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying title for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not edit issue title: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue title.");
 				});
@@ -5,14 +5,13 @@ import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.util.List;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -60,13 +59,13 @@ public class TurboIssueRemoveLabels extends TurboIssueCommand{
 			issue.addLabels(removedLabels);
 			isSuccessful = false;
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout removing label(s) from issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not remove issue labels: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot remove label(s) from issue.");
 				});
@@ -93,12 +92,12 @@ public class TurboIssueRemoveLabels extends TurboIssueCommand{
 			issue.removeLabels(removedLabels);
 			isUndone = false;
 			if(e instanceof SocketTimeoutException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying label(s) for issue in GitHub, please check your internet connection.");
 				});
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue labels.");
 				});
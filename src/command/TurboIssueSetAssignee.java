@@ -4,12 +4,11 @@ import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 import model.TurboUser;
@@ -53,13 +52,13 @@ public class TurboIssueSetAssignee extends TurboIssueCommand{
 			return result;
 		} catch (IOException e) {
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying assignee for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not change issue assignee: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue assignee.");
 				});
@@ -6,14 +6,13 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -60,13 +59,13 @@ public class TurboIssueSetLabels extends TurboIssueCommand{
 		} catch (IOException e) {
 			issue.setLabels(oldLabels);
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying labels for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not set issue labels: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue labels.");
 				});
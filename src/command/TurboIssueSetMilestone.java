@@ -4,12 +4,11 @@ import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 import model.TurboMilestone;
@@ -45,13 +44,13 @@ public class TurboIssueSetMilestone extends TurboIssueCommand{
 			return result;
 		} catch (IOException e) {
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying milestone for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not set issue milestone: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue milestone.");
 				});
@@ -5,14 +5,13 @@ import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 import model.Model;
 import model.TurboIssue;
 
@@ -56,13 +55,13 @@ public class TurboIssueSetParent extends TurboIssueCommand{
 		} catch (IOException e) {
 			setLocalIssueParent(parent, oldParent);
 			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("Internet Connection Timeout", 
 							"Timeout modifying parent for issue in GitHub, please check your internet connection.");
 				});
 				logger.info("Could not modify issue parent: " + e.getLocalizedMessage());
 			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
+				PlatformEx.runLater(()->{
 					DialogMessage.showWarningDialog("No repository permissions", 
 							"Cannot modify issue parent.");
 				});
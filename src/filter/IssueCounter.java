@@ -0,0 +1,219 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import model.LabelTable;
+import model.TurboIssue;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * Counts the issues which match a filter, grouped by assignee, milestone or
+ * the labels of a label group, without building a list of them.
+ *
+ * Panels with a count qualifier, such as count:assignee or count:priority,
+ * show these counts instead of the issues themselves. count:total shows
+ * only the number of matches.
+ *
+ * Issues are grouped by label through the ids of their labels: the name of
+ * each label of the group is looked up by id in a table built from
+ * {@link LabelTable}, rather than from the labels of each issue.
+ */
+public class IssueCounter {
+
+	private static final String COUNT = "count";
+	private static final String TOTAL = "total";
+	private static final String ASSIGNEE = "assignee";
+	private static final String MILESTONE = "milestone";
+
+	// The key issues are grouped by: one of the above, or the name of a label group
+	private final String key;
+
+	// The names of the labels of the group, by label id; null for other labels
+	private String[] labelNames = new String[0];
+	private int labelTableSize = -1;
+
+	private IssueCounter(String key) {
+		this.key = key;
+	}
+
+	public static IssueCounter total() {
+		return new IssueCounter(TOTAL);
+	}
+
+	public static IssueCounter byAssignee() {
+		return new IssueCounter(ASSIGNEE);
+	}
+
+	public static IssueCounter byMilestone() {
+		return new IssueCounter(MILESTONE);
+	}
+
+	public static IssueCounter byLabelGroup(String group) {
+		return new IssueCounter(group.toLowerCase());
+	}
+
+	/**
+	 * @param expr
+	 * @return a counter for the count qualifier of the expression, if it has one
+	 * @throws ParseException if there are several count qualifiers, or one without a key
+	 */
+	public static Optional<IssueCounter> of(FilterExpression expr) {
+		List<Qualifier> qualifiers = expr.find(q -> q.getName().equals(COUNT));
+		if (qualifiers.isEmpty()) {
+			return Optional.empty();
+		} else if (qualifiers.size() > 1) {
+			throw new ParseException("Only one count qualifier may be given");
+		}
+		Optional<String> content = qualifiers.get(0).getContent();
+		if (!content.isPresent() || content.get().isEmpty()) {
+			throw new ParseException("count needs a key, such as count:assignee");
+		}
+		return Optional.of(new IssueCounter(content.get().toLowerCase()));
+	}
+
+	/**
+	 * @param expr
+	 * @param issues
+	 * @return the counts of the issues which satisfy the expression
+	 */
+	public Counts count(FilterExpression expr, List<TurboIssue> issues) {
+		return count(issues, issue -> Qualifier.process(expr, issue));
+	}
+
+	/**
+	 * @param issues
+	 * @param predicate
+	 * @return the counts of the issues which satisfy the predicate
+	 */
+	public Counts count(List<TurboIssue> issues, Predicate<TurboIssue> predicate) {
+		if (isByLabelGroup()) {
+			prepareLabelNames();
+		}
+		int total = 0;
+		int ungrouped = 0;
+		Map<String, Integer> groups = new HashMap<>();
+		for (TurboIssue issue : issues) {
+			if (!predicate.test(issue)) {
+				continue;
+			}
+			total++;
+			if (key.equals(TOTAL)) {
+				continue;
+			}
+			if (!addGroups(issue, groups)) {
+				ungrouped++;
+			}
+		}
+		return new Counts(key, total, ungrouped, groups);
+	}
+
+	private boolean isByLabelGroup() {
+		return !key.equals(TOTAL) && !key.equals(ASSIGNEE) && !key.equals(MILESTONE);
+	}
+
+	/**
+	 * Counts the issue towards the groups it belongs to.
+	 * @return false if it belongs to none
+	 */
+	private boolean addGroups(TurboIssue issue, Map<String, Integer> groups) {
+		switch (key) {
+		case ASSIGNEE:
+			if (issue.getAssignee() == null) {
+				return false;
+			}
+			groups.merge(issue.getAssignee().getGithubName(), 1, Integer::sum);
+			return true;
+		case MILESTONE:
+			if (issue.getMilestone() == null) {
+				return false;
+			}
+			groups.merge(issue.getMilestone().getTitle(), 1, Integer::sum);
+			return true;
+		default:
+			// An issue counts towards each label of the group it has
+			boolean found = false;
+			for (int id : issue.getLabelIds()) {
+				String name = id < labelNames.length ? labelNames[id] : null;
+				if (name != null) {
+					groups.merge(name, 1, Integer::sum);
+					found = true;
+				}
+			}
+			return found;
+		}
+	}
+
+	private void prepareLabelNames() {
+		// Labels are only ever added to the table, so it has to be read again only when it grows
+		if (LabelTable.size() == labelTableSize) {
+			return;
+		}
+		labelTableSize = LabelTable.size();
+		labelNames = new String[labelTableSize];
+		LabelTable.getIdsMatching(label -> key.equalsIgnoreCase(label.getGroup())).stream()
+			.forEach(id -> labelNames[id] = LabelTable.getLabel(id).getName());
+	}
+
+	/**
+	 * The result of a count.
+	 */
+	public static class Counts {
+		private final String key;
+		private final int total;
+		private final int ungrouped;
+		private final Map<String, Integer> groups;
+
+		private Counts(String key, int total, int ungrouped, Map<String, Integer> groups) {
+			this.key = key;
+			this.total = total;
+			this.ungrouped = ungrouped;
+
+			// Largest groups first, then by name
+			List<Map.Entry<String, Integer>> entries = new ArrayList<>(groups.entrySet());
+			entries.sort((a, b) -> a.getValue().equals(b.getValue())
+				? a.getKey().compareToIgnoreCase(b.getKey())
+				: b.getValue() - a.getValue());
+			Map<String, Integer> ordered = new LinkedHashMap<>();
+			entries.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+			this.groups = Collections.unmodifiableMap(ordered);
+		}
+
+		/**
+		 * @return what the issues are grouped by: total, assignee, milestone, or a label group
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the number of issues which match
+		 */
+		public int getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return the number of issues which match but belong to no group,
+		 * such as those without an assignee
+		 */
+		public int getUngrouped() {
+			return ungrouped;
+		}
+
+		/**
+		 * @return the number of issues in each group, largest first. An issue
+		 * with several labels of a group counts towards each.
+		 */
+		public Map<String, Integer> getGroups() {
+			return groups;
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import model.LabelTable;
+import model.TurboIssue;
+import model.TurboMilestone;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * Orders the issues of a panel as given by the sort qualifiers of its
+ * filter, such as sort:updated or sort:milestone-asc. The keys are, in order
+ * of precedence:
+ *
+ * - updated, created: the time of the last update or of creation; newest first
+ * - comments: the number of comments; most first
+ * - id: the issue number; lowest first
+ * - milestone: the due date of the milestone; earliest first
+ * - any other name: the labels of the group of that name, by label name
+ *
+ * A key may be followed by -asc or -desc to choose the direction. Issues
+ * without a value for a key, such as those without a milestone, come last
+ * either way. Issues which are equal on all keys keep their order.
+ *
+ * Each issue is reduced to an array of numbers, one per key, before it is
+ * compared, so comparisons are cheap. The result of the last sort is kept,
+ * along with those numbers, so that sorting the issues of a panel again
+ * after a sync only sorts the issues which are new or whose keys changed,
+ * and merges them into the rest, which are already in order.
+ */
+public class IssueSorter {
+
+	private static final String SORT = "sort";
+	private static final String ASCENDING = "-asc";
+	private static final String DESCENDING = "-desc";
+
+	// Stands for a missing value; sorts after every other value
+	private static final long MISSING = Long.MIN_VALUE;
+
+	private final List<SortKey> keys;
+
+	// The last result, and the keys of its issues, keys.size() per issue
+	private List<TurboIssue> sorted = Collections.emptyList();
+	private long[] sortedKeys = new long[0];
+
+	private IssueSorter(List<SortKey> keys) {
+		this.keys = keys;
+	}
+
+	/**
+	 * @param expr
+	 * @return a sorter for the sort qualifiers of the expression, if it has any
+	 * @throws ParseException if a sort qualifier is not of the form key[-asc|-desc]
+	 */
+	public static Optional<IssueSorter> of(FilterExpression expr) {
+		List<SortKey> keys = new ArrayList<>();
+		for (Qualifier qualifier : expr.find(q -> q.getName().equals(SORT))) {
+			if (!qualifier.getContent().isPresent() || qualifier.getContent().get().isEmpty()) {
+				throw new ParseException("sort needs a key, such as sort:updated");
+			}
+			keys.add(SortKey.parse(qualifier.getContent().get().toLowerCase()));
+		}
+		return keys.isEmpty() ? Optional.empty() : Optional.of(new IssueSorter(keys));
+	}
+
+	/**
+	 * Sorts the given issues. Issues which were passed to the last call,
+	 * and whose keys have not changed since, are not compared again.
+	 *
+	 * @param issues
+	 * @return the issues in order
+	 */
+	public List<TurboIssue> sort(List<TurboIssue> issues) {
+		int n = issues.size();
+		int width = keys.size();
+		keys.forEach(SortKey::prepare);
+		long[] issueKeys = new long[n * width];
+		Map<TurboIssue, Integer> positions = new IdentityHashMap<>(n);
+		for (int i = 0; i < n; i++) {
+			TurboIssue issue = issues.get(i);
+			for (int k = 0; k < width; k++) {
+				issueKeys[i * width + k] = keys.get(k).get(issue);
+			}
+			positions.put(issue, i);
+		}
+
+		// Issues which are still there with the same keys are still in order
+		boolean[] isRetained = new boolean[n];
+		List<Integer> retained = new ArrayList<>();
+		for (int p = 0; p < sorted.size(); p++) {
+			Integer i = positions.get(sorted.get(p));
+			if (i != null && !isRetained[i] && sameKeys(sortedKeys, p, issueKeys, i)) {
+				isRetained[i] = true;
+				retained.add(i);
+			}
+		}
+		List<Integer> changed = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			if (!isRetained[i]) {
+				changed.add(i);
+			}
+		}
+
+		// Equal issues keep their order. Retained issues are still in the order
+		// of the given list among themselves, as long as it only changes by
+		// issues being added, removed or replaced.
+		Comparator<Integer> comparator = (a, b) -> {
+			int result = compare(issueKeys, a, issueKeys, b);
+			return result != 0 ? result : Integer.compare(a, b);
+		};
+		changed.sort(comparator);
+
+		List<TurboIssue> result = new ArrayList<>(n);
+		long[] resultKeys = new long[n * width];
+		int r = 0;
+		int c = 0;
+		while (r < retained.size() || c < changed.size()) {
+			int next;
+			if (c == changed.size()
+				|| r < retained.size() && comparator.compare(retained.get(r), changed.get(c)) < 0) {
+				next = retained.get(r++);
+			} else {
+				next = changed.get(c++);
+			}
+			System.arraycopy(issueKeys, next * width, resultKeys, result.size() * width, width);
+			result.add(issues.get(next));
+		}
+
+		sorted = result;
+		sortedKeys = resultKeys;
+		return Collections.unmodifiableList(result);
+	}
+
+	private boolean sameKeys(long[] a, int i, long[] b, int j) {
+		int width = keys.size();
+		for (int k = 0; k < width; k++) {
+			if (a[i * width + k] != b[j * width + k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int compare(long[] a, int i, long[] b, int j) {
+		int width = keys.size();
+		for (int k = 0; k < width; k++) {
+			long x = a[i * width + k];
+			long y = b[j * width + k];
+			if (x == y) {
+				continue;
+			} else if (x == MISSING) {
+				return 1;
+			} else if (y == MISSING) {
+				return -1;
+			}
+			int result = Long.compare(x, y);
+			return keys.get(k).descending ? -result : result;
+		}
+		return 0;
+	}
+
+	/**
+	 * Reduces an issue to a number to be compared by.
+	 */
+	private abstract static class SortKey {
+		private final boolean descending;
+
+		protected SortKey(boolean descending) {
+			this.descending = descending;
+		}
+
+		/**
+		 * Called before the keys of issues are taken for a sort.
+		 */
+		protected void prepare() {
+		}
+
+		/**
+		 * @param issue
+		 * @return the key of the issue, or {@link IssueSorter#MISSING}
+		 */
+		protected abstract long get(TurboIssue issue);
+
+		private static SortKey parse(String content) {
+			String name = content;
+			Optional<Boolean> descending = Optional.empty();
+			if (content.endsWith(ASCENDING)) {
+				name = content.substring(0, content.length() - ASCENDING.length());
+				descending = Optional.of(false);
+			} else if (content.endsWith(DESCENDING)) {
+				name = content.substring(0, content.length() - DESCENDING.length());
+				descending = Optional.of(true);
+			}
+			if (name.isEmpty()) {
+				throw new ParseException("sort needs a key, such as sort:updated");
+			}
+
+			switch (name) {
+			case "updated":
+				return new SortKey(descending.orElse(true)) {
+					@Override
+					protected long get(TurboIssue issue) {
+						return issue.getUpdatedAtKey();
+					}
+				};
+			case "created":
+				return new SortKey(descending.orElse(true)) {
+					@Override
+					protected long get(TurboIssue issue) {
+						return issue.getCreatedAtKey();
+					}
+				};
+			case "comments":
+				return new SortKey(descending.orElse(true)) {
+					@Override
+					protected long get(TurboIssue issue) {
+						return issue.getCommentCount();
+					}
+				};
+			case "id":
+				return new SortKey(descending.orElse(false)) {
+					@Override
+					protected long get(TurboIssue issue) {
+						return issue.getId();
+					}
+				};
+			case "milestone":
+				return new SortKey(descending.orElse(false)) {
+					@Override
+					protected long get(TurboIssue issue) {
+						TurboMilestone milestone = issue.getMilestone();
+						return milestone == null || milestone.getDueOn() == null
+							? MISSING
+							: milestone.getDueOn().toEpochDay();
+					}
+				};
+			default:
+				return new LabelGroupKey(name, descending.orElse(false));
+			}
+		}
+	}
+
+	/**
+	 * Orders issues by which label of a group they have, by label name. For
+	 * issues with several labels of the group, the first of them counts.
+	 */
+	private static class LabelGroupKey extends SortKey {
+		private final String group;
+		// The rank of each label of the group by name, by label id; -1 for other labels
+		private int[] ranks = new int[0];
+		private int labelTableSize = -1;
+
+		private LabelGroupKey(String group, boolean descending) {
+			super(descending);
+			this.group = group;
+		}
+
+		@Override
+		protected void prepare() {
+			// Labels are only ever added to the table, so it has to be read again only when it grows
+			if (LabelTable.size() == labelTableSize) {
+				return;
+			}
+			labelTableSize = LabelTable.size();
+			List<Integer> ids = new ArrayList<>();
+			LabelTable.getIdsMatching(label -> group.equalsIgnoreCase(label.getGroup())).stream()
+				.forEach(ids::add);
+			ids.sort(Comparator.comparing(id -> LabelTable.getLabel(id).getName().toLowerCase()));
+			ranks = new int[labelTableSize];
+			Arrays.fill(ranks, -1);
+			for (int rank = 0; rank < ids.size(); rank++) {
+				ranks[ids.get(rank)] = rank;
+			}
+		}
+
+		@Override
+		protected long get(TurboIssue issue) {
+			long best = MISSING;
+			for (int id : issue.getLabelIds()) {
+				int rank = id < ranks.length ? ranks[id] : -1;
+				if (rank >= 0 && (best == MISSING || rank < best)) {
+					best = rank;
+				}
+			}
+			return best;
+		}
+	}
+}
@@ -6,11 +6,13 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import model.LabelTable;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -34,6 +36,10 @@ public class Qualifier implements FilterExpression {
 	private Optional<NumberRange> numberRange = Optional.empty();
 	private Optional<Integer> number = Optional.empty();
 
+	// For label qualifiers, the ids of the matching labels, as of when the label table had the given size
+	private BitSet matchingLabelIds = null;
+	private int matchingLabelTableSize = -1;
+
 	// Copy constructor
 	public Qualifier(Qualifier other) {
 		this.name = other.getName();
@@ -155,6 +161,8 @@ public class Qualifier implements FilterExpression {
             return satisfiesCreationDate(issue);
         case "updated":
             return satisfiesUpdatedHours(issue);
+        case "repo":
+            return repoSatisfies(issue);
         default:
             return false;
         }
@@ -177,6 +185,8 @@ public class Qualifier implements FilterExpression {
             throw new QualifierApplicationException("Unnecessary filter: id is immutable");
         case "created":
             throw new QualifierApplicationException("Unnecessary filter: cannot change issue creation date");
+        case "repo":
+            throw new QualifierApplicationException("Unnecessary filter: cannot move issue to another repository");
         case "has":
         case "no":
         case "is":
@@ -312,6 +322,22 @@ public class Qualifier implements FilterExpression {
         return true;
     }
 
+	/**
+	 * Returns the repositories a filter expression refers to through repo
+	 * qualifiers, in the order they appear. Issues of these repositories
+	 * are shown alongside those of the current one.
+	 *
+	 * @param expr
+	 * @return the ids of the repositories, in the form owner/name
+	 */
+	public static List<String> getRepoIds(FilterExpression expr) {
+		return expr.find(q -> q.getName().equals("repo")).stream()
+			.filter(q -> q.getContent().isPresent())
+			.map(q -> q.getContent().get().toLowerCase())
+			.distinct()
+			.collect(Collectors.toList());
+	}
+
 	private static boolean isNotMetaQualifier(Qualifier q) {
 		return !isMetaQualifier(q);
 	}
@@ -319,12 +345,20 @@ public class Qualifier implements FilterExpression {
 	private static boolean isMetaQualifier(Qualifier q) {
 		switch (q.getName()) {
 		case "in":
+		case "sort":
+		case "count":
 			return true;
 		default:
 			return false;
 		}
 	}
 	
+    private boolean repoSatisfies(TurboIssue issue) {
+    	if (!content.isPresent()) return false;
+        String repoId = issue.getRepoId();
+        return repoId != null && repoId.equalsIgnoreCase(content.get());
+    }
+
     private boolean idSatisfies(TurboIssue issue) {
         if (!number.isPresent()) return false;
         return issue.getId() == number.get();
@@ -435,6 +469,24 @@ public class Qualifier implements FilterExpression {
 
     private boolean labelsSatisfy(TurboIssue issue) {
     	if (!content.isPresent()) return false;
+        return issue.hasAnyLabel(getMatchingLabelIds());
+    }
+
+    /**
+     * Returns the ids of the labels which satisfy a label qualifier, so that
+     * testing an issue only involves looking its label ids up. The ids are
+     * worked out again whenever labels have been added to the label table.
+     */
+    private synchronized BitSet getMatchingLabelIds() {
+        int labelTableSize = LabelTable.size();
+        if (matchingLabelIds == null || labelTableSize != matchingLabelTableSize) {
+            matchingLabelIds = LabelTable.getIdsMatching(this::labelMatches);
+            matchingLabelTableSize = labelTableSize;
+        }
+        return matchingLabelIds;
+    }
+
+    private boolean labelMatches(TurboLabel l) {
         String group = "";
         String labelName = content.get().toLowerCase();
         
@@ -452,11 +504,9 @@ public class Qualifier implements FilterExpression {
         // At most one can be empty
         assert !(group.isEmpty() && labelName.isEmpty());
         
-        for (TurboLabel l : issue.getLabels()) {
-            if (labelName.isEmpty() || l.getName() != null && l.getName().toLowerCase().contains(labelName)) {
-                if (group.isEmpty() || l.getGroup() != null && l.getGroup().toLowerCase().contains(group)) {
-                    return true;
-                }
+        if (labelName.isEmpty() || l.getName() != null && l.getName().toLowerCase().contains(labelName)) {
+            if (group.isEmpty() || l.getGroup() != null && l.getGroup().toLowerCase().contains(group)) {
+                return true;
             }
         }
         return false;
@@ -503,7 +553,8 @@ public class Qualifier implements FilterExpression {
 
 	private boolean bodySatisfies(TurboIssue issue) {
     	if (!content.isPresent()) return false;
-        return issue.getDescription().toLowerCase().contains(content.get().toLowerCase());
+        // Searching every description should not push the recently viewed ones out of memory
+        return issue.getDescriptionSource().get().toLowerCase().contains(content.get().toLowerCase());
     }
 
 	private boolean titleSatisfies(TurboIssue issue) {
@@ -0,0 +1,28 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Text held as UTF-8 rather than as a string. Most issue text is ASCII,
+ * which this stores in half the space, at the cost of decoding it each
+ * time it is needed.
+ */
+class CompactText implements Supplier<String> {
+
+	private final byte[] bytes;
+
+	public CompactText(String text) {
+		assert text != null;
+		this.bytes = text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	long getRetainedBytes() {
+		return 16 + MemoryReport.getSize(bytes);
+	}
+
+	@Override
+	public String get() {
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
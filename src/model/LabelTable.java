@@ -0,0 +1,85 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Assigns every distinct label a small integer id, so that issues can hold
+ * their labels as a sorted array of ids instead of a list of label objects.
+ * Labels are told apart by their full name on GitHub, as in
+ * {@link TurboLabel#equals(Object)}, so labels of the same name in different
+ * repositories share an id.
+ *
+ * Labels are a small vocabulary, so ids are never reclaimed. Along with each
+ * id, the table keeps a copy of the label it was first assigned to, for when
+ * the model of an issue does not have the label.
+ *
+ * All methods are thread-safe.
+ */
+public class LabelTable {
+
+	public static final int[] NO_LABELS = new int[0];
+
+	private static final Map<String, Integer> ids = new HashMap<>();
+	private static final List<TurboLabel> labels = new ArrayList<>();
+
+	private LabelTable() {
+	}
+
+	/**
+	 * @param label
+	 * @return the id of the label, which is assigned if it has none yet
+	 */
+	public static synchronized int getId(TurboLabel label) {
+		String name = label.toGhName();
+		Integer id = ids.get(name);
+		if (id == null) {
+			id = labels.size();
+			ids.put(name, id);
+			labels.add(new TurboLabel(label));
+		}
+		return id;
+	}
+
+	/**
+	 * @param label
+	 * @return the id of the label, or -1 if it has none
+	 */
+	public static synchronized int findId(TurboLabel label) {
+		Integer id = ids.get(label.toGhName());
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id
+	 * @return a copy of the label the id was first assigned to; not to be modified
+	 */
+	public static synchronized TurboLabel getLabel(int id) {
+		return labels.get(id);
+	}
+
+	/**
+	 * @return the number of ids assigned so far; grows whenever a label is first seen
+	 */
+	public static synchronized int size() {
+		return labels.size();
+	}
+
+	/**
+	 * @param predicate
+	 * @return the ids of all labels satisfying the predicate
+	 */
+	public static synchronized BitSet getIdsMatching(Predicate<TurboLabel> predicate) {
+		BitSet result = new BitSet(labels.size());
+		for (int id = 0; id < labels.size(); id++) {
+			if (predicate.test(labels.get(id))) {
+				result.set(id);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,219 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.PullRequest;
+import org.eclipse.egit.github.core.User;
+
+import service.TurboIssueEvent;
+import storage.CachedText;
+
+/**
+ * Estimates the memory retained by the fields of a number of issues, to
+ * tell which of them are worth sharing or compacting. For each field,
+ * reports how many values there are, how many distinct instances and
+ * distinct values they amount to, and the bytes retained by the instances.
+ * Instances shared by several issues are only counted once, so the bytes
+ * which are duplicated are those which pooling equal values would save;
+ * see {@link StringPool}.
+ *
+ * Sizes are estimates for a 64-bit Java 8 VM with compressed references,
+ * on which a string is an object of 24 bytes and an array of chars. Objects
+ * other than strings are estimated from the number of their fields.
+ */
+public class MemoryReport {
+
+	private static final int OBJECT_ALIGNMENT = 8;
+	private static final int STRING_SIZE = 24;
+	private static final int ARRAY_HEADER_SIZE = 16;
+	private static final int DATE_SIZE = 24;
+	// Shallow sizes of objects of the GitHub API, from the number of their fields
+	private static final int USER_SIZE = 96;
+	private static final int COMMENT_SIZE = 48;
+	private static final int PULL_REQUEST_SIZE = 120;
+	private static final int EVENT_SIZE = 48;
+	private static final int LIST_SIZE = 24;
+
+	private final Map<String, Field> fields = new LinkedHashMap<>();
+	private int issueCount = 0;
+
+	public static MemoryReport of(Collection<TurboIssue> issues) {
+		MemoryReport report = new MemoryReport();
+		for (TurboIssue issue : issues) {
+			issue.addTo(report);
+			report.issueCount++;
+		}
+		return report;
+	}
+
+	void addString(String field, String value) {
+		if (value != null) {
+			add(field, value, value, getSize(value));
+		}
+	}
+
+	void addInts(String field, int[] values) {
+		add(field, values, new IntArrayKey(values), align(ARRAY_HEADER_SIZE + 4L * values.length));
+	}
+
+	/**
+	 * Adds an object other than a string, which is only compared by identity.
+	 */
+	void addObject(String field, Object instance, long size) {
+		if (instance != null) {
+			add(field, instance, instance, size);
+		}
+	}
+
+	private void add(String field, Object instance, Object value, long size) {
+		Field usage = fields.get(field);
+		if (usage == null) {
+			usage = new Field();
+			fields.put(field, usage);
+		}
+		usage.valueCount++;
+		if (usage.instances.put(instance, Boolean.TRUE) == null) {
+			usage.retainedBytes += size;
+			if (!usage.values.add(value)) {
+				usage.duplicatedBytes += size;
+			}
+		}
+	}
+
+	public int getIssueCount() {
+		return issueCount;
+	}
+
+	/**
+	 * @param field
+	 * @return the bytes retained by the values of the field
+	 */
+	public long getRetainedBytes(String field) {
+		Field usage = fields.get(field);
+		return usage == null ? 0 : usage.retainedBytes;
+	}
+
+	/**
+	 * @param field
+	 * @return the bytes retained by instances of the field which are equal
+	 * to another instance
+	 */
+	public long getDuplicatedBytes(String field) {
+		Field usage = fields.get(field);
+		return usage == null ? 0 : usage.duplicatedBytes;
+	}
+
+	public long getTotalRetainedBytes() {
+		return fields.values().stream().mapToLong(usage -> usage.retainedBytes).sum();
+	}
+
+	static long getSize(String value) {
+		return value == null ? 0 : STRING_SIZE + align(ARRAY_HEADER_SIZE + 2L * value.length());
+	}
+
+	static long getSize(Supplier<String> text) {
+		if (text instanceof CompactText) {
+			return ((CompactText) text).getRetainedBytes();
+		}
+		if (text instanceof CachedText) {
+			return ((CachedText) text).getRetainedBytes();
+		}
+		return text == null ? 0 : getSize(text.get());
+	}
+
+	static long getSize(byte[] value) {
+		return align(ARRAY_HEADER_SIZE + value.length);
+	}
+
+	static long getSize(User user) {
+		if (user == null) {
+			return 0;
+		}
+		return USER_SIZE + getSize(user.getLogin()) + getSize(user.getName()) + getSize(user.getAvatarUrl())
+			+ getSize(user.getUrl()) + getSize(user.getHtmlUrl()) + getSize(user.getType());
+	}
+
+	static long getSize(PullRequest pullRequest) {
+		if (pullRequest == null) {
+			return 0;
+		}
+		return PULL_REQUEST_SIZE + getSize(pullRequest.getHtmlUrl()) + getSize(pullRequest.getDiffUrl())
+			+ getSize(pullRequest.getPatchUrl());
+	}
+
+	static long getCommentsSize(Collection<Comment> comments) {
+		long size = LIST_SIZE + align(ARRAY_HEADER_SIZE + 4L * comments.size());
+		for (Comment comment : comments) {
+			size += COMMENT_SIZE + 2 * DATE_SIZE + getSize(comment.getBody()) + getSize(comment.getBodyHtml())
+				+ getSize(comment.getBodyText()) + getSize(comment.getUrl()) + getSize(comment.getUser());
+		}
+		return size;
+	}
+
+	static long getEventsSize(Collection<TurboIssueEvent> events) {
+		long size = LIST_SIZE + align(ARRAY_HEADER_SIZE + 4L * events.size());
+		for (TurboIssueEvent event : events) {
+			size += EVENT_SIZE + DATE_SIZE + getSize(event.getActor()) + getSize(event.getAssignedUser())
+				+ getSize(event.getLabelName()) + getSize(event.getLabelColour())
+				+ getSize(event.getMilestoneTitle()) + getSize(event.getRenamedFrom())
+				+ getSize(event.getRenamedTo());
+		}
+		return size;
+	}
+
+	private static long align(long size) {
+		return (size + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Memory retained by the fields of %d issues:%n", issueCount));
+		sb.append(String.format("%-12s  %9s  %9s  %9s  %14s  %14s%n",
+			"field", "values", "instances", "distinct", "retained (B)", "duplicated (B)"));
+		for (Map.Entry<String, Field> entry : fields.entrySet()) {
+			Field usage = entry.getValue();
+			sb.append(String.format("%-12s  %9d  %9d  %9d  %14d  %14d%n", entry.getKey(), usage.valueCount,
+				usage.instances.size(), usage.values.size(), usage.retainedBytes, usage.duplicatedBytes));
+		}
+		sb.append(String.format("%-12s  %9s  %9s  %9s  %14d", "total", "", "", "", getTotalRetainedBytes()));
+		return sb.toString();
+	}
+
+	private static class Field {
+		private int valueCount = 0;
+		private final Map<Object, Boolean> instances = new IdentityHashMap<>();
+		private final Set<Object> values = new HashSet<>();
+		private long retainedBytes = 0;
+		private long duplicatedBytes = 0;
+	}
+
+	/**
+	 * Compares arrays by their contents.
+	 */
+	private static class IntArrayKey {
+		private final int[] values;
+
+		private IntArrayKey(int[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IntArrayKey && Arrays.equals(values, ((IntArrayKey) obj).values);
+		}
+	}
+}
@@ -7,6 +7,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javafx.application.Platform;
@@ -27,9 +28,9 @@ import storage.CacheFileHandler;
 import tests.TestUtils;
 import tests.stubs.ModelEventDispatcherStub;
 import ui.UI;
-import ui.components.HTStatusBar;
 import util.CollectionUtilities;
 import util.DialogMessage;
+import util.PlatformEx;
 import util.events.EventDispatcher;
 import util.events.ModelChangedEvent;
 
@@ -90,7 +91,20 @@ public class Model {
 		if (isInTestMode) {
 			action.run();
 		} else {
-			Platform.runLater(action);
+			PlatformEx.runLater("model", action);
+		}
+	}
+
+	/**
+	 * Executes a block of code in the current thread in test mode,
+	 * otherwise executes it on the JavaFX thread, waiting for it to complete.
+	 * @param action
+	 */
+	private void runAndWait(Runnable action) {
+		if (isInTestMode) {
+			action.run();
+		} else {
+			PlatformEx.runAndWait(action);
 		}
 	}
 
@@ -220,9 +234,52 @@ public class Model {
 			logger.error(e.getLocalizedMessage(), e);
 		}
 
+		if (logger.isDebugEnabled()) {
+			logger.debug(MemoryReport.of(issues));
+		}
+
 		updateCache();
 	}
 
+	/**
+	 * Hands over the resources of the current repository, so that they can
+	 * be kept in memory while another repository is loaded. The model is left
+	 * empty, and no longer refers to the resources handed over.
+	 *
+	 * @param updateSignature the signature of the last sync of the repository
+	 * @return the resources of the repository
+	 */
+	public ResidentRepository detachRepository(UpdateSignature updateSignature) {
+		List<ResidentRepository> result = new ArrayList<>();
+		runAndWait(() -> {
+			result.add(new ResidentRepository(repoId.generateId(), issues, labels, milestones, collaborators,
+				dcHandler, updateSignature));
+			issues = new ArrayList<>();
+			labels = new ArrayList<>();
+			milestones = new ArrayList<>();
+			collaborators = new ArrayList<>();
+		});
+		return result.get(0);
+	}
+
+	/**
+	 * Makes a repository kept in memory the current one, in place of
+	 * whatever the model contains. No resources are loaded or copied.
+	 *
+	 * @param repository the repository, as handed over by {@link #detachRepository(UpdateSignature)}
+	 */
+	public void attachRepository(ResidentRepository repository) {
+		runAndWait(() -> {
+			repoId = RepositoryId.createFromId(repository.getRepoId());
+			dcHandler = repository.getDataCacheFileHandler();
+			issues = repository.getIssues();
+			labels = repository.getLabels();
+			milestones = repository.getMilestones();
+			collaborators = repository.getCollaborators();
+			triggerModelChangeEvent();
+		});
+	}
+
 	/**
 	 * Given a data structure containing resources loaded from the cache,
 	 * populates the fields of this class with them.
@@ -326,10 +383,6 @@ public class Model {
 			list.addAll(buffer);
 
 			response.complete(null);
-
-			if (!isInTestMode) {
-				HTStatusBar.addProgress(0.25);
-			}
 		});
 	}
 
@@ -655,6 +708,56 @@ public class Model {
 	private void ______RESOURCE_METADATA______() {
 	}
 
+	private void ______MEMORY______() {
+	}
+
+	/**
+	 * Estimates the memory taken up by the resources of the model. The
+	 * resources are gathered on the JavaFX thread, but measured on the
+	 * calling thread, which should not be the JavaFX thread.
+	 *
+	 * @return the estimate, or empty if no repository is loaded
+	 */
+	public Optional<ModelFootprint> getFootprint() {
+		List<IRepositoryIdProvider> currentRepoId = new ArrayList<>();
+		List<TurboIssue> currentIssues = new ArrayList<>();
+		List<TurboLabel> currentLabels = new ArrayList<>();
+		List<TurboMilestone> currentMilestones = new ArrayList<>();
+		List<TurboUser> currentCollaborators = new ArrayList<>();
+		runAndWait(() -> {
+			if (repoId != null) {
+				currentRepoId.add(repoId);
+				currentIssues.addAll(issues);
+				currentLabels.addAll(labels);
+				currentMilestones.addAll(milestones);
+				currentCollaborators.addAll(collaborators);
+			}
+		});
+		if (currentRepoId.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(ModelFootprint.of(currentRepoId.get(0).generateId(), currentIssues, currentLabels,
+			currentMilestones, currentCollaborators));
+	}
+
+	/**
+	 * Drops the details of issues to save memory; see {@link TurboIssue#evictDetails()}.
+	 *
+	 * @param keep the issues whose details are to be kept
+	 * @return the number of issues whose details were dropped
+	 */
+	public int evictIssueDetails(Predicate<TurboIssue> keep) {
+		int[] evicted = {0};
+		runAndWait(() -> {
+			for (TurboIssue issue : issues) {
+				if (!keep.test(issue) && issue.evictDetails()) {
+					evicted[0]++;
+				}
+			}
+		});
+		return evicted[0];
+	}
+
 	private void ______TESTING______() {
 	}
 
@@ -0,0 +1,141 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An estimate of the memory taken up by the resources of a repository,
+ * broken down into issues, their descriptions, comments and events, and
+ * the labels, milestones and collaborators of the repository, including
+ * the avatars of collaborators. See {@link MemoryReport} for how sizes are
+ * estimated; the estimate is approximate, but fit for telling which
+ * repositories and which of their resources take up the most.
+ */
+public class ModelFootprint {
+
+	public static final String ISSUES = "issues";
+	public static final String DESCRIPTIONS = "descriptions";
+	public static final String COMMENTS = "comments";
+	public static final String EVENTS = "events";
+	public static final String LABELS = "labels";
+	public static final String MILESTONES = "milestones";
+	public static final String COLLABORATORS = "collaborators";
+	public static final String AVATARS = "avatars";
+
+	// The shallow size of an issue, with its weak reference to the model and update time
+	private static final int ISSUE_SIZE = 208;
+	private static final int LABEL_SIZE = 32;
+	private static final int MILESTONE_SIZE = 72;
+	private static final int USER_SIZE = 32;
+	// A 12 by 12 image, as avatars are loaded, with the buffer holding its pixels
+	private static final int AVATAR_SIZE = 1024;
+
+	private final String repoId;
+	private final int issueCount;
+	private final Map<String, Long> categories = new LinkedHashMap<>();
+
+	private ModelFootprint(String repoId, int issueCount) {
+		this.repoId = repoId;
+		this.issueCount = issueCount;
+	}
+
+	/**
+	 * Estimates the memory taken up by the given resources. Reads every
+	 * issue, so the resources should not be modified in the meantime.
+	 */
+	public static ModelFootprint of(String repoId, List<TurboIssue> issues, List<TurboLabel> labels,
+			List<TurboMilestone> milestones, List<TurboUser> collaborators) {
+		ModelFootprint footprint = new ModelFootprint(repoId, issues.size());
+		MemoryReport report = MemoryReport.of(issues);
+
+		long descriptions = report.getRetainedBytes("description");
+		long comments = report.getRetainedBytes("comments");
+		long events = report.getRetainedBytes("events");
+		footprint.categories.put(ISSUES, (long) ISSUE_SIZE * issues.size()
+			+ report.getTotalRetainedBytes() - descriptions - comments - events);
+		footprint.categories.put(DESCRIPTIONS, descriptions);
+		footprint.categories.put(COMMENTS, comments);
+		footprint.categories.put(EVENTS, events);
+
+		long labelBytes = 0;
+		for (TurboLabel label : labels) {
+			labelBytes += LABEL_SIZE + MemoryReport.getSize(label.getName()) + MemoryReport.getSize(label.getGroup())
+				+ MemoryReport.getSize(label.getColour());
+		}
+		footprint.categories.put(LABELS, labelBytes);
+
+		long milestoneBytes = 0;
+		for (TurboMilestone milestone : milestones) {
+			milestoneBytes += MILESTONE_SIZE + MemoryReport.getSize(milestone.getTitle())
+				+ MemoryReport.getSize(milestone.getState()) + MemoryReport.getSize(milestone.getDescription())
+				+ MemoryReport.getSize(milestone.getDueOnString());
+		}
+		footprint.categories.put(MILESTONES, milestoneBytes);
+
+		long userBytes = 0;
+		long avatarBytes = 0;
+		for (TurboUser user : collaborators) {
+			userBytes += USER_SIZE + MemoryReport.getSize(user.getGithubName())
+				+ MemoryReport.getSize(user.getRealName()) + MemoryReport.getSize(user.getAvatarUrl());
+			if (user.isAvatarLoaded()) {
+				avatarBytes += AVATAR_SIZE;
+			}
+		}
+		footprint.categories.put(COLLABORATORS, userBytes);
+		footprint.categories.put(AVATARS, avatarBytes);
+		return footprint;
+	}
+
+	public String getRepoId() {
+		return repoId;
+	}
+
+	public int getIssueCount() {
+		return issueCount;
+	}
+
+	/**
+	 * @param category one of the categories defined in this class
+	 * @return the estimated bytes taken up by the resources of the category
+	 */
+	public long get(String category) {
+		Long bytes = categories.get(category);
+		return bytes == null ? 0 : bytes;
+	}
+
+	/**
+	 * @return the estimated bytes taken up by each category, in a fixed order
+	 */
+	public Map<String, Long> getCategories() {
+		return Collections.unmodifiableMap(categories);
+	}
+
+	public long getTotal() {
+		return categories.values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * @param bytes
+	 * @return the given number of bytes, in the largest unit which keeps it above 1
+	 */
+	public static String formatBytes(long bytes) {
+		if (bytes < 1024) {
+			return bytes + " B";
+		} else if (bytes < 1024 * 1024) {
+			return String.format("%.1f KB", bytes / 1024.0);
+		} else {
+			return String.format("%.1f MB", bytes / (1024.0 * 1024));
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%s: %s for %d issues", repoId, formatBytes(getTotal()), issueCount));
+		categories.forEach((category, bytes) ->
+			sb.append(String.format("%n  %-14s %10s", category, formatBytes(bytes))));
+		return sb.toString();
+	}
+}
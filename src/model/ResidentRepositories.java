@@ -0,0 +1,108 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The repositories kept in memory besides the one in the model, so that
+ * switching back to a recently used repository does not involve loading it
+ * again.
+ *
+ * The number of repositories kept is bounded, as is the total number of
+ * issues in them, which stands in for the memory they take up. When either
+ * bound is exceeded, the least recently used repositories are evicted;
+ * they are then loaded from their cache files when next switched to, as
+ * before.
+ *
+ * All methods are thread-safe.
+ */
+public class ResidentRepositories {
+
+	private static final Logger logger = LogManager.getLogger(ResidentRepositories.class.getName());
+
+	public static final int DEFAULT_MAX_REPOSITORIES = 4;
+	public static final int DEFAULT_MAX_ISSUES = 100000;
+
+	private final int maxRepositories;
+	private final int maxIssues;
+
+	// From the least to the most recently used
+	private final LinkedHashMap<String, ResidentRepository> repositories = new LinkedHashMap<>();
+
+	public ResidentRepositories() {
+		this(DEFAULT_MAX_REPOSITORIES, DEFAULT_MAX_ISSUES);
+	}
+
+	/**
+	 * @param maxRepositories the most repositories to keep
+	 * @param maxIssues the most issues to keep, across all repositories
+	 */
+	public ResidentRepositories(int maxRepositories, int maxIssues) {
+		this.maxRepositories = maxRepositories;
+		this.maxIssues = maxIssues;
+	}
+
+	/**
+	 * Keeps a repository in memory, as the most recently used. Replaces any
+	 * version of it already kept, then evicts repositories as needed.
+	 * @param repository
+	 */
+	public synchronized void add(ResidentRepository repository) {
+		repositories.remove(repository.getRepoId());
+		repositories.put(repository.getRepoId(), repository);
+		evict();
+	}
+
+	/**
+	 * Takes a repository out of memory, to be loaded into the model.
+	 * @param repoId
+	 * @return the repository, if it was kept
+	 */
+	public synchronized Optional<ResidentRepository> remove(String repoId) {
+		return Optional.ofNullable(repositories.remove(repoId));
+	}
+
+	public synchronized boolean contains(String repoId) {
+		return repositories.containsKey(repoId);
+	}
+
+	/**
+	 * @return the ids of the repositories kept, from the least to the most recently used
+	 */
+	public synchronized List<String> getRepoIds() {
+		return new ArrayList<>(repositories.keySet());
+	}
+
+	/**
+	 * @return estimates of the memory taken up by the repositories kept
+	 */
+	public synchronized List<ModelFootprint> getFootprints() {
+		List<ModelFootprint> footprints = new ArrayList<>();
+		for (ResidentRepository repository : repositories.values()) {
+			footprints.add(repository.getFootprint());
+		}
+		return footprints;
+	}
+
+	public synchronized int getIssueCount() {
+		return repositories.values().stream().mapToInt(ResidentRepository::getIssueCount).sum();
+	}
+
+	private void evict() {
+		int issueCount = getIssueCount();
+		Iterator<Map.Entry<String, ResidentRepository>> it = repositories.entrySet().iterator();
+		while (it.hasNext() && (repositories.size() > maxRepositories || issueCount > maxIssues)) {
+			ResidentRepository evicted = it.next().getValue();
+			it.remove();
+			issueCount -= evicted.getIssueCount();
+			logger.info("Evicted repository " + evicted.getRepoId() + " from memory");
+		}
+	}
+}
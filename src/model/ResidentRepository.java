@@ -0,0 +1,83 @@
+package model;
+
+import java.util.List;
+
+import service.UpdateSignature;
+import storage.CacheFileHandler;
+
+/**
+ * The resources of a repository which has been switched away from, but is
+ * kept in memory so that switching back to it is instant. Holds everything
+ * the model and sync need to pick up where they left off: the resources
+ * themselves, the handler of the cache file, and the signature of the last
+ * sync, so that the next sync only fetches what changed since.
+ *
+ * See {@link Model#detachRepository(UpdateSignature)} and {@link ResidentRepositories}.
+ */
+public class ResidentRepository {
+
+	private final String repoId;
+	private final List<TurboIssue> issues;
+	private final List<TurboLabel> labels;
+	private final List<TurboMilestone> milestones;
+	private final List<TurboUser> collaborators;
+	private final CacheFileHandler dcHandler;
+	private final UpdateSignature updateSignature;
+	// Measured when first asked for; the repository does not change while it is kept
+	private ModelFootprint footprint = null;
+
+	public ResidentRepository(String repoId, List<TurboIssue> issues, List<TurboLabel> labels,
+			List<TurboMilestone> milestones, List<TurboUser> collaborators, CacheFileHandler dcHandler,
+			UpdateSignature updateSignature) {
+		this.repoId = repoId;
+		this.issues = issues;
+		this.labels = labels;
+		this.milestones = milestones;
+		this.collaborators = collaborators;
+		this.dcHandler = dcHandler;
+		this.updateSignature = updateSignature;
+	}
+
+	public String getRepoId() {
+		return repoId;
+	}
+
+	public List<TurboIssue> getIssues() {
+		return issues;
+	}
+
+	public List<TurboLabel> getLabels() {
+		return labels;
+	}
+
+	public List<TurboMilestone> getMilestones() {
+		return milestones;
+	}
+
+	public List<TurboUser> getCollaborators() {
+		return collaborators;
+	}
+
+	public CacheFileHandler getDataCacheFileHandler() {
+		return dcHandler;
+	}
+
+	public UpdateSignature getUpdateSignature() {
+		return updateSignature;
+	}
+
+	/**
+	 * @return the number of issues, which is what most of the memory held
+	 * by a repository goes to
+	 */
+	public int getIssueCount() {
+		return issues.size();
+	}
+
+	public synchronized ModelFootprint getFootprint() {
+		if (footprint == null) {
+			footprint = ModelFootprint.of(repoId, issues, labels, milestones, collaborators);
+		}
+		return footprint;
+	}
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one instance among equal strings which are repeated across many
+ * issues, such as the logins of their creators and the prefixes of their
+ * URLs. Strings read from the cache file or from GitHub are all distinct
+ * instances otherwise, even where their contents are equal.
+ *
+ * Unlike {@link String#intern()}, the pool does not keep strings alive: a
+ * string is dropped from it once no issue refers to it any more, so that
+ * strings of repositories which are no longer loaded do not accumulate.
+ *
+ * Only fields with few distinct values are worth pooling; the pool itself
+ * costs memory for every distinct value. See {@link MemoryReport}.
+ *
+ * All methods are thread-safe.
+ */
+public class StringPool {
+
+	private static final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+	private StringPool() {
+	}
+
+	/**
+	 * @param value may be null
+	 * @return the pooled instance equal to the given string, which is the
+	 * string itself if it is the first of its value
+	 */
+	public static String intern(String value) {
+		if (value == null || value.isEmpty()) {
+			return value;
+		}
+		synchronized (strings) {
+			WeakReference<String> reference = strings.get(value);
+			String pooled = reference == null ? null : reference.get();
+			if (pooled == null) {
+				strings.put(value, new WeakReference<>(value));
+				pooled = value;
+			}
+			return pooled;
+		}
+	}
+
+	/**
+	 * @return the number of distinct strings in the pool, including any
+	 * which are no longer referred to but have yet to be collected
+	 */
+	public static int size() {
+		synchronized (strings) {
+			return strings.size();
+		}
+	}
+}
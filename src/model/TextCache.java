@@ -0,0 +1,64 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of text produced on demand, such as issue descriptions
+ * which are still in the cache file. Only the most recently used entries
+ * are kept, so that text which is being looked at is not decoded over and
+ * over, while the rest costs no memory once it falls out.
+ */
+public class TextCache {
+
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private final int capacity;
+
+	// In access order, so that the eldest entry is the least recently used
+	private final Map<Supplier<String>, String> entries = new LinkedHashMap<Supplier<String>, String>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Supplier<String>, String> eldest) {
+			return size() > capacity;
+		}
+	};
+
+	public TextCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public TextCache(int capacity) {
+		assert capacity > 0;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the text produced by the given source, producing it only if
+	 * it is not already in the cache.
+	 */
+	public String get(Supplier<String> source) {
+		synchronized (entries) {
+			String text = entries.get(source);
+			if (text != null) {
+				return text;
+			}
+		}
+		// Producing the text may be slow, so it is done without holding the lock
+		String text = source.get();
+		if (text != null) {
+			synchronized (entries) {
+				entries.put(source, text);
+			}
+		}
+		return text;
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+}
@@ -4,11 +4,18 @@ import java.lang.ref.WeakReference;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javafx.collections.FXCollections;
@@ -61,26 +68,49 @@ public class TurboIssue implements TurboResource {
 	private int id = 0;
 	private String title = "";
 	private String description = "";
+	// Produces the description when it is needed; if set, the description is
+	// not held by the issue, and only recently used descriptions are kept
+	private Supplier<String> descriptionSource = null;
 
 	private int parentIssue = 0;
 	private boolean state = false;
 	private TurboUser assignee;
 	private TurboMilestone milestone;
-	private String htmlUrl;
-	private ObservableList<TurboLabel> labels = FXCollections.observableArrayList();
+	// The URL up to the number of the issue, which is shared by the issues of
+	// a repository; the whole URL if it does not end with a number
+	private String htmlUrlPrefix;
+	private int htmlUrlNumber = -1;
+	// Ids of the labels in the label table, in ascending order; replaced rather than
+	// modified, so that it can be shared. See LabelTable.
+	private int[] labelIds = LabelTable.NO_LABELS;
 
 	private void ______MISCELLANEOUS_FIELDS______() {
 	}
 
+	// Shared by all issues, so that the number of descriptions in memory is bounded
+	private static final TextCache descriptionCache = new TextCache();
+
 	private WeakReference<Model> model;
 
-	private List<TurboIssueEvent> events = new ArrayList<>();
+	// Most issues never have any, so they share an empty list until they do
+	private List<TurboIssueEvent> events = Collections.emptyList();
 
-	private List<Comment> comments = new ArrayList<>();
+	private List<Comment> comments = Collections.emptyList();
 	private boolean hasNewComments = false;
 
+	// ETags of the events and comments, so they are only downloaded again when changed
+	private String eventsETag = null;
+	private String commentsETag = null;
+
 	private LocalDateTime lastModifiedTime;
 
+	// Sort keys derived from the creation and update times, worked out when
+	// first needed, so that sorting compares numbers; see filter.IssueSorter
+	private static final long NO_KEY = Long.MIN_VALUE;
+	private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("d MMM yy, h:mm a");
+	private long createdAtKey = NO_KEY;
+	private long updatedAtKey = NO_KEY;
+
 	private void ______ESSENTIALS______() {
 	}
 
@@ -103,7 +133,7 @@ public class TurboIssue implements TurboResource {
 		setTitle(issue.getTitle());
 		setOpen(new Boolean(issue.getState().equals(STATE_OPEN)));
 		setId(issue.getNumber());
-		setDescription(extractDescription(issue.getBody()));
+		setDescriptionSource(new CompactText(extractDescription(issue.getBody())));
 		setAssignee(issue.getAssignee() == null ? null : new TurboUser(issue.getAssignee()));
 		setMilestone(issue.getMilestone() == null ? null : new TurboMilestone(issue.getMilestone()));
 		setLabels(translateLabels(issue.getLabels()));
@@ -125,7 +155,7 @@ public class TurboIssue implements TurboResource {
 			ghIssue.setAssignee(assignee.toGhResource());
 		if (milestone != null)
 			ghIssue.setMilestone(milestone.toGhResource());
-		ghIssue.setLabels(TurboLabel.toGhLabels(labels));
+		ghIssue.setLabels(TurboLabel.toGhLabels(getLabels()));
 		ghIssue.setBody(buildGithubBody());
 		return ghIssue;
 	}
@@ -151,7 +181,8 @@ public class TurboIssue implements TurboResource {
 		TurboIssue otherIssue = (TurboIssue) other;
 		model = otherIssue.model;
 
-		setHtmlUrl(otherIssue.getHtmlUrl());
+		htmlUrlPrefix = otherIssue.htmlUrlPrefix;
+		htmlUrlNumber = otherIssue.htmlUrlNumber;
 
 		// Logging is done with the assumption that this method is used for
 		// updating the values of TurboIssue in mind
@@ -162,17 +193,25 @@ public class TurboIssue implements TurboResource {
 		setOpen(otherIssue.isOpen());
 		setId(otherIssue.getId());
 
-		if (otherIssue.getDescription() != null && this.getDescription() != null) {
-			if (!otherIssue.getDescription().equals(this.getDescription())) {
-				log("desc", this.getDescription(), otherIssue.getDescription());
+		// Descriptions which are still in the cache file are not loaded just to be logged
+		if (otherIssue.descriptionSource == null) {
+			String description = this.getDescription();
+			String otherDescription = otherIssue.description;
+			if (otherDescription != null && description != null) {
+				if (!otherDescription.equals(description)) {
+					log("desc", description, otherDescription);
+				}
+			} else if (otherDescription == null && description != null) {
+				log("desc", "removed");
+			} else if (otherDescription != null && description == null) {
+				log("desc", "added");
 			}
-		} else if (otherIssue.getDescription() == null && this.getDescription() != null) {
-			log("desc", "removed");
-		} else if (otherIssue.getDescription() != null
-			&& this.getDescription() == null) {
-			log("desc", "added");
 		}
-		setDescription(otherIssue.getDescription());
+		if (otherIssue.descriptionSource != null) {
+			setDescriptionSource(otherIssue.descriptionSource);
+		} else {
+			setDescription(otherIssue.description);
+		}
 
 		if (otherIssue.getAssignee() != null && this.getAssignee() != null) {
 			if (!otherIssue.getAssignee().equals(this.getAssignee())) {
@@ -196,21 +235,23 @@ public class TurboIssue implements TurboResource {
 		}
 		setMilestone(otherIssue.getMilestone());
 
-		List<TurboLabel> oldList = new ArrayList<>(this.getLabels());
-		List<TurboLabel> newList = new ArrayList<>(otherIssue.getLabels());
-		HashMap<String, HashSet<TurboLabel>> changes = CollectionUtilities
-			.getChangesToList(oldList, newList);
-		HashSet<TurboLabel> removed = changes
-			.get(CollectionUtilities.REMOVED_TAG);
-		HashSet<TurboLabel> added = changes
-			.get(CollectionUtilities.ADDED_TAG);
-		if (removed.size() > 0) {
-			logger.info(String.format("Issue %d labels removed: %s", this.getId(), Utility.stringify(removed)));
-		}
-		if (added.size() > 0) {
-			logger.info(String.format("Issue %d labels added: %s", this.getId(), Utility.stringify(added)));
-		}
-		setLabels(otherIssue.getLabels());
+		if (!Arrays.equals(labelIds, otherIssue.labelIds)) {
+			List<TurboLabel> oldList = new ArrayList<>(this.getLabels());
+			List<TurboLabel> newList = new ArrayList<>(otherIssue.getLabels());
+			HashMap<String, HashSet<TurboLabel>> changes = CollectionUtilities
+				.getChangesToList(oldList, newList);
+			HashSet<TurboLabel> removed = changes
+				.get(CollectionUtilities.REMOVED_TAG);
+			HashSet<TurboLabel> added = changes
+				.get(CollectionUtilities.ADDED_TAG);
+			if (removed.size() > 0) {
+				logger.info(String.format("Issue %d labels removed: %s", this.getId(), Utility.stringify(removed)));
+			}
+			if (added.size() > 0) {
+				logger.info(String.format("Issue %d labels added: %s", this.getId(), Utility.stringify(added)));
+			}
+		}
+		labelIds = otherIssue.labelIds;
 		setParentIssue(otherIssue.getParentIssue());
 		setPullRequest(otherIssue.getPullRequest());
 		setCommentCount(otherIssue.getCommentCount());
@@ -239,6 +280,40 @@ public class TurboIssue implements TurboResource {
 		return pullRequest != null && pullRequest.getUrl() != null;
 	}
 
+	/**
+	 * @return the id of the repository the issue belongs to, which is that of
+	 * the model it was loaded into, or null if unknown
+	 */
+	public String getRepoId() {
+		Model owner = model == null ? null : model.get();
+		if (owner == null || owner.getRepoId() == null) {
+			return null;
+		}
+		return owner.getRepoId().generateId();
+	}
+
+	/**
+	 * Adds the fields of this issue to a report of the memory they retain.
+	 */
+	void addTo(MemoryReport report) {
+		report.addString("creator", creator);
+		report.addString("createdAt", createdAt);
+		report.addString("htmlUrl", htmlUrlPrefix);
+		report.addString("title", title);
+		report.addString("description", description);
+		report.addObject("description", descriptionSource, MemoryReport.getSize(descriptionSource));
+		report.addString("assignee", assignee == null ? null : assignee.getGithubName());
+		report.addString("milestone", milestone == null ? null : milestone.getTitle());
+		report.addInts("labels", labelIds);
+		report.addObject("pullRequest", pullRequest, MemoryReport.getSize(pullRequest));
+		if (!comments.isEmpty()) {
+			report.addObject("comments", comments, MemoryReport.getCommentsSize(comments));
+		}
+		if (!events.isEmpty()) {
+			report.addObject("events", events, MemoryReport.getEventsSize(events));
+		}
+	}
+
 	public final TurboIssue parentReference() {
 		if (getParentIssue() != -1) {
 			return model.get().getIssueWithId(getParentIssue());
@@ -267,13 +342,13 @@ public class TurboIssue implements TurboResource {
 	}
 
 	private TurboLabel getLabelReference(TurboLabel label) {
-		List<TurboLabel> allLabels = model.get().getLabels();
+		Model owner = model == null ? null : model.get();
+		List<TurboLabel> allLabels = owner == null ? Collections.emptyList() : owner.getLabels();
 		int index = allLabels.indexOf(label);
-		assert index != -1;
 		if (index >= 0) {
 			return allLabels.get(index);
 		} else {
-			// Should not happen
+			// The label is not in the repository, or no longer is
 			return label;
 		}
 	}
@@ -299,11 +374,33 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public boolean hasLabel(TurboLabel label) {
-		return labels.contains(label);
+		int id = LabelTable.findId(label);
+		return id >= 0 && Arrays.binarySearch(labelIds, id) >= 0;
+	}
+
+	/**
+	 * @return the ids of the labels of the issue in the label table, in
+	 * ascending order; shared, so not to be modified
+	 */
+	public int[] getLabelIds() {
+		return labelIds;
+	}
+
+	/**
+	 * @param ids ids of labels in the label table
+	 * @return true if the issue has any of the labels
+	 */
+	public boolean hasAnyLabel(BitSet ids) {
+		for (int id : labelIds) {
+			if (ids.get(id)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public void addLabel(TurboLabel label) {
-		if (labels.contains(label)) {
+		if (hasLabel(label)) {
 			return;
 		}
 		if (label.isExclusive()) {
@@ -319,7 +416,7 @@ public class TurboIssue implements TurboResource {
 	}
 
 	private List<TurboLabel> getLabelsWithGroup(String group) {
-		return labels.stream().filter(label -> group.equalsIgnoreCase(label.getGroup())).collect(Collectors.toList());
+		return getLabels().stream().filter(label -> group.equalsIgnoreCase(label.getGroup())).collect(Collectors.toList());
 	}
 
 	public void addLabels(List<TurboLabel> labList) {
@@ -329,9 +426,14 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public void removeLabel(TurboLabel label) {
-		if (!labels.remove(label)) {
+		int index = Arrays.binarySearch(labelIds, LabelTable.findId(label));
+		if (index < 0) {
 			return;
 		}
+		int[] result = new int[labelIds.length - 1];
+		System.arraycopy(labelIds, 0, result, 0, index);
+		System.arraycopy(labelIds, index + 1, result, index, result.length - index);
+		labelIds = result.length == 0 ? LabelTable.NO_LABELS : result;
 	}
 
 	public void removeLabels(List<TurboLabel> labList) {
@@ -341,7 +443,17 @@ public class TurboIssue implements TurboResource {
 	}
 
 	private void addToLabels(TurboLabel label) {
-		labels.add(getLabelReference(label));
+		int id = LabelTable.getId(label);
+		int index = Arrays.binarySearch(labelIds, id);
+		if (index >= 0) {
+			return;
+		}
+		int insertionPoint = -index - 1;
+		int[] result = new int[labelIds.length + 1];
+		System.arraycopy(labelIds, 0, result, 0, insertionPoint);
+		result[insertionPoint] = id;
+		System.arraycopy(labelIds, insertionPoint, result, insertionPoint + 1, labelIds.length - insertionPoint);
+		labelIds = result;
 	}
 
 	public static String extractDescription(String issueBody) {
@@ -469,8 +581,8 @@ public class TurboIssue implements TurboResource {
 		return feeds;
 	}
 
-	private ObservableList<TurboLabel> translateLabels(List<Label> labels) {
-		ObservableList<TurboLabel> turboLabels = FXCollections.observableArrayList();
+	private List<TurboLabel> translateLabels(List<Label> labels) {
+		List<TurboLabel> turboLabels = new ArrayList<>();
 		if (labels == null)
 			return turboLabels;
 
@@ -526,6 +638,39 @@ public class TurboIssue implements TurboResource {
 		this.events = events;
 	}
 
+	/**
+	 * Drops the comments and events of the issue, to save memory while it is
+	 * not shown. They are downloaded again as usual, since their ETags are
+	 * dropped with them. Descriptions are left alone, since they are already
+	 * held compactly, whether they come from GitHub or from the cache file.
+	 *
+	 * @return true if anything was dropped
+	 */
+	public boolean evictDetails() {
+		boolean evicted = !comments.isEmpty() || !events.isEmpty();
+		comments = Collections.emptyList();
+		events = Collections.emptyList();
+		commentsETag = null;
+		eventsETag = null;
+		return evicted;
+	}
+
+	public String getCommentsETag() {
+		return commentsETag;
+	}
+
+	public void setCommentsETag(String commentsETag) {
+		this.commentsETag = commentsETag;
+	}
+
+	public String getEventsETag() {
+		return eventsETag;
+	}
+
+	public void setEventsETag(String eventsETag) {
+		this.eventsETag = eventsETag;
+	}
+
 	private void ______GETTERS_AND_SETTERS______() {
 	}
 
@@ -538,7 +683,7 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public void setCreator(String creator) {
-		this.creator = creator;
+		this.creator = StringPool.intern(creator);
 	}
 
 	public String getCreatedAt() {
@@ -546,15 +691,45 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public void setCreatedAt(String createdAt) {
-		this.createdAt = createdAt;
+		// Only precise to the minute, so often shared by issues created together
+		this.createdAt = StringPool.intern(createdAt);
+		createdAtKey = NO_KEY;
+	}
+
+	/**
+	 * @return the creation time in seconds, for comparing issues by; 0 if it
+	 * is not known
+	 */
+	public long getCreatedAtKey() {
+		if (createdAtKey == NO_KEY) {
+			try {
+				createdAtKey = createdAt == null
+					? 0
+					: LocalDateTime.parse(createdAt, CREATED_AT_FORMAT).toEpochSecond(ZoneOffset.UTC);
+			} catch (DateTimeParseException e) {
+				createdAtKey = 0;
+			}
+		}
+		return createdAtKey;
 	}
 
 	public LocalDateTime getUpdatedAt() {
 		return this.updatedAt;
 	}
 
+	/**
+	 * @return the update time in seconds, for comparing issues by; 0 if it is not known
+	 */
+	public long getUpdatedAtKey() {
+		if (updatedAtKey == NO_KEY) {
+			updatedAtKey = updatedAt == null ? 0 : updatedAt.toEpochSecond(ZoneOffset.UTC);
+		}
+		return updatedAtKey;
+	}
+
 	public void setUpdatedAt(LocalDateTime updatedAt) {
 		this.updatedAt = updatedAt;
+		updatedAtKey = NO_KEY;
 	}
 
 	public int getCommentCount() {
@@ -596,11 +771,39 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public final String getDescription() {
+		Supplier<String> source = descriptionSource;
+		if (source != null) {
+			return descriptionCache.get(source);
+		}
 		return description;
 	}
 
 	public final void setDescription(String value) {
 		description = value;
+		descriptionSource = null;
+	}
+
+	/**
+	 * Gives the issue a description which is loaded only when it is needed,
+	 * for instance one which is still in the cache file.
+	 */
+	public final void setDescriptionSource(Supplier<String> source) {
+		description = null;
+		descriptionSource = source;
+	}
+
+	/**
+	 * Returns the description in a form which can be passed around without
+	 * loading it. Reading the description through it bypasses the cache of
+	 * recently used descriptions, which suits reading every description once.
+	 */
+	public final Supplier<String> getDescriptionSource() {
+		Supplier<String> source = descriptionSource;
+		if (source != null) {
+			return source;
+		}
+		String value = description;
+		return () -> value;
 	}
 
 	public int getParentIssue() {
@@ -636,23 +839,67 @@ public class TurboIssue implements TurboResource {
 	}
 
 	public String getHtmlUrl() {
-		return htmlUrl;
+		return htmlUrlNumber < 0 ? htmlUrlPrefix : htmlUrlPrefix + htmlUrlNumber;
 	}
 
 	public void setHtmlUrl(String htmlUrl) {
-		this.htmlUrl = htmlUrl;
+		htmlUrlNumber = -1;
+		htmlUrlPrefix = htmlUrl;
+		if (htmlUrl == null) {
+			return;
+		}
+		int start = htmlUrl.lastIndexOf('/') + 1;
+		if (isIssueNumber(htmlUrl, start)) {
+			htmlUrlNumber = Integer.parseInt(htmlUrl.substring(start));
+			htmlUrlPrefix = htmlUrl.substring(0, start);
+		}
+		htmlUrlPrefix = StringPool.intern(htmlUrlPrefix);
 	}
 
+	/**
+	 * @return true if the string from the given index on is a number which
+	 * is written back the same way, without leading zeroes or overflow
+	 */
+	private static boolean isIssueNumber(String string, int start) {
+		int length = string.length() - start;
+		if (length < 1 || length > 9 || string.charAt(start) == '0') {
+			return false;
+		}
+		for (int i = start; i < string.length(); i++) {
+			if (string.charAt(i) < '0' || string.charAt(i) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a copy of the labels of the issue, as the labels of its repository
+	 * where possible, so that they are up to date
+	 */
 	public ObservableList<TurboLabel> getLabels() {
-		return FXCollections.observableArrayList(labels);
+		ObservableList<TurboLabel> result = FXCollections.observableArrayList();
+		for (int id : labelIds) {
+			result.add(getLabelReference(LabelTable.getLabel(id)));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the full names of the labels of the issue on GitHub
+	 */
+	public List<String> getLabelNames() {
+		List<String> result = new ArrayList<>(labelIds.length);
+		for (int id : labelIds) {
+			result.add(LabelTable.getLabel(id).toGhName());
+		}
+		return result;
 	}
 
 	public void setLabels(List<TurboLabel> labels) {
-		if (this.labels != labels) {
-			this.labels.clear();
-			for (TurboLabel label : labels) {
-				addLabel(label);
-			}
+		labelIds = LabelTable.NO_LABELS;
+		for (TurboLabel label : labels) {
+			addLabel(label);
 		}
 	}
 }
\ No newline at end of file
@@ -25,7 +25,7 @@ public class TurboMilestone implements TurboResource {
 	
 	private String title = "";
     public final String getTitle() {return title;}
-    public final void setTitle(String value) {title = value;}
+    public final void setTitle(String value) {title = StringPool.intern(value);}
 	
 	private String state;
 	public String getState() {return state;}
@@ -24,7 +24,7 @@ public class TurboUser implements TurboResource {
 	}
 	
 	public void setGithubName(String githubName) {
-		this.githubName = githubName;
+		this.githubName = StringPool.intern(githubName);
 	}
 	
 	private String realName;
@@ -55,6 +55,10 @@ public class TurboUser implements TurboResource {
 		}
 		return avatar;
 	}
+
+	boolean isAvatarLoaded() {
+		return avatar != null;
+	}
 	
 	/*
 	 * Constructors and Public Methods
@@ -66,7 +70,7 @@ public class TurboUser implements TurboResource {
 	public TurboUser(User user) {
 		assert user != null;
 
-		this.githubName = user.getLogin();
+		setGithubName(user.getLogin());
 		this.realName = user.getName();
 		this.avatarUrl = user.getAvatarUrl();
 	}
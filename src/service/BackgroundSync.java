@@ -0,0 +1,288 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+import model.TurboMilestone;
+import model.TurboUser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.User;
+
+import service.updateservice.CollaboratorUpdateService;
+import service.updateservice.IssueUpdateService;
+import service.updateservice.LabelUpdateService;
+import service.updateservice.MilestoneUpdateService;
+import storage.CacheFileHandler;
+import storage.CachedRepoData;
+import storage.DataManager;
+import util.CollectionUtilities;
+import util.Utility;
+import util.metrics.Metrics;
+
+/**
+ * Keeps the caches of recently viewed repositories fresh while they are not
+ * in use, so that switching to one of them starts from a cache which is
+ * close to current, and the sync which follows the switch has little to do.
+ *
+ * Every period, one of the last few viewed repositories is synced into its
+ * cache file, in turn, using the same ETag-based update services as the
+ * sync of the current repository. The repository in the model is left to
+ * that sync, and repositories kept in memory are left alone as well, since
+ * they are either synced along with it or catch up when switched to.
+ * Repositories without a cache file are not downloaded in the background.
+ *
+ * Background syncs run on a single low-priority thread, and only while at
+ * least {@link #RESERVED_QUOTA} of the request limit remains, so that they
+ * never compete with the current repository for the rate limit. Syncs of
+ * unchanged repositories are answered with 304 Not Modified, which does not
+ * count against the limit.
+ */
+public class BackgroundSync {
+
+	private static final Logger logger = LogManager.getLogger(BackgroundSync.class.getName());
+
+	public static final int DEFAULT_PERIOD = 2 * 60; // in seconds
+
+	// The fraction of the request limit which is left to the current repository
+	private static final double RESERVED_QUOTA = 0.5;
+
+	private final ServiceManager serviceManager;
+
+	// Guards the executor; the lock on this object is held while cache files are read and written
+	private final Object executorLock = new Object();
+	private ScheduledExecutorService executor = null;
+
+	// The index among the last viewed repositories of the next one to sync
+	private int next = 0;
+
+	public BackgroundSync(ServiceManager serviceManager) {
+		this.serviceManager = serviceManager;
+	}
+
+	public void start() {
+		synchronized (executorLock) {
+			if (executor != null) {
+				return;
+			}
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "Background Sync");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this::syncNext, DEFAULT_PERIOD, DEFAULT_PERIOD, TimeUnit.SECONDS);
+		}
+		logger.info("Background sync started");
+	}
+
+	public void stop() {
+		synchronized (executorLock) {
+			if (executor == null) {
+				return;
+			}
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	public boolean isRunning() {
+		synchronized (executorLock) {
+			return executor != null;
+		}
+	}
+
+	/**
+	 * Runs on the background sync thread.
+	 */
+	private void syncNext() {
+		try {
+			if (!hasQuota()) {
+				logger.info("Skipping background sync to save the remaining requests");
+				return;
+			}
+			List<String> candidates = getCandidates();
+			if (candidates.isEmpty()) {
+				return;
+			}
+			next = next % candidates.size();
+			String repoId = candidates.get(next);
+			next++;
+			sync(repoId);
+		} catch (RuntimeException e) {
+			// Keep the background sync going; an exception would cancel it
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private boolean hasQuota() {
+		int remaining = serviceManager.getRemainingRequests();
+		int limit = serviceManager.getRequestLimit();
+		// Before the first request, the rate limit is not known yet
+		return remaining < 0 || limit <= 0 || remaining >= limit * RESERVED_QUOTA;
+	}
+
+	/**
+	 * @return the last viewed repositories which are candidates for a
+	 * background sync, from the least to the most recently viewed
+	 */
+	private List<String> getCandidates() {
+		List<String> lastViewed = DataManager.getInstance().getLastViewedRepositories();
+		int count = DataManager.getInstance().getBackgroundSyncRepositoryCount();
+		List<String> candidates = new ArrayList<>();
+		for (String repoId : lastViewed.subList(Math.max(0, lastViewed.size() - count), lastViewed.size())) {
+			if (!isInUse(repoId)) {
+				candidates.add(repoId);
+			}
+		}
+		return candidates;
+	}
+
+	private boolean isInUse(String repoId) {
+		IRepositoryIdProvider current = serviceManager.getRepoId();
+		return (current != null && current.generateId().equalsIgnoreCase(repoId))
+			|| serviceManager.isInMemory(repoId);
+	}
+
+	/**
+	 * Brings the cache file of a repository up to date. Holds the lock on
+	 * this object, which {@link ServiceManager#switchRepository} also takes,
+	 * while the cache file is read and written, but not while downloading,
+	 * so that switching repositories need not wait for the network. The
+	 * changes are dropped if the repository was switched to in the meantime,
+	 * or its cache file was written by anything else.
+	 *
+	 * @param repoId
+	 */
+	void sync(String repoId) {
+		CacheFileHandler dcHandler;
+		CachedRepoData repo;
+		long lastModified;
+		synchronized (this) {
+			// The repository may have been switched to while waiting for the lock
+			if (isInUse(repoId)) {
+				return;
+			}
+
+			// The cache file may still have a write pending from when the repository was last in use
+			CacheFileHandler.flushWrites();
+			dcHandler = new CacheFileHandler(repoId);
+			repo = dcHandler.getRepo();
+			dcHandler.releaseRepo();
+			lastModified = dcHandler.getCacheFile().lastModified();
+		}
+		if (repo == null) {
+			logger.info("No cache for " + repoId + "; not syncing it in the background");
+			return;
+		}
+
+		long start = System.nanoTime();
+		logger.info("Syncing " + repoId + " in the background...");
+
+		Date issueCheckTime = repo.getIssueCheckTime() == null
+			? new Date()
+			: Utility.localDateTimeToDate(repo.getIssueCheckTime());
+		GitHubClientExtended client = serviceManager.getGitHubClient();
+		IssueUpdateService issueUpdateService =
+			new IssueUpdateService(client, repo.getIssuesETag(), issueCheckTime);
+		LabelUpdateService labelUpdateService = new LabelUpdateService(client, repo.getLabelsETag());
+		MilestoneUpdateService milestoneUpdateService =
+			new MilestoneUpdateService(client, repo.getMilestonesETag());
+		CollaboratorUpdateService collaboratorUpdateService =
+			new CollaboratorUpdateService(client, repo.getCollaboratorsETag());
+
+		RepositoryId id = RepositoryId.createFromId(repoId);
+		List<User> updatedCollaborators = collaboratorUpdateService.getUpdatedItems(id);
+		List<Label> updatedLabels = labelUpdateService.getUpdatedItems(id);
+		List<Milestone> updatedMilestones = milestoneUpdateService.getUpdatedItems(id);
+		List<Issue> updatedIssues = issueUpdateService.getUpdatedItems(id);
+
+		if (!collaboratorUpdateService.hasUpdatedItems() && !labelUpdateService.hasUpdatedItems()
+			&& !milestoneUpdateService.hasUpdatedItems() && !issueUpdateService.hasUpdatedItems()) {
+			logger.info("No changes to " + repoId);
+			Metrics.timer("backgroundSync").update(System.nanoTime() - start);
+			return;
+		}
+
+		List<TurboUser> collaborators = collaboratorUpdateService.hasUpdatedItems()
+			? CollectionUtilities.getHubTurboUserList(updatedCollaborators)
+			: repo.getCollaborators();
+		List<TurboLabel> labels = labelUpdateService.hasUpdatedItems()
+			? CollectionUtilities.getHubTurboLabelList(updatedLabels)
+			: repo.getLabels();
+		List<TurboMilestone> milestones = milestoneUpdateService.hasUpdatedItems()
+			? CollectionUtilities.getHubTurboMilestoneList(updatedMilestones)
+			: repo.getMilestones();
+		// The issues refer to a model of their own repository, rather than
+		// the one in use, which is only to be read on the JavaFX thread
+		Model model = new Model();
+		model.setRepoId(id);
+		List<TurboIssue> issues = mergeIssues(repo.getIssues(model), updatedIssues, model);
+
+		Date newIssueCheckTime = issueUpdateService.getUpdatedCheckTime() == null
+			? issueCheckTime
+			: issueUpdateService.getUpdatedCheckTime();
+
+		synchronized (this) {
+			CacheFileHandler.flushWrites();
+			if (isInUse(repoId) || dcHandler.getCacheFile().lastModified() != lastModified) {
+				logger.info("Dropping background sync of " + repoId
+					+ "; it has been in use, or its cache written, since the sync started");
+				return;
+			}
+			dcHandler.setCompressionEnabled(DataManager.getInstance().isCacheCompressionEnabled());
+			dcHandler.writeToFile(repoId, issueUpdateService.getUpdatedETag(), labelUpdateService.getUpdatedETag(),
+				milestoneUpdateService.getUpdatedETag(), collaboratorUpdateService.getUpdatedETag(),
+				newIssueCheckTime, collaborators, labels, milestones, issues);
+		}
+
+		Metrics.counter("backgroundSync.updatedIssues").increment(updatedIssues.size());
+		Metrics.timer("backgroundSync").update(System.nanoTime() - start);
+		logger.info(String.format("Synced %s in the background: %d issues changed",
+			repoId, updatedIssues.size()));
+	}
+
+	/**
+	 * Applies changed issues to a cached list of issues the way the model
+	 * does: existing issues are replaced, and new ones are added at the front.
+	 *
+	 * @param issues the cached issues; modified in place
+	 * @param updatedIssues
+	 * @param model
+	 * @return the cached issues
+	 */
+	static List<TurboIssue> mergeIssues(List<TurboIssue> issues, List<Issue> updatedIssues, Model model) {
+		for (int i = updatedIssues.size() - 1; i >= 0; i--) {
+			TurboIssue updated = new TurboIssue(updatedIssues.get(i), model);
+			int index = indexOf(issues, updated.getId());
+			if (index >= 0) {
+				issues.set(index, updated);
+			} else {
+				issues.add(0, updated);
+			}
+		}
+		return issues;
+	}
+
+	private static int indexOf(List<TurboIssue> issues, int id) {
+		for (int i = 0; i < issues.size(); i++) {
+			if (issues.get(i).getId() == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
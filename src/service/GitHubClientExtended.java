@@ -1,34 +1,62 @@
 package service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.CHARSET_UTF8;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
 
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.eclipse.egit.github.core.client.GitHubRequest;
 import org.eclipse.egit.github.core.client.GitHubResponse;
 
-import util.IOUtilities;
+import com.google.gson.JsonParseException;
 
 public class GitHubClientExtended extends GitHubClient {
 	public static final int NO_UPDATE_RESPONSE_CODE = 304;
+	private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+	private static final String HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+	// The time at which the rate limit resets, in seconds since the epoch, or -1 if unknown
+	private volatile long rateLimitResetTime = -1;
 	protected static final int CONNECTION_TIMEOUT = 30000;
 
+	private final HttpTransport transport;
+
 	public GitHubClientExtended() {
+		transport = new HttpTransport(CONNECTION_TIMEOUT);
+	}
+
+	/**
+	 * Creates a client for an API other than GitHub's own, such as that of a
+	 * GitHub Enterprise installation or a stand-in for testing.
+	 *
+	 * @param hostname
+	 * @param port the port, or -1 for the default port of the scheme
+	 * @param scheme
+	 * @param transport makes the requests of the client
+	 */
+	public GitHubClientExtended(String hostname, int port, String scheme, HttpTransport transport) {
+		super(hostname, port, scheme);
+		this.transport = transport;
 	}
 
 	/**
-	 * Extends superclass method with connection timeout parameters.
+	 * Overrides superclass method to open connections through the transport,
+	 * which sets timeouts, requests compression and times the request.
 	 */
 	@Override
 	protected HttpURLConnection createConnection(String uri) throws IOException {
-		HttpURLConnection connection = super.createConnection(uri);
-		connection.setConnectTimeout(CONNECTION_TIMEOUT);
-		connection.setReadTimeout(CONNECTION_TIMEOUT);
-		return connection;
+		return transport.open(new URL(createUri(uri)));
+	}
+
+	public HttpTransport getTransport() {
+		return transport;
 	}
 
 	/**
@@ -76,33 +104,73 @@ public class GitHubClientExtended extends GitHubClient {
 	 * @throws IOException
 	 */
 	public GitHubEventsResponse getEvent(GitHubRequest request) throws IOException {
+		return getEvent(request, null);
+	}
+
+	/**
+	 * Like {@link #getEvent(GitHubRequest)}, but makes the request conditional
+	 * on the events having changed since they were last retrieved.
+	 *
+	 * @param request
+	 * @param lastETag the ETag of the events when they were last retrieved; may be null
+	 * @return response, which is marked as not modified if the events are unchanged
+	 * @throws IOException
+	 */
+	public GitHubEventsResponse getEvent(GitHubRequest request, String lastETag) throws IOException {
 		HttpURLConnection httpRequest = createGet(request.generateUri());
 		String accept = request.getResponseContentType();
 		if (accept != null)
 			httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+		if (lastETag != null && !lastETag.isEmpty())
+			httpRequest.setRequestProperty(HEADER_IF_NONE_MATCH, "\"" + lastETag + "\"");
 		final int code = httpRequest.getResponseCode();
 		updateRateLimits(httpRequest);
 		if (isOk(code)) {
-
-			// Copy the httpRequest input stream into a byte array
-			InputStream reqIS = getStream(httpRequest);
-			ByteArrayOutputStream buffer = IOUtilities.inputStreamToByteArrayOutputStream(reqIS);
-			InputStream reqIS2 = new ByteArrayInputStream(buffer.toByteArray());
-			InputStream reqIS3 = new ByteArrayInputStream(buffer.toByteArray());
-
-			// The first copy is used to produce the GitHubResponse
-			GitHubResponse ghResponse = new GitHubResponse(httpRequest, getBody(request, reqIS2));
-
-			// The second is parsed again for event-specific information
-			return new GitHubEventsResponse(ghResponse, reqIS3);
+			// The events are decoded straight from the connection as they arrive
+			ArrayList<TurboIssueEvent> events;
+			try (Reader reader = new InputStreamReader(getStream(httpRequest), CHARSET_UTF8)) {
+				events = GitHubEventsResponse.parseEvents(reader);
+			} catch (JsonParseException | IllegalStateException e) {
+				throw new IOException("Parse exception converting JSON to object", e);
+			}
+			return new GitHubEventsResponse(new GitHubResponse(httpRequest, events), events);
+		} else if (code == NO_UPDATE_RESPONSE_CODE) {
+			transport.discard(httpRequest);
+			return new GitHubEventsResponse(new GitHubResponse(httpRequest, null), null);
 		} else if (isEmpty(code)) {
+			transport.discard(httpRequest);
 			GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
-			return new GitHubEventsResponse(ghResponse, null);
+			return new GitHubEventsResponse(ghResponse, new ArrayList<>());
 		} else {
 			throw createException(getStream(httpRequest), code, httpRequest.getResponseMessage());
 		}
 	}
 
+	/**
+	 * Extends superclass method to also record when the rate limit resets.
+	 * Overridden to make public, so that requests made outside EGit can
+	 * update the rate limits as well.
+	 */
+	@Override
+	public GitHubClient updateRateLimits(HttpURLConnection request) {
+		super.updateRateLimits(request);
+		String reset = request.getHeaderField(HEADER_RATE_LIMIT_RESET);
+		try {
+			rateLimitResetTime = reset == null ? -1 : Long.parseLong(reset);
+		} catch (NumberFormatException e) {
+			rateLimitResetTime = -1;
+		}
+		return this;
+	}
+
+	/**
+	 * @return the time at which the rate limit resets, in seconds since the epoch,
+	 * or -1 if it was not present in the last response
+	 */
+	public long getRateLimitResetTime() {
+		return rateLimitResetTime;
+	}
+
 	/**
 	 * Overridden to make public.
 	 */
@@ -120,11 +188,13 @@ public class GitHubClientExtended extends GitHubClient {
 	}
 
 	/**
+	 * Extends superclass method to decompress the response if needed.
+	 * The request is complete once the stream is closed.
 	 * Overridden to make public.
 	 */
 	@Override
 	public InputStream getStream(HttpURLConnection request) throws IOException {
-		return super.getStream(request);
+		return transport.openStream(request, super.getStream(request));
 	}
 
 	/**
@@ -1,107 +1,197 @@
 package service;
 
-import static org.eclipse.egit.github.core.client.IGitHubConstants.CHARSET_UTF8;
-
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.eclipse.egit.github.core.IssueEvent;
 import org.eclipse.egit.github.core.User;
 import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.eclipse.egit.github.core.client.GsonUtils;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import util.Utility;
 
 /**
  * A wrapper class for GitHubEvents that also contain event-specific
  * information.
  */
 public class GitHubEventsResponse {
-	
-	private static final Logger logger = LogManager.getLogger(GitHubEventsResponse.class.getName());
+
+	private static final String HEADER_ETAG = "ETag";
 
 	private GitHubResponse response;
 	private ArrayList<TurboIssueEvent> turboIssueEvents;
-	
-	public GitHubEventsResponse(GitHubResponse response, InputStream jsonBody) {
+
+	/**
+	 * @param response
+	 * @param turboIssueEvents the events, or null if they were not modified
+	 * since the ETag given in the request
+	 */
+	public GitHubEventsResponse(GitHubResponse response, ArrayList<TurboIssueEvent> turboIssueEvents) {
 		this.response = response;
-		this.turboIssueEvents = new ArrayList<TurboIssueEvent>();
-		parseEventParameters(jsonBody);
+		this.turboIssueEvents = turboIssueEvents;
+	}
+
+	/**
+	 * Decodes a JSON array of issue events, as returned by GitHub, in a
+	 * single pass. Event-specific information is read along with the rest
+	 * of each event, so the response never needs to be buffered or parsed
+	 * a second time.
+	 *
+	 * @param json the response body
+	 * @return the events, in order
+	 * @throws IOException
+	 */
+	public static ArrayList<TurboIssueEvent> parseEvents(Reader json) throws IOException {
+		// EGit's Gson knows how GitHub represents users and dates
+		Gson gson = GsonUtils.getGson();
+		ArrayList<TurboIssueEvent> events = new ArrayList<>();
+
+		JsonReader reader = new JsonReader(json);
+		reader.beginArray();
+		while (reader.hasNext()) {
+			events.add(parseEvent(reader, gson));
+		}
+		reader.endArray();
+		return events;
+	}
+
+	private static TurboIssueEvent parseEvent(JsonReader reader, Gson gson) throws IOException {
+		User actor = null;
+		String eventType = null;
+		Date createdAt = null;
+		User assignee = null;
+		Map<String, String> label = null;
+		Map<String, String> milestone = null;
+		Map<String, String> rename = null;
+
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+			case "actor":
+				actor = gson.fromJson(reader, User.class);
+				break;
+			case "event":
+				eventType = nextStringOrNull(reader);
+				break;
+			case "created_at":
+				createdAt = gson.fromJson(reader, Date.class);
+				break;
+			case "assignee":
+				assignee = gson.fromJson(reader, User.class);
+				break;
+			case "label":
+				label = readStringFields(reader);
+				break;
+			case "milestone":
+				milestone = readStringFields(reader);
+				break;
+			case "rename":
+				rename = readStringFields(reader);
+				break;
+			default:
+				reader.skipValue();
+				break;
+			}
+		}
+		reader.endObject();
+
+		TurboIssueEvent event = new TurboIssueEvent(actor, IssueEventType.fromString(eventType), createdAt);
+
+		switch (event.getType()) {
+		case Renamed:
+			// two string keys: from, to
+			event.setRenamedFrom(rename.get("from"));
+			event.setRenamedTo(rename.get("to"));
+			break;
+		case Milestoned:
+		case Demilestoned:
+			// one string key: title
+			event.setMilestoneTitle(milestone.get("title"));
+			break;
+		case Labeled:
+		case Unlabeled:
+			// two string keys: name, color (hex, without #)
+			event.setLabelColour(label.get("color"));
+			event.setLabelName(label.get("name"));
+			break;
+		case Assigned:
+		case Unassigned:
+			event.setAssignedUser(assignee);
+			break;
+		case Closed:
+		case Reopened:
+		case Locked:
+		case Unlocked:
+			// No need to do anything
+			break;
+		case Subscribed:
+		case Merged:
+		case HeadRefDeleted:
+		case HeadRefRestored:
+		case Referenced:
+		case Mentioned:
+		default:
+			// Not yet implemented, or no events triggered
+		}
+		return event;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void parseEventParameters(InputStream jsonBody) {
-		Gson gson = new Gson();
-		Type type = new TypeToken<Map<String, Object>[]>(){}.getType();
-		BufferedReader reader;
-		try {
-			reader = new BufferedReader(new InputStreamReader(jsonBody, CHARSET_UTF8));
-			Map<String, Object>[] eventsWithParameters = gson.fromJson(reader, type);
-			IssueEvent[] issueEvents = (IssueEvent[]) response.getBody();
-
-			Map<String, String> parameters;
-			for (int i=0; i<issueEvents.length; i++) {
-				TurboIssueEvent event = new TurboIssueEvent(
-						issueEvents[i].getActor(),
-						IssueEventType.fromString(issueEvents[i].getEvent()),
-						issueEvents[i].getCreatedAt());
-
-				switch (event.getType()) {
-				case Renamed:
-					// two string keys: from, to
-					parameters = (Map<String, String>) eventsWithParameters[i].get("rename");
-					event.setRenamedFrom(parameters.get("from"));
-					event.setRenamedTo(parameters.get("to"));
-				    break;
-				case Milestoned:
-				case Demilestoned:
-					// one string key: title
-					parameters = (Map<String, String>) eventsWithParameters[i].get("milestone");
-					event.setMilestoneTitle(parameters.get("title"));
-				    break;
-				case Labeled:
-				case Unlabeled:
-					// two string keys: name, color (hex, without #)
-					parameters = (Map<String, String>) eventsWithParameters[i].get("label");
-					event.setLabelColour(parameters.get("color"));
-					event.setLabelName(parameters.get("name"));
-				    break;
-				case Assigned:
-				case Unassigned:
-					// User object
-					// re-serialise it using Gson
-					Object assigneeMap = eventsWithParameters[i].get("assignee");
-					String json = new Gson().toJson(assigneeMap);
-					User user = gson.fromJson(json, User.class);
-					event.setAssignedUser(user);
-					break;
-				case Closed:
-				case Reopened:
-				case Locked:
-				case Unlocked:
-					// No need to do anything
-					break;
-				case Subscribed:
-				case Merged:
-				case HeadRefDeleted:
-				case HeadRefRestored:
-				case Referenced:
-				case Mentioned:
-				default:
-					// Not yet implemented, or no events triggered
-				}
-				turboIssueEvents.add(event);
+	/**
+	 * Reads the string-valued fields of an object, skipping all others.
+	 * @return the fields read, or an empty map if the value is null
+	 */
+	private static Map<String, String> readStringFields(JsonReader reader) throws IOException {
+		Map<String, String> fields = new HashMap<>();
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return fields;
+		}
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if (reader.peek() == JsonToken.STRING) {
+				fields.put(name, reader.nextString());
+			} else {
+				reader.skipValue();
 			}
-		} catch (UnsupportedEncodingException e) {
-			logger.error(e.getLocalizedMessage(), e);
 		}
+		reader.endObject();
+		return fields;
+	}
+
+	private static String nextStringOrNull(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		return reader.nextString();
+	}
+
+	public GitHubResponse getResponse() {
+		return response;
+	}
+
+	/**
+	 * @return true if the events have not changed since the ETag given in the
+	 * request, in which case there are no events in the response
+	 */
+	public boolean isNotModified() {
+		return turboIssueEvents == null;
+	}
+
+	/**
+	 * @return the ETag of the events, without quotes, if the response has one
+	 */
+	public Optional<String> getETag() {
+		return Optional.ofNullable(response.getHeader(HEADER_ETAG)).map(Utility::stripQuotes);
 	}
 
 	public ArrayList<TurboIssueEvent> getTurboIssueEvents() {
@@ -0,0 +1,403 @@
+package service;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import util.metrics.Metrics;
+
+/**
+ * The HTTP layer underneath {@link GitHubClientExtended}.
+ *
+ * Connections are persistent: the JDK keeps idle connections to a host open
+ * and hands them out again, but only once the body of the previous response
+ * has been read to the end and closed. Streams returned by this class drain
+ * whatever is left of the body when they are closed, so that connections
+ * return to the pool even when a parser stops early, and the pool is made
+ * larger than the JDK default.
+ *
+ * Responses are requested gzip-compressed and decompressed as they are read.
+ *
+ * The time taken by each request is measured, from when its connection is
+ * set up to when its body is closed, and reported to the timing listeners.
+ * It is also recorded in {@link Metrics}, under the resource requested.
+ *
+ * How connections are opened is up to a {@link ConnectionFactory}, so that
+ * requests can be routed elsewhere, such as through a proxy.
+ */
+public class HttpTransport {
+
+	private static final Logger logger = LogManager.getLogger(HttpTransport.class.getName());
+
+	private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String ENCODING_GZIP = "gzip";
+
+	private static final long NANOS_PER_MILLI = 1_000_000;
+
+	// The number of idle connections kept open per host; the JDK default is 5
+	private static final String PROPERTY_MAX_CONNECTIONS = "http.maxConnections";
+	private static final int MAX_IDLE_CONNECTIONS = 10;
+
+	// A body with more than this many bytes left unread is not worth draining
+	// to reuse the connection; the connection is closed instead
+	private static final int MAX_DRAINED_BYTES = 64 * 1024;
+
+	static {
+		if (System.getProperty(PROPERTY_MAX_CONNECTIONS) == null) {
+			System.setProperty(PROPERTY_MAX_CONNECTIONS, Integer.toString(MAX_IDLE_CONNECTIONS));
+		}
+	}
+
+	private final int timeout;
+	private final ConnectionFactory connectionFactory;
+
+	// When each request which has yet to complete was set up, in nanoseconds
+	private final Map<HttpURLConnection, Long> startTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final List<Consumer<RequestTiming>> timingListeners = new CopyOnWriteArrayList<>();
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong totalTime = new AtomicLong(); // in nanoseconds
+	private final AtomicLong bytesReceived = new AtomicLong();
+
+	/**
+	 * @param timeout the connect and read timeouts, in milliseconds
+	 */
+	public HttpTransport(int timeout) {
+		this(timeout, url -> (HttpURLConnection) url.openConnection());
+	}
+
+	/**
+	 * @param timeout the connect and read timeouts, in milliseconds
+	 * @param connectionFactory opens the connections of all requests
+	 */
+	public HttpTransport(int timeout, ConnectionFactory connectionFactory) {
+		this.timeout = timeout;
+		this.connectionFactory = connectionFactory;
+	}
+
+	/**
+	 * Opens a connection to the given URL, without connecting it yet, and
+	 * prepares it as in {@link #prepare(HttpURLConnection)}.
+	 * @param url
+	 * @return the connection
+	 * @throws IOException
+	 */
+	public HttpURLConnection open(URL url) throws IOException {
+		return prepare(connectionFactory.open(url));
+	}
+
+	/**
+	 * Prepares a connection which has not been connected yet, and starts
+	 * timing its request.
+	 * @param connection
+	 * @return the same connection
+	 */
+	public HttpURLConnection prepare(HttpURLConnection connection) {
+		connection.setConnectTimeout(timeout);
+		connection.setReadTimeout(timeout);
+		connection.setRequestProperty(HEADER_ACCEPT_ENCODING, ENCODING_GZIP);
+		startTimes.put(connection, System.nanoTime());
+		return connection;
+	}
+
+	/**
+	 * Wraps the body of a response, as returned by the connection, for reading.
+	 * The request is complete once the returned stream is closed.
+	 * @param connection the connection the response was received on
+	 * @param body the raw body of the response; may be null if there is none
+	 * @return the decoded body
+	 * @throws IOException
+	 */
+	public InputStream openStream(HttpURLConnection connection, InputStream body) throws IOException {
+		long headersReceived = System.nanoTime();
+		if (body == null) {
+			complete(connection, headersReceived, 0);
+			return null;
+		}
+
+		CountingInputStream raw = new CountingInputStream(connection, body, headersReceived);
+		if (!ENCODING_GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+			return raw;
+		}
+		try {
+			return new GZIPInputStream(raw);
+		} catch (EOFException e) {
+			// An empty body, which is not actually compressed
+			raw.close();
+			return new CountingInputStream(connection, new EmptyInputStream(), headersReceived);
+		}
+	}
+
+	/**
+	 * Completes a request whose body is not needed. The body is discarded,
+	 * so that the connection can be reused.
+	 * @param connection
+	 */
+	public void discard(HttpURLConnection connection) {
+		long headersReceived = System.nanoTime();
+		InputStream body;
+		try {
+			body = connection.getInputStream();
+		} catch (IOException e) {
+			body = connection.getErrorStream();
+		}
+		if (body == null) {
+			complete(connection, headersReceived, 0);
+			return;
+		}
+		try {
+			new CountingInputStream(connection, body, headersReceived).close();
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private void complete(HttpURLConnection connection, long headersReceived, long bytes) {
+		long end = System.nanoTime();
+		Long start = startTimes.remove(connection);
+		if (start == null) {
+			start = headersReceived;
+		}
+
+		int status;
+		try {
+			status = connection.getResponseCode();
+		} catch (IOException e) {
+			status = -1;
+		}
+
+		RequestTiming timing = new RequestTiming(connection.getRequestMethod(), connection.getURL().toString(),
+			status, headersReceived - start, end - start, bytes);
+
+		requestCount.incrementAndGet();
+		totalTime.addAndGet(timing.totalNanos);
+		bytesReceived.addAndGet(bytes);
+
+		String resource = "http." + getResourceName(connection.getURL().getPath());
+		Metrics.timer(resource).update(timing.totalNanos);
+		Metrics.counter(resource + ".status." + status).increment();
+		Metrics.counter("http.bytesReceived").increment(bytes);
+
+		logger.debug(timing);
+		for (Consumer<RequestTiming> listener : timingListeners) {
+			listener.accept(timing);
+		}
+	}
+
+	/**
+	 * Names the kind of resource at the given path, for grouping requests.
+	 * The API prefix, the repository and any numbers are left out, so for
+	 * example /api/v3/repos/owner/name/issues/1/events becomes issues.events.
+	 * @param path the path of a request
+	 * @return the name of the resource
+	 */
+	public static String getResourceName(String path) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : path.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		if (segments.size() >= 2 && segments.get(0).equals("api") && segments.get(1).equals("v3")) {
+			segments = segments.subList(2, segments.size());
+		}
+		if (segments.size() >= 3 && segments.get(0).equals("repos")) {
+			segments = segments.subList(3, segments.size());
+			if (segments.isEmpty()) {
+				return "repository";
+			}
+		}
+
+		StringBuilder name = new StringBuilder();
+		for (String segment : segments) {
+			if (segment.chars().allMatch(Character::isDigit)) {
+				continue;
+			}
+			if (name.length() > 0) {
+				name.append('.');
+			}
+			name.append(segment);
+		}
+		return name.length() == 0 ? "root" : name.toString();
+	}
+
+	public void addTimingListener(Consumer<RequestTiming> listener) {
+		timingListeners.add(listener);
+	}
+
+	public void removeTimingListener(Consumer<RequestTiming> listener) {
+		timingListeners.remove(listener);
+	}
+
+	/**
+	 * @return the number of requests completed so far
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @return the total time taken by the requests completed so far, in milliseconds
+	 */
+	public long getTotalTime() {
+		return totalTime.get() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the number of bytes received in the bodies of the requests
+	 * completed so far, before decompression
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.get();
+	}
+
+	/**
+	 * Opens connections for the transport.
+	 */
+	@FunctionalInterface
+	public interface ConnectionFactory {
+		/**
+		 * @param url
+		 * @return a connection to the URL, which has not been connected yet
+		 * @throws IOException
+		 */
+		HttpURLConnection open(URL url) throws IOException;
+	}
+
+	/**
+	 * The time taken by a single request.
+	 */
+	public static class RequestTiming {
+		public final String method;
+		public final String url;
+		public final int status;
+		// From when the connection was set up to when the headers were received
+		public final long responseNanos;
+		// From when the connection was set up to when the body was closed
+		public final long totalNanos;
+		// The size of the body as received, before decompression
+		public final long bytes;
+
+		public RequestTiming(String method, String url, int status, long responseNanos, long totalNanos,
+				long bytes) {
+			this.method = method;
+			this.url = url;
+			this.status = status;
+			this.responseNanos = responseNanos;
+			this.totalNanos = totalNanos;
+			this.bytes = bytes;
+		}
+
+		public long getResponseMillis() {
+			return responseNanos / NANOS_PER_MILLI;
+		}
+
+		public long getTotalMillis() {
+			return totalNanos / NANOS_PER_MILLI;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s %s: %d in %d ms (%d ms to respond), %d bytes",
+				method, url, status, getTotalMillis(), getResponseMillis(), bytes);
+		}
+	}
+
+	/**
+	 * Counts the bytes of a body as they are read, and completes its request
+	 * once it is closed.
+	 */
+	private class CountingInputStream extends FilterInputStream {
+		private final HttpURLConnection connection;
+		private final long headersReceived;
+		private long count = 0;
+		private boolean closed = false;
+
+		public CountingInputStream(HttpURLConnection connection, InputStream in, long headersReceived) {
+			super(in);
+			this.connection = connection;
+			this.headersReceived = headersReceived;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				drain();
+			} finally {
+				super.close();
+				complete(connection, headersReceived, count);
+			}
+		}
+
+		/**
+		 * Reads what is left of the body, so that the connection can be reused.
+		 */
+		private void drain() {
+			byte[] buffer = new byte[4096];
+			long drained = 0;
+			try {
+				int read;
+				while (drained < MAX_DRAINED_BYTES && (read = read(buffer, 0, buffer.length)) != -1) {
+					drained += read;
+				}
+				if (drained >= MAX_DRAINED_BYTES) {
+					connection.disconnect();
+				}
+			} catch (IOException e) {
+				// The connection is unusable anyway
+				connection.disconnect();
+			}
+		}
+	}
+
+	private static class EmptyInputStream extends InputStream {
+		@Override
+		public int read() {
+			return -1;
+		}
+	}
+}
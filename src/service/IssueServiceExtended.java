@@ -144,6 +144,20 @@ public class IssueServiceExtended extends IssueService{
 	 * @throws IOException
 	 */
 	public GitHubEventsResponse getIssueEvents(IRepositoryIdProvider repository, int issueId) throws IOException {
+		return getIssueEvents(repository, issueId, null);
+	}
+
+	/**
+	 * Retrieves a list of all issue events, unless they are unchanged since
+	 * they were last retrieved.
+	 * @param repository
+	 * @param issueId
+	 * @param lastETag the ETag of the events when they were last retrieved; may be null
+	 * @return list of issue events, or a response marked as not modified
+	 * @throws IOException
+	 */
+	public GitHubEventsResponse getIssueEvents(IRepositoryIdProvider repository, int issueId, String lastETag)
+		throws IOException {
 		GitHubRequest request = createRequest();
 		StringBuilder uri = new StringBuilder(SEGMENT_REPOS);
 		uri.append('/').append(repository.generateId());
@@ -152,7 +166,7 @@ public class IssueServiceExtended extends IssueService{
 		uri.append(SEGMENT_EVENTS);
 		request.setUri(uri);
 		request.setType(IssueEvent[].class);
-		GitHubEventsResponse response = ghClient.getEvent(request);
+		GitHubEventsResponse response = ghClient.getEvent(request, lastETag);
 		return response;
 	}
 }
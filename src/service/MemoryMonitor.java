@@ -0,0 +1,131 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import model.Model;
+import model.ModelFootprint;
+import model.ResidentRepositories;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import storage.DataManager;
+import ui.UI;
+import ui.components.HTStatusBar;
+import util.PlatformEx;
+import util.metrics.Metrics;
+
+/**
+ * Estimates the memory taken up by the repositories loaded after syncs,
+ * and keeps the current repository within the memory budget, if one is
+ * configured.
+ *
+ * The estimates are shown in the status bar and kept as gauges: one for
+ * each kind of resource of the current repository, under memory.model, and
+ * one each for the repositories kept in memory for switching back to and
+ * those shown in panels besides the current one. See {@link ModelFootprint}.
+ *
+ * When the current repository takes up more than the budget, the comments
+ * and events of the issues which are not shown in any panel are dropped.
+ * They are downloaded again as usual once those issues are shown.
+ *
+ * Measuring a repository reads every issue in it, so repositories are only
+ * measured again once they change: the current repository when a sync
+ * finds changes, or it is switched, and otherwise at most every few minutes,
+ * to account for the comments and events downloaded in the meantime.
+ * Repositories kept in memory do not change, and those shown in panels are
+ * measured again when their syncs find changes.
+ */
+public class MemoryMonitor {
+
+	private static final Logger logger = LogManager.getLogger(MemoryMonitor.class.getName());
+
+	// How long the current repository goes without being measured if it does not change
+	private static final long MEASURE_INTERVAL = TimeUnit.MINUTES.toNanos(5);
+
+	private final ServiceManager serviceManager;
+	private final ResidentRepositories residentRepositories;
+	private final MultiRepositoryStore multiRepositoryStore;
+
+	// The repository last measured, and when
+	private String measuredRepoId = null;
+	private long measuredAt = 0;
+
+	public MemoryMonitor(ServiceManager serviceManager, ResidentRepositories residentRepositories,
+			MultiRepositoryStore multiRepositoryStore) {
+		this.serviceManager = serviceManager;
+		this.residentRepositories = residentRepositories;
+		this.multiRepositoryStore = multiRepositoryStore;
+	}
+
+	/**
+	 * Measures the repositories loaded which may have changed, then applies
+	 * the memory budget. Runs on the sync thread.
+	 *
+	 * @param changed true if the sync found changes to any repository
+	 */
+	public void update(boolean changed) {
+		Model model = serviceManager.getModel();
+		String repoId = model.getRepoId() == null ? null : model.getRepoId().generateId();
+		long now = System.nanoTime();
+		if (!changed && repoId != null && repoId.equals(measuredRepoId) && now - measuredAt < MEASURE_INTERVAL) {
+			return;
+		}
+		Optional<ModelFootprint> current = model.getFootprint();
+		if (!current.isPresent()) {
+			return;
+		}
+		ModelFootprint footprint = current.get();
+		measuredRepoId = footprint.getRepoId();
+		measuredAt = now;
+		long budget = DataManager.getInstance().getMemoryBudget();
+		if (budget > 0 && footprint.getTotal() > budget) {
+			evict(model, footprint, budget);
+			footprint = model.getFootprint().orElse(footprint);
+		}
+
+		List<ModelFootprint> resident = residentRepositories.getFootprints();
+		List<ModelFootprint> panels = multiRepositoryStore.getFootprints();
+		long residentTotal = getTotal(resident);
+		long panelTotal = getTotal(panels);
+
+		footprint.getCategories().forEach((category, bytes) ->
+			Metrics.gauge("memory.model." + category).set(bytes));
+		Metrics.gauge("memory.model").set(footprint.getTotal());
+		Metrics.gauge("memory.residentRepositories").set(residentTotal);
+		Metrics.gauge("memory.panelRepositories").set(panelTotal);
+
+		List<ModelFootprint> all = new ArrayList<>();
+		all.add(footprint);
+		all.addAll(resident);
+		all.addAll(panels);
+		StringBuilder details = new StringBuilder("Estimated memory taken up by repositories");
+		for (ModelFootprint repository : all) {
+			details.append(String.format("%n%n")).append(repository);
+		}
+		HTStatusBar.updateMemoryUsage(ModelFootprint.formatBytes(footprint.getTotal() + residentTotal + panelTotal),
+			details.toString());
+	}
+
+	private void evict(Model model, ModelFootprint footprint, long budget) {
+		Set<Integer> shown = new HashSet<>();
+		// Without a UI, as in tests and benchmarks, no issues are shown
+		if (UI.getInstance() != null) {
+			PlatformEx.runAndWait(() -> shown.addAll(UI.getInstance().getColumnControl().getShownIssues()));
+		}
+		int evicted = model.evictIssueDetails(issue -> shown.contains(issue.getId()));
+		Metrics.counter("memory.evictedIssues").increment(evicted);
+		logger.info(String.format("%s takes up %s, over the budget of %s: dropped the details of %d issues",
+			footprint.getRepoId(), ModelFootprint.formatBytes(footprint.getTotal()),
+			ModelFootprint.formatBytes(budget), evicted));
+	}
+
+	private static long getTotal(List<ModelFootprint> footprints) {
+		return footprints.stream().mapToLong(ModelFootprint::getTotal).sum();
+	}
+}
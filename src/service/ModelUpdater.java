@@ -30,9 +30,22 @@ public class ModelUpdater {
 	private CollaboratorUpdateService collaboratorUpdateService;
 	private LabelUpdateService labelUpdateService;
 	private MilestoneUpdateService milestoneUpdateService;
+	private final boolean showProgress;
 
 	public ModelUpdater(GitHubClientExtended client, Model model, UpdateSignature updateSignature) {
+		this(client, model, updateSignature, !Model.isInTestMode);
+	}
+
+	/**
+	 * @param client
+	 * @param model
+	 * @param updateSignature
+	 * @param showProgress true if the progress of the update should be shown in the status bar
+	 */
+	public ModelUpdater(GitHubClientExtended client, Model model, UpdateSignature updateSignature,
+			boolean showProgress) {
 		this.model = model;
+		this.showProgress = showProgress;
 		this.issueUpdateService = new IssueUpdateService(client, updateSignature.issuesETag, updateSignature.lastCheckTime);
 		this.collaboratorUpdateService = new CollaboratorUpdateService(client, updateSignature.collaboratorsETag);
 		this.labelUpdateService = new LabelUpdateService(client, updateSignature.labelsETag);
@@ -108,7 +121,9 @@ public class ModelUpdater {
 			} else {
 				logger.info("No collaborators to update");
 				response.complete(null);
-				HTStatusBar.addProgress(0.25);
+			}
+			if (showProgress) {
+				response.thenRun(() -> HTStatusBar.addProgress(0.25));
 			}
 		} else {
 			logger.info("Repository has changed; not updating collaborators");
@@ -129,7 +144,9 @@ public class ModelUpdater {
 			} else {
 				logger.info("No labels to update");
 				response.complete(null);
-				HTStatusBar.addProgress(0.25);
+			}
+			if (showProgress) {
+				response.thenRun(() -> HTStatusBar.addProgress(0.25));
 			}
 		} else {
 			logger.info("Repository has changed; not updating labels");
@@ -150,7 +167,9 @@ public class ModelUpdater {
 			} else {
 				logger.info("No milestones to update");
 				response.complete(null);
-				HTStatusBar.addProgress(0.25);
+			}
+			if (showProgress) {
+				response.thenRun(() -> HTStatusBar.addProgress(0.25));
 			}
 		} else {
 			logger.info("Repository has changed; not updating milestones");
@@ -0,0 +1,239 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.Model;
+import model.ModelFootprint;
+import model.TurboIssue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.RepositoryId;
+
+import storage.CacheFileHandler;
+import storage.CachedRepoData;
+import storage.DataManager;
+import util.Utility;
+
+/**
+ * Holds the repositories whose issues are shown in panels besides those of
+ * the current repository; see the repo qualifier.
+ *
+ * Each repository is loaded into a model of its own, so that its issues
+ * refer to its own labels, milestones and collaborators, and is synced
+ * independently of the others, with its own update signature and cache
+ * file. Repositories are loaded and synced on the sync thread, after the
+ * current repository; until a repository is loaded, it has no issues.
+ * A repository is loaded once, even if it then fails to sync; one which
+ * keeps failing is synced less and less often.
+ *
+ * Panels filter the issues of the current repository and those of the
+ * repositories they refer to as one list, without copying them into one;
+ * see {@link util.CollectionUtilities#concatenate(List)}.
+ */
+public class MultiRepositoryStore {
+
+	private static final Logger logger = LogManager.getLogger(MultiRepositoryStore.class.getName());
+
+	// The most syncs skipped after a repository fails to sync
+	private static final int MAX_SKIPPED_SYNCS = 16;
+
+	private final ServiceManager serviceManager;
+
+	// The repositories panels refer to, whether or not they are loaded yet
+	private Set<String> repoIds = new LinkedHashSet<>();
+	private final Map<String, Repository> repositories = new LinkedHashMap<>();
+	// The last estimates of the memory taken up by the repositories, dropped whenever they change
+	private final Map<String, ModelFootprint> footprints = new LinkedHashMap<>();
+
+	public MultiRepositoryStore(ServiceManager serviceManager) {
+		this.serviceManager = serviceManager;
+	}
+
+	/**
+	 * Sets the repositories which panels refer to. Those which are no longer
+	 * referred to are dropped; those which are new are loaded on the next sync.
+	 *
+	 * @param repoIds
+	 * @return true if any of the repositories have yet to be loaded
+	 */
+	public synchronized boolean setRepositories(Collection<String> repoIds) {
+		this.repoIds = new LinkedHashSet<>();
+		for (String repoId : repoIds) {
+			this.repoIds.add(repoId.toLowerCase());
+		}
+		repositories.keySet().retainAll(this.repoIds);
+		footprints.keySet().retainAll(this.repoIds);
+		return !repositories.keySet().containsAll(this.repoIds);
+	}
+
+	public synchronized boolean contains(String repoId) {
+		return repoIds.contains(repoId.toLowerCase());
+	}
+
+	/**
+	 * @param repoId
+	 * @return the issues of the repository, which are empty if it is not
+	 * loaded yet; a read-only view, only to be read on the JavaFX thread
+	 */
+	public synchronized List<TurboIssue> getIssues(String repoId) {
+		Repository repository = repositories.get(repoId.toLowerCase());
+		return repository == null ? Collections.emptyList() : repository.model.getIssues();
+	}
+
+	/**
+	 * Only the repositories which changed since they were last measured are
+	 * measured again. Runs on the sync thread, like {@link #sync(String)}.
+	 *
+	 * @return estimates of the memory taken up by the repositories loaded
+	 */
+	public List<ModelFootprint> getFootprints() {
+		Map<String, Model> toMeasure = new LinkedHashMap<>();
+		synchronized (this) {
+			repositories.forEach((repoId, repository) -> {
+				if (!footprints.containsKey(repoId)) {
+					toMeasure.put(repoId, repository.model);
+				}
+			});
+		}
+		toMeasure.forEach((repoId, model) -> model.getFootprint().ifPresent(footprint -> {
+			synchronized (this) {
+				if (repositories.containsKey(repoId)) {
+					footprints.put(repoId, footprint);
+				}
+			}
+		}));
+		synchronized (this) {
+			return new ArrayList<>(footprints.values());
+		}
+	}
+
+	/**
+	 * Loads the repositories which are not loaded yet, then brings all of
+	 * them up to date. Runs on the sync thread.
+	 *
+	 * @param currentRepoId the current repository, which is synced separately
+	 * @return true if the issues of any repository changed
+	 */
+	public boolean sync(String currentRepoId) {
+		List<String> toSync;
+		synchronized (this) {
+			toSync = new ArrayList<>(repoIds);
+		}
+		boolean changed = false;
+		for (String repoId : toSync) {
+			if (repoId.equalsIgnoreCase(currentRepoId)) {
+				continue;
+			}
+			Repository repository;
+			synchronized (this) {
+				repository = repositories.get(repoId);
+			}
+			if (repository == null) {
+				repository = load(repoId);
+				store(repoId, repository);
+				forgetFootprint(repoId);
+				changed = true;
+			}
+			if (repository.syncsToSkip > 0) {
+				store(repoId, new Repository(repository.model, repository.updateSignature,
+					repository.failures, repository.syncsToSkip - 1));
+				continue;
+			}
+			changed = sync(repoId, repository) || changed;
+		}
+		return changed;
+	}
+
+	/**
+	 * Stores the state of a repository, unless it is no longer referred to.
+	 */
+	private synchronized void store(String repoId, Repository repository) {
+		if (repoIds.contains(repoId)) {
+			repositories.put(repoId, repository);
+		}
+	}
+
+	private synchronized void forgetFootprint(String repoId) {
+		footprints.remove(repoId);
+	}
+
+	/**
+	 * Loads a repository from its cache file, if it has one. The first sync
+	 * of a repository without one downloads all of it.
+	 */
+	private Repository load(String repoId) {
+		logger.info("Loading " + repoId + " for a cross-repository panel...");
+		RepositoryId id = RepositoryId.createFromId(repoId);
+		Model model = new Model();
+		model.setRepoId(id);
+
+		CacheFileHandler dcHandler = new CacheFileHandler(repoId);
+		dcHandler.setCompressionEnabled(DataManager.getInstance().isCacheCompressionEnabled());
+		model.setDataCacheFileHandler(dcHandler);
+		CachedRepoData repo = dcHandler.getRepo();
+		dcHandler.releaseRepo();
+
+		if (repo == null) {
+			// Issues updated since the epoch are all of them
+			return new Repository(model, new UpdateSignature(null, null, null, null, new Date(0)), 0, 0);
+		}
+
+		Date issueCheckTime = repo.getIssueCheckTime() == null
+			? new Date()
+			: Utility.localDateTimeToDate(repo.getIssueCheckTime());
+		UpdateSignature updateSignature = new UpdateSignature(repo.getIssuesETag(), repo.getLabelsETag(),
+			repo.getMilestonesETag(), repo.getCollaboratorsETag(), issueCheckTime);
+		model.populateComponents(id, RepositoryResources.fromCache(repo.getIssues(model), repo.getLabels(),
+			repo.getMilestones(), repo.getCollaborators()));
+		return new Repository(model, updateSignature, 0, 0);
+	}
+
+	/**
+	 * @return true if the repository changed
+	 */
+	private boolean sync(String repoId, Repository repository) {
+		ModelUpdater modelUpdater = new ModelUpdater(serviceManager.getGitHubClient(), repository.model,
+			repository.updateSignature, false);
+		if (!modelUpdater.updateModel(repoId)) {
+			// Back off: skip twice as many syncs after each failure in a row
+			int failures = repository.failures + 1;
+			int syncsToSkip = Math.min((1 << Math.min(failures, 30)) - 1, MAX_SKIPPED_SYNCS);
+			logger.warn("Could not sync " + repoId + "; skipping the next " + syncsToSkip + " syncs");
+			store(repoId, new Repository(repository.model, repository.updateSignature, failures, syncsToSkip));
+			return false;
+		}
+		UpdateSignature updateSignature = modelUpdater.getNewUpdateSignature();
+		boolean changed = !updateSignature.hasSameETags(repository.updateSignature);
+		if (changed) {
+			repository.model.updateCache(updateSignature);
+			forgetFootprint(repoId);
+		}
+
+		store(repoId, new Repository(repository.model, updateSignature, 0, 0));
+		return changed;
+	}
+
+	private static class Repository {
+		private final Model model;
+		private final UpdateSignature updateSignature;
+		// The number of syncs in a row which have failed, and how many are to be skipped before the next
+		private final int failures;
+		private final int syncsToSkip;
+
+		private Repository(Model model, UpdateSignature updateSignature, int failures, int syncsToSkip) {
+			this.model = model;
+			this.updateSignature = updateSignature;
+			this.failures = failures;
+			this.syncsToSkip = syncsToSkip;
+		}
+	}
+}
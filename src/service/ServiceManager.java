@@ -8,7 +8,6 @@ import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.BiConsumer;
 
-import javafx.application.Platform;
 import model.*;
 
 import org.apache.logging.log4j.LogManager;
@@ -30,13 +29,17 @@ import org.eclipse.egit.github.core.service.MarkdownService;
 import org.eclipse.egit.github.core.service.MilestoneService;
 import org.markdown4j.Markdown4jProcessor;
 
+import service.updateservice.CommentUpdateService;
+
 import storage.CacheFileHandler;
 import storage.CachedRepoData;
+import storage.DataManager;
 import tests.stubs.ServiceManagerStub;
 import ui.UI;
 import ui.components.HTStatusBar;
 import util.PlatformEx;
 import util.Utility;
+import util.metrics.Metrics;
 
 /**
  * Singleton class that provides access to the GitHub API services required by
@@ -67,8 +70,6 @@ public class ServiceManager {
 
 	private static final Logger logger = LogManager.getLogger(ServiceManager.class.getName());
 
-	public static final int SYNC_PERIOD = 60;
-
 	// Login state
 
 	protected String lastUsedPassword;
@@ -94,14 +95,39 @@ public class ServiceManager {
 
 	private UpdateSignature updateSignature = new UpdateSignature();
 
+	// Recently used repositories, kept in memory for switching back to
+	private final ResidentRepositories residentRepositories = new ResidentRepositories();
+	// Keeps the caches of other recently viewed repositories fresh
+	private final BackgroundSync backgroundSync = new BackgroundSync(this);
+	// Other repositories whose issues are shown in panels
+	private final MultiRepositoryStore multiRepositoryStore = new MultiRepositoryStore(this);
+	// Measures the repositories above, and keeps the current one within the memory budget
+	private final MemoryMonitor memoryMonitor =
+		new MemoryMonitor(this, residentRepositories, multiRepositoryStore);
+
 	private final TickingTimer timer;
+	private final SyncScheduler syncScheduler = new SyncScheduler();
 
 	private static final String ISSUE_STATE_ALL = "all";
 	public static final String STATE_OPEN = "open";
 	public static final String STATE_CLOSED = "closed";
 
 	protected ServiceManager() {
-		githubClient = new GitHubClientExtended();
+		setGitHubClient(new GitHubClientExtended());
+		timer = createTickingTimer();
+		// TODO construct model later
+		model = new Model();
+	}
+
+	/**
+	 * Makes all further requests through the given client. Used to point
+	 * HubTurbo at an API other than GitHub's own, such as a stand-in for
+	 * performance testing. Should be called before logging in.
+	 *
+	 * @param client
+	 */
+	public void setGitHubClient(GitHubClientExtended client) {
+		githubClient = client;
 		collabService = new CollaboratorService(githubClient);
 		issueService = new IssueServiceExtended(githubClient);
 		labelService = new LabelServiceFixed(githubClient);
@@ -109,9 +135,6 @@ public class ServiceManager {
 		repositoryService = new RepositoryServiceExtended(githubClient);
 		markdownService = new MarkdownService(githubClient);
 		contentService = new ContentsService(githubClient);
-		timer = createTickingTimer();
-		// TODO construct model later
-		model = new Model();
 	}
 
 	/**
@@ -264,6 +287,17 @@ public class ServiceManager {
 		return githubClient.getRequestLimit();
 	}
 
+	/**
+	 * @return the number of seconds until the rate limit resets, or -1 if unknown
+	 */
+	public long getSecondsUntilRateLimitReset() {
+		long resetTime = githubClient.getRateLimitResetTime();
+		if (resetTime < 0) {
+			return -1;
+		}
+		return Math.max(0, resetTime - System.currentTimeMillis() / 1000);
+	}
+
 	/**
 	 * Returns a list of the user's public repositories.
 	 *
@@ -321,6 +355,7 @@ public class ServiceManager {
 		this.repoId = repoId;
 
 		CacheFileHandler dcHandler = new CacheFileHandler(repoId.toString());
+		dcHandler.setCompressionEnabled(DataManager.getInstance().isCacheCompressionEnabled());
 		// TODO set these paramters in constructor instead
 		model.setDataCacheFileHandler(dcHandler);
 		model.setRepoId(repoId);
@@ -328,6 +363,7 @@ public class ServiceManager {
 		boolean needToGetResources = true;
 
 		CachedRepoData repo = dcHandler.getRepo();
+		dcHandler.releaseRepo();
 		if (repo != null) {
 			needToGetResources = false;
 		}
@@ -394,8 +430,36 @@ public class ServiceManager {
 		return model;
 	}
 
+	GitHubClientExtended getGitHubClient() {
+		return githubClient;
+	}
+
+	public MultiRepositoryStore getMultiRepositoryStore() {
+		return multiRepositoryStore;
+	}
+
+	/**
+	 * Sets the repositories, besides the current one, whose issues are shown
+	 * in panels. Syncs right away if any of them have to be loaded.
+	 *
+	 * @param repoIds
+	 */
+	public void setPanelRepositories(Collection<String> repoIds) {
+		if (multiRepositoryStore.setRepositories(repoIds)) {
+			updateModelNow();
+		}
+	}
+
+	/**
+	 * @param repoId
+	 * @return true if the repository is kept in memory, though not in the model
+	 */
+	boolean isInMemory(String repoId) {
+		return residentRepositories.contains(repoId) || multiRepositoryStore.contains(repoId);
+	}
+
 	private TickingTimer createTickingTimer() {
-		return new TickingTimer("Sync Timer", SYNC_PERIOD, HTStatusBar::updateRefreshTimer, () -> {
+		return new TickingTimer("Sync Timer", SyncScheduler.DEFAULT_PERIOD, HTStatusBar::updateRefreshTimer, () -> {
 			preventRepoSwitchingAndUpdateModel(model.getRepoId().generateId());
 		});
 	}
@@ -407,7 +471,10 @@ public class ServiceManager {
 	 */
 	private void preventRepoSwitchingAndUpdateModel(String repoId) {
 
+		long syncStart = System.nanoTime();
 		modelUpdater = new ModelUpdater(githubClient, model, updateSignature);
+		UpdateSignature previousSignature = updateSignature;
+		int remainingRequests = getRemainingRequests();
 
 		// Disable repository selection
 		PlatformEx.runAndWait(() -> {
@@ -416,12 +483,18 @@ public class ServiceManager {
 
 		// Wait for the update to complete
 
-		if (modelUpdater.updateModel(repoId)) {
+		if (Metrics.timer("sync.updateModel").time(() -> modelUpdater.updateModel(repoId))) {
 			updateSignature = modelUpdater.getNewUpdateSignature();
-			model.updateCache(updateSignature);
+			Metrics.timer("sync.updateCache").time(() -> model.updateCache(updateSignature));
 
-			updatedIssueMetadata.download();
-			model.triggerModelChangeEvent();
+			Metrics.timer("sync.downloadMetadata").time(() -> updatedIssueMetadata.download());
+			boolean panelsChanged = Metrics.timer("sync.panelRepositories").time(() -> multiRepositoryStore.sync(repoId));
+			boolean changed = panelsChanged || !updateSignature.hasSameETags(previousSignature);
+			Metrics.timer("sync.memory").time(() -> memoryMonitor.update(changed));
+			Metrics.timer("sync.triggerModelChange").time(() -> model.triggerModelChangeEvent());
+			Metrics.timer("sync.total").update(System.nanoTime() - syncStart);
+
+			scheduleNextSync(!updateSignature.hasSameETags(previousSignature), remainingRequests);
 		} else {
 			logger.warn("Model update stopped due to repository changing halfway -- likely concurrency problem!");
 		}
@@ -430,16 +503,72 @@ public class ServiceManager {
 		HTStatusBar.updateProgress(0);
 
 		// Enable repository switching
-		Platform.runLater(() -> {
+		PlatformEx.runLater("sync", () -> {
 			UI.getInstance().enableRepositorySwitching();
 		});
 	}
 
+	/**
+	 * Adapts the time until the next sync to the outcome of the one which
+	 * has just completed. See {@link SyncScheduler}.
+	 *
+	 * @param changed true if the sync found anything new
+	 * @param remainingRequestsBefore the remaining requests before the sync started
+	 */
+	private void scheduleNextSync(boolean changed, int remainingRequestsBefore) {
+		int remainingRequestsAfter = getRemainingRequests();
+		// The rate limit may have been reset in between, in which case the cost is unknown
+		int requestsUsed = remainingRequestsBefore >= 0 && remainingRequestsAfter >= 0
+			&& remainingRequestsAfter <= remainingRequestsBefore
+			? remainingRequestsBefore - remainingRequestsAfter
+			: -1;
+		synchronized (syncScheduler) {
+			syncScheduler.syncCompleted(changed, requestsUsed);
+		}
+		updateSyncPeriod(true);
+	}
+
+	/**
+	 * Informs the sync scheduler of whether the main window is focused.
+	 * Syncs happen less often while it is not.
+	 */
+	public void setWindowFocused(boolean focused) {
+		synchronized (syncScheduler) {
+			if (syncScheduler.isWindowFocused() == focused) {
+				return;
+			}
+			syncScheduler.setWindowFocused(focused);
+		}
+		updateSyncPeriod(false);
+	}
+
+	/**
+	 * Applies the period computed by the sync scheduler to the timer.
+	 * @param restart true if the countdown should start over with the new period
+	 */
+	private void updateSyncPeriod(boolean restart) {
+		int period;
+		synchronized (syncScheduler) {
+			period = syncScheduler.getNextPeriod(getRemainingRequests(), getRequestLimit(),
+				getSecondsUntilRateLimitReset());
+		}
+		synchronized (timer) {
+			timer.setPeriod(period);
+			if (restart) {
+				timer.restart();
+			}
+		}
+		logger.info("Next sync in " + period + "s");
+	}
+
 	/**
 	 * To be called when the app starts.
 	 */
 	public void startModelUpdate() {
 		timer.start();
+		if (DataManager.getInstance().isBackgroundSyncEnabled()) {
+			backgroundSync.start();
+		}
 	}
 
 	/**
@@ -447,6 +576,7 @@ public class ServiceManager {
 	 */
 	public void stopModelUpdate() {
 		timer.stop();
+		backgroundSync.stop();
 	}
 
 	/**
@@ -462,14 +592,53 @@ public class ServiceManager {
 	 * Compound, synchronous action. After being called the contents of the
 	 * model will be of the given repoId.
 	 *
+	 * The repository being left is kept in memory, along with the signature
+	 * of its last sync. Switching back to it while it is still there does not
+	 * load anything; it only needs the sync which follows every switch to
+	 * catch up.
+	 *
 	 * @param repoId the repository to switch to
 	 * @param taskUpdate a callback to handle progress updates
 	 * @throws IOException
 	 */
 	public void switchRepository(RepositoryId repoId, BiConsumer<String, Float> taskUpdate) throws IOException {
-		timer.pause();
-		model.populateComponents(repoId, getResources(repoId, taskUpdate));
-		timer.resume();
+		// Wait for any background sync to finish writing its cache file,
+		// which may be the cache of the repository being switched to
+		synchronized (backgroundSync) {
+			timer.pause();
+			// Make sure the cache of the repository being left is on disk before
+			// any cache is read; it may be the one being switched to
+			CacheFileHandler.flushWrites();
+
+			RepositoryId previousRepoId = this.repoId;
+			UpdateSignature previousSignature = updateSignature;
+			ResidentRepository previous = model.getRepoId() == null ? null : model.detachRepository(updateSignature);
+
+			Optional<ResidentRepository> resident = residentRepositories.remove(repoId.generateId());
+			try {
+				if (resident.isPresent()) {
+					logger.info("Switching to " + repoId.generateId() + ", which is still in memory");
+					this.repoId = repoId;
+					updateSignature = resident.get().getUpdateSignature();
+					model.attachRepository(resident.get());
+				} else {
+					model.populateComponents(repoId, getResources(repoId, taskUpdate));
+				}
+			} catch (IOException e) {
+				// Stay with the repository being left
+				if (previous != null) {
+					this.repoId = previousRepoId;
+					updateSignature = previousSignature;
+					model.attachRepository(previous);
+				}
+				timer.resume();
+				throw e;
+			}
+			if (previous != null) {
+				residentRepositories.add(previous);
+			}
+			timer.resume();
+		}
 
 		taskUpdate.accept("Making sure everything is updated...", 1f);
 		try {
@@ -769,6 +938,26 @@ public class ServiceManager {
 		return issueService.getIssueEvents(repoId, issueId).getTurboIssueEvents();
 	}
 
+	/**
+	 * Downloads the events of an issue, unless they are unchanged since they
+	 * were last downloaded. Unchanged events cost no bandwidth and do not
+	 * count against the rate limit.
+	 *
+	 * @param issue
+	 * @return true if the events of the issue were updated
+	 * @throws IOException
+	 */
+	public boolean updateEvents(TurboIssue issue) throws IOException {
+		assert repoId != null;
+		GitHubEventsResponse response = issueService.getIssueEvents(repoId, issue.getId(), issue.getEventsETag());
+		if (response.isNotModified()) {
+			return false;
+		}
+		issue.setEvents(response.getTurboIssueEvents());
+		issue.setEventsETag(response.getETag().orElse(null));
+		return true;
+	}
+
 	private void ______MARKDOWN______() {
 	}
 
@@ -811,4 +1000,26 @@ public class ServiceManager {
 		}
 		return new ArrayList<>();
 	}
+
+	/**
+	 * Downloads the comments on an issue, unless they are unchanged since
+	 * they were last downloaded. See {@link #updateEvents(TurboIssue)}.
+	 *
+	 * @param issue
+	 * @return true if the comments of the issue were updated
+	 */
+	public boolean updateComments(TurboIssue issue) {
+		if (repoId == null) {
+			return false;
+		}
+		CommentUpdateService updateService =
+			new CommentUpdateService(githubClient, issue.getId(), issue.getCommentsETag());
+		List<Comment> comments = updateService.getUpdatedItems(repoId);
+		if (!updateService.hasUpdatedItems()) {
+			return false;
+		}
+		issue.setComments(comments);
+		issue.setCommentsETag(updateService.getUpdatedETag());
+		return true;
+	}
 }
@@ -0,0 +1,115 @@
+package service;
+
+/**
+ * Decides how long to wait between syncs.
+ *
+ * The period starts at {@link #DEFAULT_PERIOD}. While the repository is busy
+ * (the last sync found changes) and the window is focused, syncs happen as
+ * often as {@link #MIN_PERIOD}. Every sync in a row which finds nothing
+ * new doubles the period, up to {@link #MAX_PERIOD}, and the period is also
+ * doubled while the window is not focused or the remaining quota is low.
+ *
+ * On top of that, a hard budget spreads the remaining quota over the time
+ * until it is reset, keeping a reserve for user actions, so that syncing
+ * alone can never exhaust the rate limit. The budget overrides every other
+ * consideration, including the maximum period.
+ *
+ * This class only does the arithmetic; it is fed the outcome of each sync
+ * and the state of the rate limit by its owner. It is not thread-safe.
+ */
+public class SyncScheduler {
+
+	public static final int DEFAULT_PERIOD = 60;
+	public static final int MIN_PERIOD = 20;
+	public static final int MAX_PERIOD = 15 * 60;
+
+	// The fraction of the request limit that syncing leaves for user actions
+	private static final double RESERVED_QUOTA = 0.1;
+
+	// Below this fraction of the request limit, the quota is considered low
+	private static final double LOW_QUOTA = 0.25;
+
+	// Assumed when the rate limit does not say when it resets
+	private static final long DEFAULT_SECONDS_UNTIL_RESET = 60 * 60;
+
+	private boolean windowFocused = true;
+	private boolean busy = false;
+	private int unchangedSyncs = 0;
+	private int lastSyncCost = 1;
+
+	/**
+	 * Records the outcome of a sync.
+	 * @param changed true if the sync found anything new
+	 * @param requestsUsed the number of requests the sync counted against the rate limit,
+	 * or a negative number if unknown
+	 */
+	public void syncCompleted(boolean changed, int requestsUsed) {
+		busy = changed;
+		unchangedSyncs = changed ? 0 : unchangedSyncs + 1;
+		if (requestsUsed >= 0) {
+			lastSyncCost = requestsUsed;
+		}
+	}
+
+	public void setWindowFocused(boolean windowFocused) {
+		this.windowFocused = windowFocused;
+	}
+
+	public boolean isWindowFocused() {
+		return windowFocused;
+	}
+
+	/**
+	 * Computes the time to wait before the next sync.
+	 * @param remainingRequests the number of requests left in the rate limit, or -1 if unknown
+	 * @param requestLimit the total number of requests allowed by the rate limit, or -1 if unknown
+	 * @param secondsUntilReset the time until the rate limit resets, or -1 if unknown
+	 * @return the period, in seconds
+	 */
+	public int getNextPeriod(int remainingRequests, int requestLimit, long secondsUntilReset) {
+		long period;
+		if (busy && windowFocused) {
+			period = MIN_PERIOD;
+		} else {
+			// 60s after the first unchanged sync, 120s after the second, and so on
+			int doublings = Math.min(Math.max(unchangedSyncs - 1, 0), 30);
+			period = (long) DEFAULT_PERIOD << doublings;
+		}
+
+		if (!windowFocused) {
+			period *= 2;
+		}
+
+		boolean rateLimitKnown = remainingRequests >= 0 && requestLimit > 0;
+		if (rateLimitKnown && remainingRequests < requestLimit * LOW_QUOTA) {
+			period *= 2;
+		}
+
+		period = Math.min(period, MAX_PERIOD);
+
+		if (rateLimitKnown) {
+			period = Math.max(period, getBudgetedPeriod(remainingRequests, requestLimit, secondsUntilReset));
+		}
+		return (int) Math.min(period, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * The shortest period at which syncs costing as much as the last one
+	 * would leave the reserved quota untouched until the rate limit resets.
+	 */
+	private long getBudgetedPeriod(int remainingRequests, int requestLimit, long secondsUntilReset) {
+		if (secondsUntilReset < 0) {
+			secondsUntilReset = DEFAULT_SECONDS_UNTIL_RESET;
+		}
+		// Conditional requests which find nothing new cost nothing, but
+		// assume the next sync will cost at least one request
+		int cost = Math.max(lastSyncCost, 1);
+		long available = remainingRequests - (long) Math.ceil(requestLimit * RESERVED_QUOTA);
+		long syncsAllowed = available / cost;
+		if (syncsAllowed <= 0) {
+			// Wait for the reset
+			return secondsUntilReset + 1;
+		}
+		return (long) Math.ceil((double) secondsUntilReset / syncsAllowed);
+	}
+}
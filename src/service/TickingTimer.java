@@ -38,7 +38,7 @@ public class TickingTimer {
     private final String name;
 
     // The period after which the timer times out.
-    private final int period;
+    private int period;
 
     // onTick will not pause the timer when run, so it should not be a long-running task.
     // Will run before onTimeout.
@@ -86,6 +86,21 @@ public class TickingTimer {
         time = period;
     }
 
+    /**
+     * Changes the period after which the timer times out. If the countdown
+     * in progress has more time left than the new period, it is shortened;
+     * otherwise the new period applies from the next restart.
+     */
+    public synchronized void setPeriod(int period) {
+        assert period > 0 && period % TICK_PERIOD == 0;
+        this.period = period;
+        time = Math.min(time, period);
+    }
+
+    public synchronized int getPeriod() {
+        return period;
+    }
+
     /**
      * Causes the timer to time out on the next tick.
      * Returns a latch that will block until after onTimeout is called.
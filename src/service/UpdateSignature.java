@@ -1,6 +1,7 @@
 package service;
 
 import java.util.Date;
+import java.util.Objects;
 
 /**
  * An immutable class for aggregating resource ETags and last check time.
@@ -33,4 +34,16 @@ public class UpdateSignature {
 		this.collaboratorsETag = collaboratorsETag;
 		this.lastCheckTime = lastCheckTime;
 	}
+
+	/**
+	 * @param other
+	 * @return true if the given signature has the same ETags as this one,
+	 * meaning that none of the resources changed between the two
+	 */
+	public boolean hasSameETags(UpdateSignature other) {
+		return Objects.equals(issuesETag, other.issuesETag)
+			&& Objects.equals(labelsETag, other.labelsETag)
+			&& Objects.equals(milestonesETag, other.milestonesETag)
+			&& Objects.equals(collaboratorsETag, other.collaboratorsETag);
+	}
 }
@@ -4,11 +4,13 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import model.TurboIssue;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.eclipse.egit.github.core.Comment;
 
 import ui.UI;
+import util.PlatformEx;
 
 
 public class UpdatedIssueMetadata {
@@ -21,38 +23,60 @@ public class UpdatedIssueMetadata {
 		this.serviceManager = serviceManager;
 	}
 
+	/**
+	 * Downloads comments and events for the recently-updated issues shown in panels.
+	 */
 	public void download() {
-		downloadComments();
-		downloadEvents();
+		// Panels are only evaluated on the JavaFX thread
+		List<Integer> issueIds = new ArrayList<>();
+		PlatformEx.runAndWait(() -> issueIds.addAll(UI.getInstance().getColumnControl().getUpdatedIssues()));
+		download(issueIds);
+	}
+
+	/**
+	 * Downloads comments and events for the given issues.
+	 * @param issueIds
+	 */
+	public void download(List<Integer> issueIds) {
+		downloadComments(issueIds);
+		downloadEvents(issueIds);
 	}
 
-	public void downloadEvents() {
+	/**
+	 * Downloads events for recently-updated issues. Events which have not
+	 * changed since they were last downloaded are not downloaded again.
+	 */
+	public void downloadEvents(List<Integer> issueIds) {
 		int issueCount = 0;
-		for (Integer issueId : UI.getInstance().getColumnControl().getUpdatedIssues()) {
+		int unchangedCount = 0;
+		for (Integer issueId : issueIds) {
 			++issueCount;
-			List<TurboIssueEvent> events = new ArrayList<>();
+			TurboIssue issue = serviceManager.getModel().getIssueWithId(issueId);
 			try {
-				events = serviceManager.getEvents(issueId);
+				if (!serviceManager.updateEvents(issue)) {
+					++unchangedCount;
+				}
 			} catch (IOException e) {
 				logger.error(e.getLocalizedMessage(), e);
 			}
-			serviceManager.getModel().getIssueWithId(issueId).setEvents(events);
 		}
-		logger.info("Downloaded events for " + issueCount + " issues");
+		logger.info("Downloaded events for " + issueCount + " issues (" + unchangedCount + " unchanged)");
 	}
 
-	public void downloadComments() {
+	/**
+	 * Downloads comments for recently-updated issues, in the same way as
+	 * {@link #downloadEvents(List)}.
+	 */
+	public void downloadComments(List<Integer> issueIds) {
 		int issueCount = 0;
-		for (Integer issueId : UI.getInstance().getColumnControl().getUpdatedIssues()) {
+		int unchangedCount = 0;
+		for (Integer issueId : issueIds) {
 			++issueCount;
-			List<Comment> comments = new ArrayList<>();
-			try {
-				comments = serviceManager.getLatestComments(issueId);
-			} catch (IOException e) {
-				logger.error(e.getLocalizedMessage(), e);
+			TurboIssue issue = serviceManager.getModel().getIssueWithId(issueId);
+			if (!serviceManager.updateComments(issue)) {
+				++unchangedCount;
 			}
-			serviceManager.getModel().getIssueWithId(issueId).setComments(comments);
 		}
-		logger.info("Downloaded comments for " + issueCount + " issues");
+		logger.info("Downloaded comments for " + issueCount + " issues (" + unchangedCount + " unchanged)");
 	}
 }
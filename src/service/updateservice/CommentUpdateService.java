@@ -0,0 +1,30 @@
+package service.updateservice;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_COMMENTS;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_ISSUES;
+
+import java.util.ArrayList;
+
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.client.PagedRequest;
+
+import service.GitHubClientExtended;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Fetches the comments on a single issue.
+ */
+public class CommentUpdateService extends UpdateService<Comment> {
+	public CommentUpdateService(GitHubClientExtended client, int issueId, String commentsETag){
+		super(client, SEGMENT_ISSUES + "/" + issueId + SEGMENT_COMMENTS, commentsETag);
+	}
+	@Override
+	protected PagedRequest<Comment> createUpdatedRequest(IRepositoryIdProvider repoId){
+		PagedRequest<Comment> request = super.createUpdatedRequest(repoId);
+		request.setType(new TypeToken<Comment>(){}.getType());
+		request.setArrayType(new TypeToken<ArrayList<Comment>>(){}.getType());
+		return request;
+	}
+}
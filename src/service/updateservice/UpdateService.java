@@ -91,6 +91,7 @@ public class UpdateService<T> extends GitHubService{
 			PagedRequest<T> request = createUpdatedRequest(repoId);
 			HttpURLConnection connection = createUpdatedConnection(request);
 			int responseCode = connection.getResponseCode();
+			client.updateRateLimits(connection);
 
 			if (client.isError(responseCode)) {
 				logger.warn(String.format("%s: error getting updated items (%d)",
@@ -112,6 +113,10 @@ public class UpdateService<T> extends GitHubService{
 
 			updateCheckTime(connection);
 
+			// The items are retrieved with separate requests, so only the
+			// connection is of further use
+			client.getTransport().discard(connection);
+
 		} catch (IOException e) {
 			logger.error(e.getLocalizedMessage(), e);
 		}
@@ -158,6 +163,16 @@ public class UpdateService<T> extends GitHubService{
 		}
 	}
 
+	/**
+	 * Returns true if the items were retrieved, as opposed to being unchanged
+	 * since the last-known ETag or failing to be retrieved.
+	 * Should be called after getUpdatedItems.
+	 * @return true if there were updated items
+	 */
+	public boolean hasUpdatedItems() {
+		return updatedETag.isPresent();
+	}
+
 	/**
 	 * Returns the time at which the updated items were sent from the server.
 	 * In the event of failure, will be the time the request was made.
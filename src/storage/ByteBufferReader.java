@@ -0,0 +1,80 @@
+package storage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads UTF-8 text from a byte buffer, decoding straight into the array
+ * the caller reads into. Buffers are often slices of a larger array, such
+ * as the descriptions of a cache file, and are read without copying out
+ * the bytes they cover.
+ */
+class ByteBufferReader extends Reader {
+
+	private final ByteBuffer buffer;
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+
+	// Holds the second half of a surrogate pair which did not fit into the
+	// caller's array, or -1
+	private int pendingChar = -1;
+	private boolean flushed = false;
+
+	/**
+	 * @param buffer the text to read; it is read from its position up to its limit
+	 */
+	public ByteBufferReader(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (pendingChar != -1) {
+			cbuf[off] = (char) pendingChar;
+			pendingChar = -1;
+			return 1;
+		}
+
+		CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+		decode(out);
+
+		if (out.position() == off && len == 1 && buffer.hasRemaining()) {
+			// The next character is a surrogate pair, which does not fit
+			CharBuffer pair = CharBuffer.allocate(2);
+			decode(pair);
+			pair.flip();
+			cbuf[off] = pair.get();
+			if (pair.hasRemaining()) {
+				pendingChar = pair.get();
+			}
+			return 1;
+		}
+
+		int read = out.position() - off;
+		return read == 0 && !buffer.hasRemaining() ? -1 : read;
+	}
+
+	private void decode(CharBuffer out) throws IOException {
+		if (flushed) {
+			return;
+		}
+		CoderResult result = decoder.decode(buffer, out, true);
+		if (result.isError()) {
+			result.throwException();
+		}
+		if (!buffer.hasRemaining()) {
+			flushed = decoder.flush(out).isUnderflow();
+		}
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,182 @@
+package storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Describes the on-disk layout of cache files.
+ *
+ * An uncompressed cache file consists of the UTF-8 encoded JSON representation
+ * of a repository, followed by a trailer line containing a CRC32 checksum of
+ * everything before it:
+ *
+ * { ... }
+ * #crc32:0123abcd
+ *
+ * A compressed cache file is the same JSON in GZIP format. GZIP carries its own
+ * CRC32 and length, which are verified when the file is decompressed, so no
+ * trailer is added. The two formats are told apart by the GZIP magic number,
+ * which can never begin a JSON document.
+ *
+ * The checksums allow a partially-written (torn) file to be detected when it
+ * is read back, instead of being loaded as if it were complete.
+ */
+class CacheFileFormat {
+
+	private static final String CHECKSUM_PREFIX = "\n#crc32:";
+	private static final String CHECKSUM_FORMAT = CHECKSUM_PREFIX + "%08x\n";
+	private static final int CHECKSUM_LENGTH = 8;
+	private static final int TRAILER_LENGTH = CHECKSUM_PREFIX.length() + CHECKSUM_LENGTH + 1;
+
+	private static final int GZIP_MAGIC_LENGTH = 2;
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Writes a cache file to the given stream. Flushes the stream, but does not close it.
+	 * @param out the stream to write to
+	 * @param compressed whether to write the compressed format
+	 * @param content writes the JSON representation of a repository to the writer it is given
+	 * @throws IOException
+	 */
+	public static void write(OutputStream out, boolean compressed, Consumer<Writer> content) throws IOException {
+		if (compressed) {
+			GZIPOutputStream gzipStream = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+			Writer writer = new OutputStreamWriter(gzipStream, StandardCharsets.UTF_8.newEncoder());
+			content.accept(writer);
+			writer.flush();
+			gzipStream.finish();
+		} else {
+			CRC32 crc = new CRC32();
+			Writer writer = new OutputStreamWriter(new CheckedOutputStream(out, crc),
+				StandardCharsets.UTF_8.newEncoder());
+			content.accept(writer);
+			writer.flush();
+			out.write(String.format(CHECKSUM_FORMAT, crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+		}
+		out.flush();
+	}
+
+	/**
+	 * Checks the contents of an uncompressed cache file against its checksum
+	 * trailer. Compressed files are checked as they are read instead.
+	 * Files written before checksums were introduced have no trailer; they
+	 * are passed through unchecked, and will fail to parse if they are torn.
+	 *
+	 * @param contents the contents of a cache file
+	 * @return the body of the cache file, or nothing if the checksum does not match
+	 */
+	public static Optional<ByteBuffer> verify(ByteBuffer contents) {
+		if (isCompressed(contents)) {
+			return Optional.of(contents.duplicate());
+		}
+
+		Optional<Long> expected = readChecksum(contents);
+		if (!expected.isPresent()) {
+			return Optional.of(contents.duplicate());
+		}
+
+		ByteBuffer body = contents.duplicate();
+		body.limit(body.limit() - TRAILER_LENGTH);
+		if (checksum(body) != expected.get()) {
+			return Optional.empty();
+		}
+		return Optional.of(body);
+	}
+
+	/**
+	 * Returns a reader over the JSON in the body of a cache file, decompressing
+	 * it if necessary.
+	 * @param body the body of a cache file, as returned by {@link #verify(ByteBuffer)}
+	 * @return a reader over the JSON representation of a repository
+	 * @throws IOException
+	 */
+	public static Reader open(ByteBuffer body) throws IOException {
+		if (isCompressed(body)) {
+			InputStream stream = new GZIPInputStream(new ByteBufferInputStream(body), GZIP_BUFFER_SIZE);
+			return new InputStreamReader(stream, StandardCharsets.UTF_8.newDecoder());
+		}
+		return new ByteBufferReader(body);
+	}
+
+	/**
+	 * Determines if the contents of a cache file are in the compressed format.
+	 */
+	public static boolean isCompressed(ByteBuffer contents) {
+		if (contents.remaining() < GZIP_MAGIC_LENGTH) {
+			return false;
+		}
+		int magic = (contents.get(contents.position()) & 0xff)
+			| ((contents.get(contents.position() + 1) & 0xff) << 8);
+		return magic == GZIPInputStream.GZIP_MAGIC;
+	}
+
+	/**
+	 * Reads the checksum from the trailer of a cache file, if it has one.
+	 */
+	private static Optional<Long> readChecksum(ByteBuffer contents) {
+		if (contents.remaining() < TRAILER_LENGTH) {
+			return Optional.empty();
+		}
+		ByteBuffer trailerBuffer = contents.duplicate();
+		trailerBuffer.position(contents.limit() - TRAILER_LENGTH);
+		String trailer = StandardCharsets.US_ASCII.decode(trailerBuffer).toString();
+
+		if (!trailer.startsWith(CHECKSUM_PREFIX) || !trailer.endsWith("\n")) {
+			return Optional.empty();
+		}
+		String checksum = trailer.substring(CHECKSUM_PREFIX.length(), CHECKSUM_PREFIX.length() + CHECKSUM_LENGTH);
+		try {
+			return Optional.of(Long.parseLong(checksum, 16));
+		} catch (NumberFormatException e) {
+			return Optional.empty();
+		}
+	}
+
+	private static long checksum(ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		return crc.getValue();
+	}
+
+	/**
+	 * Reads the bytes of a buffer, from its position up to its limit.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer.duplicate();
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, buffer.remaining());
+			buffer.get(bytes, off, count);
+			return count;
+		}
+	}
+}
@@ -1,14 +1,29 @@
 package storage;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import model.TurboIssue;
 import model.TurboLabel;
@@ -19,9 +34,13 @@ import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import util.Utility;
+import util.metrics.Metrics;
 
 public class CacheFileHandler {
 
@@ -29,22 +48,51 @@ public class CacheFileHandler {
 	private static final String DIR_CACHE = ".hubturbocache";
 	private static final String FILE_DATA_CACHE = "-cache.json";
 	private static final String FILE_DATA_CACHE_TEMP = "-cache-temp.json";
+	private static final String FILE_DATA_CACHE_BACKUP = "-cache-backup.json";
+	private static final String FIELD_ISSUE_DESCRIPTION = "description";
+
+	// Where cache files are kept; only changed by benchmarks, to keep clear of the real caches
+	private static volatile String cacheDirectory = DIR_CACHE;
+
+	// All cache writes go through this single thread, so they never overlap
+	// and never hold up the thread that requested them.
+	private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Cache Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private CachedRepoData repo = null;
 	private String repoId = null;
 
+	// Whether cache files are written compressed. Either format can always be read.
+	private volatile boolean compressionEnabled = false;
+
+	// The latest snapshot which has yet to be written. A snapshot which is still
+	// waiting when a newer one arrives is superseded and never written.
+	private final AtomicReference<PendingWrite> pendingWrite = new AtomicReference<>();
+
 	/**
 	 * TODO Stop-gap measure pending a more robust updater that can
 	 * deal with schema versions.
 	 */
 	public static void deleteCacheDirectory() {
 		try {
-			FileUtils.deleteDirectory(new File(DIR_CACHE));
+			FileUtils.deleteDirectory(new File(cacheDirectory));
 		} catch (IOException e) {
 			logger.error(e.getLocalizedMessage(), e);
 		}
 	}
 
+	/**
+	 * Keeps cache files in the given directory from now on, rather than in
+	 * the directory the application uses.
+	 * @param directory
+	 */
+	public static void setCacheDirectory(String directory) {
+		cacheDirectory = directory;
+	}
+
 	public CacheFileHandler(String repoId) {
 		this.repoId = repoId;
 		directorySetup();
@@ -52,41 +100,201 @@ public class CacheFileHandler {
 	}
 
 	private void directorySetup() {
-		File directory = new File(DIR_CACHE);
+		File directory = new File(cacheDirectory);
 		if (!directory.exists()) {
 			directory.mkdir();
 		}
 	}
 
+	/**
+	 * Loads the cache file of the repository. If it is missing or damaged,
+	 * falls back to the snapshot it replaced, so that a crash while writing
+	 * does not force the whole repository to be downloaded again.
+	 */
 	public void readFromFile() {
-		String filename = getFileName(FILE_DATA_CACHE, this.repoId);
-		if (!new File(filename).exists()) {
-			return;
+		long start = System.nanoTime();
+		Optional<CachedRepoData> result = readSnapshot(getFileName(FILE_DATA_CACHE, this.repoId));
+		if (!result.isPresent()) {
+			result = readSnapshot(getFileName(FILE_DATA_CACHE_BACKUP, this.repoId));
+			if (result.isPresent()) {
+				logger.warn("Loaded previous cache snapshot for repo " + this.repoId);
+			}
+		}
+		repo = result.orElse(null);
+		Metrics.timer("cache.read").update(System.nanoTime() - start);
+	}
+
+	/**
+	 * Reads and validates a single cache file.
+	 *
+	 * The file is read into memory whole and decoded in place. Issue
+	 * descriptions, which make up most of a large cache, are not decoded
+	 * along with the rest of the file; they are copied out still encoded,
+	 * and each issue decodes its description when it is first needed.
+	 * The file is not mapped, as a file which is still mapped cannot be
+	 * replaced on some platforms, and a mapping is only released once it
+	 * is garbage collected.
+	 *
+	 * @param filename the cache file to read
+	 * @return its contents, or nothing if it is missing or damaged
+	 */
+	private Optional<CachedRepoData> readSnapshot(String filename) {
+		Path path = Paths.get(filename);
+		if (!Files.exists(path)) {
+			return Optional.empty();
+		}
+
+		try {
+			ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(path));
+
+			Optional<ByteBuffer> body = CacheFileFormat.verify(contents);
+			if (!body.isPresent()) {
+				logger.error("Checksum mismatch in cache file " + filename);
+				return Optional.empty();
+			}
+
+			if (!CacheFileFormat.isCompressed(body.get())) {
+				Optional<CachedRepoData> data = readWithLazyDescriptions(body.get());
+				if (data.isPresent()) {
+					return data;
+				}
+				logger.warn("Could not locate issue descriptions in cache file " + filename);
+			}
+
+			Reader reader = CacheFileFormat.open(body.get());
+			CachedRepoData data = createGson(false).fromJson(reader, CachedRepoData.class);
+			reader.close();
+			return Optional.ofNullable(data);
+		} catch (IOException | JsonParseException e) {
+			logger.error("Could not read cache file " + filename + ": " + e.getLocalizedMessage(), e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Reads an uncompressed cache file, leaving issue descriptions undecoded.
+	 * @return the contents of the file, or nothing if the descriptions could not be located
+	 */
+	private Optional<CachedRepoData> readWithLazyDescriptions(ByteBuffer json) {
+		Optional<List<ByteBuffer>> descriptions = CacheFileIndex.findIssueDescriptions(json);
+		if (!descriptions.isPresent()) {
+			return Optional.empty();
 		}
 
 		Gson gson = new GsonBuilder()
 			.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+			.registerTypeHierarchyAdapter(Supplier.class, new LazyTextAdapter())
+			.addDeserializationExclusionStrategy(new ExclusionStrategy() {
+				@Override
+				public boolean shouldSkipField(FieldAttributes field) {
+					return field.getDeclaringClass() == SerializableIssue.class
+						&& field.getName().equals(FIELD_ISSUE_DESCRIPTION);
+				}
+
+				@Override
+				public boolean shouldSkipClass(Class<?> type) {
+					return false;
+				}
+			})
 			.create();
 
-		try {
-			BufferedReader bufferedReader = new BufferedReader(new FileReader(filename));
-			repo = gson.fromJson(bufferedReader, CachedRepoData.class);
-			bufferedReader.close();
-		} catch (IOException e) {
-			logger.error(e.getLocalizedMessage(), e);
+		CachedRepoData data = gson.fromJson(new ByteBufferReader(json), CachedRepoData.class);
+		if (data == null || !data.setIssueDescriptions(copyLiterals(descriptions.get()).stream()
+			.map(literal -> literal == null ? null : new CachedText(literal))
+			.collect(Collectors.toList()))) {
+			return Optional.empty();
+		}
+		return Optional.of(data);
+	}
+
+	/**
+	 * Copies the given parts of a cache file into a single array, so that
+	 * the rest of the file need not be kept.
+	 * @param literals the parts to copy; null entries are kept as they are
+	 * @return the copies, in the same order
+	 */
+	private static List<ByteBuffer> copyLiterals(List<ByteBuffer> literals) {
+		int length = 0;
+		for (ByteBuffer literal : literals) {
+			if (literal != null) {
+				length += literal.remaining();
+			}
+		}
+
+		ByteBuffer copy = ByteBuffer.allocate(length);
+		List<ByteBuffer> copies = new ArrayList<>(literals.size());
+		for (ByteBuffer literal : literals) {
+			if (literal == null) {
+				copies.add(null);
+				continue;
+			}
+			int start = copy.position();
+			copy.put(literal.duplicate());
+			ByteBuffer slice = copy.duplicate();
+			slice.position(start);
+			slice.limit(copy.position());
+			copies.add(slice.slice());
 		}
+		return copies;
+	}
+
+	private static Gson createGson(boolean prettyPrinting) {
+		GsonBuilder gsonBuilder = new GsonBuilder()
+			.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+			.registerTypeHierarchyAdapter(Supplier.class, new LazyTextAdapter());
+		if (prettyPrinting) {
+			gsonBuilder.setPrettyPrinting();
+		}
+		return gsonBuilder.create();
 	}
 
 	private String getFileName(String givenFileName, String repoIdString) {
 		String[] repoIdTokens = repoIdString.split("/");
 		String repoFileName = repoIdTokens[0] + "_" + repoIdTokens[1];
-		return DIR_CACHE + File.separator + repoFileName + givenFileName;
+		return cacheDirectory + File.separator + repoFileName + givenFileName;
 	}
 
 	public CachedRepoData getRepo() {
 		return repo;
 	}
 
+	/**
+	 * Drops the contents loaded from the cache file. They duplicate the
+	 * whole repository, so should not be kept once the model is built.
+	 */
+	public void releaseRepo() {
+		repo = null;
+	}
+
+	/**
+	 * Deletes the cache file of the repository, along with its backup, so
+	 * that it is next loaded from GitHub. Pending writes should be flushed
+	 * first, or they may recreate the file.
+	 */
+	public void deleteCacheFiles() {
+		try {
+			Files.deleteIfExists(Paths.get(getFileName(FILE_DATA_CACHE, this.repoId)));
+			Files.deleteIfExists(Paths.get(getFileName(FILE_DATA_CACHE_BACKUP, this.repoId)));
+			Files.deleteIfExists(Paths.get(getFileName(FILE_DATA_CACHE_TEMP, this.repoId)));
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+		repo = null;
+	}
+
+	public File getCacheFile() {
+		return new File(getFileName(FILE_DATA_CACHE, this.repoId));
+	}
+
+	public void setCompressionEnabled(boolean compressionEnabled) {
+		this.compressionEnabled = compressionEnabled;
+	}
+
+	/**
+	 * Takes a snapshot of the given repository data and schedules it to be
+	 * written to the cache file. Returns without waiting for the write;
+	 * use {@link #flushWrites()} to wait for pending writes to complete.
+	 */
 	public void writeToFile(String repoIdString, String issuesETag, String labelsETag, String milestonesETag,
 	    String collabsETag, Date issueCheckTime,
 	    List<TurboUser> collaborators, List<TurboLabel> labels,
@@ -96,30 +304,104 @@ public class CacheFileHandler {
 			Utility.dateToLocalDateTime(issueCheckTime), new ArrayList<>(collaborators), new ArrayList<>(labels),
 			new ArrayList<>(milestones), new ArrayList<>(issues));
 
-		Gson gson = new GsonBuilder().setPrettyPrinting()
-				.registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter()).create();
-
-		String json = gson.toJson(currentRepoData);
+		PendingWrite superseded = pendingWrite.getAndSet(
+			new PendingWrite(repoIdString, issueCheckTime, currentRepoData));
+		if (superseded == null) {
+			writer.execute(this::writePendingSnapshot);
+		} else {
+			logger.info("Superseded pending cache write for repo " + repoIdString);
+			Metrics.counter("cache.supersededWrites").increment();
+		}
+	}
 
-		// Save to temp file first, then replace main cache file when done
+	/**
+	 * Blocks until all cache writes scheduled so far have been completed.
+	 */
+	public static void flushWrites() {
 		try {
-			FileWriter writer = new FileWriter(getFileName(FILE_DATA_CACHE_TEMP, repoIdString));
-			writer.write(json);
-			writer.close();
+			// The writer executes tasks in order, so once this no-op has run,
+			// everything submitted before it has run as well
+			writer.submit(() -> {}).get();
+		} catch (InterruptedException | ExecutionException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
 
-			File file = new File(getFileName(FILE_DATA_CACHE, repoIdString));
+	/**
+	 * Runs on the writer thread. Writes the latest snapshot, if it has not
+	 * already been written by an earlier invocation.
+	 */
+	private void writePendingSnapshot() {
+		PendingWrite write = pendingWrite.getAndSet(null);
+		if (write == null) {
+			return;
+		}
 
-			if (file.exists() && !file.delete()) {
-				logger.error("Failed to delete cache file");
-			}
+		// Pretty-printing only serves to make uncompressed files readable
+		boolean compressed = compressionEnabled;
+		Gson gson = createGson(!compressed);
 
-			File newFile = new File(getFileName(FILE_DATA_CACHE_TEMP, repoIdString));
-			if (!newFile.renameTo(file)) {
-				logger.error("Failed to rename temp cache file");
-			}
+		String repoIdString = write.repoIdString;
+
+		long start = System.nanoTime();
+		try {
+			replaceCacheFile(repoIdString, out ->
+				CacheFileFormat.write(out, compressed, writer -> gson.toJson(write.data, writer)));
 		} catch (IOException e) {
 			logger.error(e.getLocalizedMessage(), e);
+			return;
+		}
+		Metrics.timer("cache.write").update(System.nanoTime() - start);
+		logger.info("Wrote to file for repo " + repoIdString + " with last checked time: " + write.issueCheckTime);
+	}
+
+	/**
+	 * Replaces the cache file of a repository in a crash-safe manner. The new
+	 * contents are written to a temporary file and forced to disk, after which
+	 * the files are swapped into place using atomic moves. The file being
+	 * replaced is kept as a backup. A crash at any point thus leaves either
+	 * the old or new cache file in place, or at least the backup.
+	 *
+	 * @param repoIdString the repository the cache file belongs to
+	 * @param contents writes the new contents of the cache file to the stream it is given
+	 * @throws IOException
+	 */
+	private void replaceCacheFile(String repoIdString, CacheFileContents contents) throws IOException {
+		Path temp = Paths.get(getFileName(FILE_DATA_CACHE_TEMP, repoIdString));
+		Path cache = Paths.get(getFileName(FILE_DATA_CACHE, repoIdString));
+		Path backup = Paths.get(getFileName(FILE_DATA_CACHE_BACKUP, repoIdString));
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			// The stream is not closed here, as that would close the channel before it is forced
+			OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+			contents.writeTo(out);
+			channel.force(true);
+		}
+
+		if (Files.exists(cache)) {
+			Files.move(cache, backup, StandardCopyOption.ATOMIC_MOVE);
+		}
+		Files.move(temp, cache, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@FunctionalInterface
+	private interface CacheFileContents {
+		void writeTo(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * A snapshot of repository data waiting to be written.
+	 */
+	private static class PendingWrite {
+		public final String repoIdString;
+		public final Date issueCheckTime;
+		public final CachedRepoData data;
+
+		public PendingWrite(String repoIdString, Date issueCheckTime, CachedRepoData data) {
+			this.repoIdString = repoIdString;
+			this.issueCheckTime = issueCheckTime;
+			this.data = data;
 		}
-		logger.info("Wrote to file for repo " + repoIdString + " with last checked time: " + issueCheckTime);
 	}
 }
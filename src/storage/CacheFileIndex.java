@@ -0,0 +1,134 @@
+package storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Locates issue descriptions within the JSON of an uncompressed cache file,
+ * so that they can be left in the file and decoded only when needed.
+ *
+ * This is a single pass over the raw bytes which tracks just enough of the
+ * JSON structure to recognise the description of each object in the
+ * top-level "issues" array. Every structural character in JSON is ASCII, and
+ * bytes of multi-byte UTF-8 sequences are never ASCII, so the bytes can be
+ * scanned without decoding them.
+ */
+class CacheFileIndex {
+
+	private static final byte[] ISSUES_KEY = "issues".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] DESCRIPTION_KEY = "description".getBytes(StandardCharsets.UTF_8);
+
+	// Nesting depths of the root object, the issues array, and each issue
+	private static final int ROOT_DEPTH = 1;
+	private static final int ISSUE_DEPTH = 3;
+
+	/**
+	 * Finds the description of every issue in a cache file.
+	 * @param json the JSON representation of a repository
+	 * @return for each issue, in order, the JSON string literal of its description
+	 * (including quotes), or null if it has none; nothing if the JSON is malformed
+	 */
+	public static Optional<List<ByteBuffer>> findIssueDescriptions(ByteBuffer json) {
+		List<ByteBuffer> descriptions = new ArrayList<>();
+
+		// Whether the container at each depth is an object rather than an array
+		BitSet isObject = new BitSet();
+		int depth = 0;
+		boolean expectingKey = false;
+		boolean inIssues = false;
+		boolean inDescription = false;
+		ByteBuffer description = null;
+
+		int stringStart = -1;
+		boolean escaped = false;
+
+		for (int i = json.position(); i < json.limit(); i++) {
+			byte b = json.get(i);
+
+			if (stringStart != -1) {
+				if (escaped) {
+					escaped = false;
+				} else if (b == '\\') {
+					escaped = true;
+				} else if (b == '"') {
+					if (expectingKey) {
+						if (depth == ROOT_DEPTH) {
+							inIssues = matches(json, stringStart + 1, i, ISSUES_KEY);
+						} else if (depth == ISSUE_DEPTH) {
+							inDescription = inIssues && matches(json, stringStart + 1, i, DESCRIPTION_KEY);
+						}
+					} else if (inDescription && depth == ISSUE_DEPTH) {
+						description = slice(json, stringStart, i + 1);
+					}
+					stringStart = -1;
+				}
+				continue;
+			}
+
+			switch (b) {
+			case '"':
+				stringStart = i;
+				break;
+			case '{':
+			case '[':
+				depth++;
+				isObject.set(depth, b == '{');
+				expectingKey = b == '{';
+				inDescription = false;
+				if (depth == ISSUE_DEPTH && inIssues) {
+					description = null;
+				}
+				break;
+			case '}':
+			case ']':
+				if (depth == ISSUE_DEPTH && inIssues) {
+					descriptions.add(description);
+				}
+				depth--;
+				expectingKey = false;
+				inDescription = false;
+				if (depth < 0) {
+					return Optional.empty();
+				}
+				break;
+			case ',':
+				expectingKey = isObject.get(depth);
+				inDescription = false;
+				break;
+			case ':':
+				expectingKey = false;
+				break;
+			default:
+				break;
+			}
+		}
+
+		if (depth != 0 || stringStart != -1) {
+			return Optional.empty();
+		}
+		return Optional.of(descriptions);
+	}
+
+	private static boolean matches(ByteBuffer json, int start, int end, byte[] expected) {
+		if (end - start != expected.length) {
+			return false;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			if (json.get(start + i) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static ByteBuffer slice(ByteBuffer json, int start, int end) {
+		ByteBuffer slice = json.duplicate();
+		slice.limit(end);
+		slice.position(start);
+		return slice.slice();
+	}
+}
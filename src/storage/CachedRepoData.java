@@ -4,7 +4,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import model.Model;
 import model.TurboIssue;
@@ -110,13 +113,33 @@ public class CachedRepoData {
 	public List<TurboIssue> getIssues(Model model) {
 		List<TurboIssue> turboIssueList = new ArrayList<TurboIssue>();
 		if (this.issues != null) {
+			Map<String, TurboLabel> labelsByName = new HashMap<>();
+			for (TurboLabel label : getLabels()) {
+				labelsByName.put(label.toGhName(), label);
+			}
 			for (SerializableIssue issue: this.issues) {
-				turboIssueList.add(issue.toTurboIssue(model));
+				turboIssueList.add(issue.toTurboIssue(model, labelsByName));
 			}
 		}
 		return turboIssueList;
 	}
 
+	/**
+	 * Sets the descriptions of the issues, in order. Used when the descriptions
+	 * are not read along with the rest of the issues.
+	 * @return false if the number of descriptions does not match the number of issues
+	 */
+	boolean setIssueDescriptions(List<? extends Supplier<String>> descriptions) {
+		List<SerializableIssue> issues = this.issues == null ? new ArrayList<>() : this.issues;
+		if (descriptions.size() != issues.size()) {
+			return false;
+		}
+		for (int i = 0; i < issues.size(); i++) {
+			issues.get(i).setDescription(descriptions.get(i));
+		}
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return "Collaborators = " + collaborators + ", Labels = " + labels + ", Milestones = " + milestones + ", Issues = " + issues;
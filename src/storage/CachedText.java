@@ -0,0 +1,51 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * A piece of text which is still encoded as it was in a cache file, as a
+ * JSON string literal. It is decoded each time it is requested, and the
+ * string is not kept, so holding one costs only its encoded bytes.
+ */
+public class CachedText implements Supplier<String> {
+
+	private static final Logger logger = LogManager.getLogger(CachedText.class.getName());
+
+	// This object, and the buffer over its part of the array the literals of a file are copied into
+	private static final int OVERHEAD = 64;
+
+	private final ByteBuffer literal;
+
+	/**
+	 * @param literal a JSON string literal, including its quotes
+	 */
+	public CachedText(ByteBuffer literal) {
+		this.literal = literal;
+	}
+
+	/**
+	 * @return an estimate of the memory taken up, in bytes
+	 */
+	public long getRetainedBytes() {
+		return OVERHEAD + literal.remaining();
+	}
+
+	@Override
+	public String get() {
+		try (JsonReader reader = new JsonReader(new ByteBufferReader(literal))) {
+			// A bare string is not a valid JSON document without leniency
+			reader.setLenient(true);
+			return reader.nextString();
+		} catch (IOException | IllegalStateException e) {
+			logger.error(e.getLocalizedMessage(), e);
+			return "";
+		}
+	}
+}
@@ -76,7 +76,30 @@ public class DataManager {
 	public String getUserAlias(String user) {
 		return localConfiguration.getAlias(user);
 	}
+
+	public boolean isCacheCompressionEnabled() {
+		return localConfiguration.isCacheCompressionEnabled();
+	}
+
+	public boolean isBackgroundSyncEnabled() {
+		return localConfiguration.isBackgroundSyncEnabled();
+	}
+
+	/**
+	 * @return how many of the last viewed repositories are synced in the background
+	 */
+	public int getBackgroundSyncRepositoryCount() {
+		return localConfiguration.getBackgroundSyncRepositoryCount();
+	}
 	
+	/**
+	 * @return the memory which the current repository may take up before the
+	 * details of issues not shown are dropped, in bytes, or 0 if there is no limit
+	 */
+	public long getMemoryBudget() {
+		return Math.max(0, localConfiguration.getMemoryBudget()) * 1024L * 1024L;
+	}
+
 	private String getCurrentRepoId() {
 		return ServiceManager.getInstance().getRepoId().generateId();
 	}
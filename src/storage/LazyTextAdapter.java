@@ -0,0 +1,32 @@
+package storage;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Serializes text which may not have been loaded yet as a plain string.
+ */
+public class LazyTextAdapter extends TypeAdapter<Supplier<String>> {
+	public Supplier<String> read(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		String value = reader.nextString();
+		return () -> value;
+	}
+
+	public void write(JsonWriter writer, Supplier<String> value) throws IOException {
+		String text = value == null ? null : value.get();
+		if (text == null) {
+			writer.nullValue();
+			return;
+		}
+		writer.value(text);
+	}
+}
@@ -11,10 +11,31 @@ public class LocalConfiguration {
 	
 	private Map<String, String> userAliases = new HashMap<>();
 	private Map<String, Map<String, List<String>>> boards = new HashMap<>();
+	private boolean compressCache = false;
+	private boolean backgroundSync = false;
+	private int backgroundSyncRepositories = 3;
+	// In megabytes; 0 for none
+	private int memoryBudget = 0;
 	
 	public LocalConfiguration() {
 	}
 
+	public boolean isCacheCompressionEnabled() {
+		return compressCache;
+	}
+
+	public boolean isBackgroundSyncEnabled() {
+		return backgroundSync;
+	}
+
+	public int getBackgroundSyncRepositoryCount() {
+		return backgroundSyncRepositories;
+	}
+
+	public int getMemoryBudget() {
+		return memoryBudget;
+	}
+
 	public String getAlias(String user) {
 		return userAliases.get(user);
 	}
@@ -3,18 +3,21 @@ package storage;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Supplier;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
 import model.TurboMilestone;
 import model.TurboUser;
 
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.PullRequest;
 
+import service.TurboIssueEvent;
+
 class SerializableIssue {
 	private String creator;
 	private String createdAt;
@@ -24,7 +27,8 @@ class SerializableIssue {
 	
 	private int id;
 	private String title;
-	private String description;
+	// May be left in the cache file until needed; see CacheFileIndex
+	private Supplier<String> description;
 	
 	// for comments, but not used for current version
 	//private String cachedDescriptionMarkup;
@@ -35,7 +39,17 @@ class SerializableIssue {
 	private TurboUser assignee;
 	private SerializableMilestone milestone;
 	private String htmlUrl;
+	// The full names of the labels; their details are stored once, with the repository
+	private List<String> labelNames;
+	// Written by earlier versions in place of labelNames; only read
 	private List<SerializableLabel> labels;
+
+	// Only present for issues whose metadata has been downloaded, so that
+	// it need not be downloaded again while it remains unchanged
+	private List<Comment> comments;
+	private String commentsETag;
+	private List<TurboIssueEvent> events;
+	private String eventsETag;
 	
 	public SerializableIssue(TurboIssue issue) {
 		this.creator = issue.getCreator();
@@ -46,7 +60,7 @@ class SerializableIssue {
 		
 		this.id = issue.getId();
 		this.title = issue.getTitle();
-		this.description = issue.getDescription();
+		this.description = issue.getDescriptionSource();
 		//this.cachedDescriptionMarkup = issue.getDescriptionMarkup();
 		
 		this.parentIssue = issue.getParentIssue();
@@ -62,25 +76,32 @@ class SerializableIssue {
 		
 		this.htmlUrl = issue.getHtmlUrl();
 		
-		ObservableList<TurboLabel> turboLabelObservableList = issue.getLabels();
-		List<TurboLabel> turboLabelList = turboLabelObservableList.stream().collect(Collectors.toList());
-		this.labels = convertFromListOfTurboLabels(turboLabelList);
-	}
-	
-	private List<SerializableLabel> convertFromListOfTurboLabels(List<TurboLabel> turboLabelsList) {
-		List<SerializableLabel> list = new ArrayList<SerializableLabel>();
-		if (turboLabelsList == null) {
-			return null;
-		} else {
-			for (TurboLabel label : turboLabelsList) {
-				list.add(new SerializableLabel(label));
-			}
+		this.labelNames = issue.getLabelNames();
+
+		if (issue.getCommentsETag() != null) {
+			this.comments = new ArrayList<>(issue.getComments());
+			this.commentsETag = issue.getCommentsETag();
+		}
+		if (issue.getEventsETag() != null) {
+			this.events = new ArrayList<>(issue.getEvents());
+			this.eventsETag = issue.getEventsETag();
 		}
-		return list;
 	}
 	
-	public TurboIssue toTurboIssue(Model model) {
-		TurboIssue tI = new TurboIssue(this.title, this.description, model);
+	void setDescription(Supplier<String> description) {
+		this.description = description;
+	}
+
+	/**
+	 * @param model
+	 * @param labels the labels of the repository, by full name
+	 * @return
+	 */
+	public TurboIssue toTurboIssue(Model model, Map<String, TurboLabel> labels) {
+		TurboIssue tI = new TurboIssue(this.title, "", model);
+		if (description != null) {
+			tI.setDescriptionSource(description);
+		}
 		
 		tI.setCreator(creator);
 		tI.setCreatedAt(createdAt);
@@ -102,14 +123,26 @@ class SerializableIssue {
 			
 		tI.setHtmlUrl(htmlUrl);
 
-		ObservableList<TurboLabel> turboLabelList = FXCollections.observableArrayList();
-		if (labels == null) {
-			tI.setLabels(turboLabelList);
-		} else {
-			for (SerializableLabel label : labels) {
+		List<TurboLabel> turboLabelList = new ArrayList<>();
+		if (labelNames != null) {
+			for (String name : labelNames) {
+				TurboLabel label = labels.get(name);
+				turboLabelList.add(label == null ? new TurboLabel(new Label().setName(name)) : label);
+			}
+		} else if (this.labels != null) {
+			for (SerializableLabel label : this.labels) {
 				turboLabelList.add(label.toTurboLabel());
 			}
-			tI.setLabels(turboLabelList);
+		}
+		tI.setLabels(turboLabelList);
+
+		if (commentsETag != null && comments != null) {
+			tI.setComments(comments);
+			tI.setCommentsETag(commentsETag);
+		}
+		if (eventsETag != null && events != null) {
+			tI.setEvents(events);
+			tI.setEventsETag(eventsETag);
 		}
 		return tI;
 	}
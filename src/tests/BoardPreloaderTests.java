@@ -0,0 +1,208 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboMilestone;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ui.issuecolumn.BoardPreloader;
+
+public class BoardPreloaderTests {
+
+	private final Model model = new Model();
+	private final Queue<Runnable> steps = new ArrayDeque<>();
+	private final Queue<Runnable> delayed = new ArrayDeque<>();
+	private final Map<String, List<String>> boards = new TreeMap<>();
+	private List<TurboIssue> issues = new ArrayList<>();
+
+	private final BoardPreloader preloader = new BoardPreloader(
+		() -> boards.values(), () -> issues, () -> "", steps::add, delayed::add);
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private List<TurboIssue> issues(int count) {
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			TurboIssue issue = new TurboIssue("issue " + i, "", model);
+			issue.setId(i);
+			issue.setOpen(i % 2 == 0);
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	private void runSteps() {
+		while (!steps.isEmpty()) {
+			steps.poll().run();
+		}
+	}
+
+	@Test
+	public void preparesBoardPanels() {
+		boards.put("one", Arrays.asList("is:open", "is:closed"));
+		boards.put("two", Arrays.asList("is:open"));
+		issues = issues(200);
+
+		preloader.update();
+		assertEquals(0, preloader.size());
+		runSteps();
+		// Panels with the same filter in several boards are evaluated once
+		assertEquals(2, preloader.size());
+
+		Optional<BoardPreloader.Prepared> prepared = preloader.take("is:open");
+		assertTrue(prepared.isPresent());
+		assertEquals(100, prepared.get().getEvaluation().getIssues().size());
+		assertEquals(200, prepared.get().getIssues().size());
+
+		// Taken panels are evaluated again for the next time
+		assertFalse(preloader.take("is:open").isPresent());
+		runSteps();
+		assertTrue(preloader.take("is:open").isPresent());
+		assertFalse(preloader.take("is:merged").isPresent());
+	}
+
+	@Test
+	public void changesStartOver() {
+		boards.put("one", Arrays.asList("is:open"));
+		issues = issues(10);
+		preloader.update();
+
+		// Steps of the earlier round are dropped
+		issues = issues(20);
+		preloader.update();
+		runSteps();
+		assertEquals(10, preloader.take("is:open").get().getEvaluation().getIssues().size());
+	}
+
+	@Test
+	public void malformedFilters() {
+		boards.put("one", Arrays.asList("count:assignee count:milestone", "is:open"));
+		issues = issues(10);
+		preloader.update();
+		runSteps();
+		// Left to be evaluated when the board is opened, which shows the error
+		assertEquals(1, preloader.size());
+		assertFalse(preloader.take("count:assignee count:milestone").isPresent());
+	}
+
+	@Test
+	public void requestsCoalesced() {
+		boards.put("one", Arrays.asList("is:open"));
+		issues = issues(10);
+		preloader.requestUpdate();
+		preloader.requestUpdate();
+		preloader.requestUpdate();
+		assertEquals(1, delayed.size());
+		assertTrue(steps.isEmpty());
+
+		delayed.poll().run();
+		runSteps();
+		assertEquals(1, preloader.size());
+
+		// Requests after the update are not lost
+		preloader.requestUpdate();
+		assertEquals(1, delayed.size());
+	}
+
+	@Test
+	public void unchangedSkipped() {
+		boards.put("one", Arrays.asList("is:open", "is:closed"));
+		issues = issues(10);
+		preloader.update();
+		runSteps();
+		assertEquals(2, preloader.size());
+
+		// The same issues, unchanged, in another list
+		issues = new ArrayList<>(issues);
+		preloader.update();
+		assertTrue(steps.isEmpty());
+		assertEquals(2, preloader.size());
+
+		// The boards changing is a change
+		boards.put("two", Arrays.asList("is:open", "id:1"));
+		preloader.update();
+		assertEquals(2, preloader.size());
+		runSteps();
+		assertEquals(3, preloader.size());
+	}
+
+	@Test
+	public void unaffectedPanelsKept() {
+		boards.put("one", Arrays.asList("is:open", "is:closed"));
+		issues = issues(10);
+		preloader.update();
+		runSteps();
+
+		// Issue 2 is open, so only the panel of open issues is evaluated again
+		issues.get(1).setTitle("changed");
+		preloader.update();
+		assertEquals(1, preloader.size());
+		assertTrue(preloader.take("is:closed").isPresent());
+		runSteps();
+		assertEquals(2, preloader.size());
+
+		// Closing it affects both
+		issues.get(1).setOpen(false);
+		preloader.update();
+		assertEquals(0, preloader.size());
+		runSteps();
+		assertEquals(6, preloader.take("is:closed").get().getEvaluation().getIssues().size());
+		assertEquals(4, preloader.take("is:open").get().getEvaluation().getIssues().size());
+	}
+
+	@Test
+	public void milestoneDueDates() {
+		boards.put("one", Arrays.asList("sort:milestone"));
+		issues = issues(3);
+		for (TurboIssue issue : issues) {
+			TurboMilestone milestone = new TurboMilestone("v0.1");
+			milestone.setDueOn(LocalDate.of(2015, 1, issue.getId()));
+			issue.setMilestone(milestone);
+		}
+		preloader.update();
+		runSteps();
+
+		// Only the due date of the milestone changes, which the order depends on
+		TurboMilestone milestone = new TurboMilestone("v0.1");
+		milestone.setDueOn(LocalDate.of(2015, 2, 1));
+		issues.get(0).setMilestone(milestone);
+		preloader.update();
+		assertEquals(0, preloader.size());
+		runSteps();
+		assertEquals(1, preloader.take("sort:milestone").get().getEvaluation().getIssues().get(2).getId());
+	}
+
+	@Test
+	public void removedIssues() {
+		boards.put("one", Arrays.asList("is:open", "is:closed"));
+		issues = issues(10);
+		preloader.update();
+		runSteps();
+
+		// Issue 10 is open
+		issues = new ArrayList<>(issues.subList(0, 9));
+		preloader.update();
+		assertEquals(1, preloader.size());
+		runSteps();
+		assertEquals(4, preloader.take("is:open").get().getEvaluation().getIssues().size());
+	}
+}
@@ -0,0 +1,323 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import model.MemoryReport;
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import storage.CacheFileHandler;
+import storage.LazyTextAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+public class CacheFileHandlerTests {
+
+	private static final String REPO_ID = "test/cachefile";
+
+	private final Model model = new Model();
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	@After
+	public void cleanup() {
+		CacheFileHandler.flushWrites();
+		new CacheFileHandler(REPO_ID).deleteCacheFiles();
+	}
+
+	private List<TurboIssue> issues(int count, String description) {
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			TurboIssue issue = new TurboIssue("issue " + i, description + " " + i, model);
+			issue.setId(i);
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	private static void write(CacheFileHandler handler, List<TurboIssue> issues) {
+		handler.writeToFile(REPO_ID, "issues", "labels", "milestones", "collaborators", new Date(),
+			TestUtils.getStubTurboUsers(2), TestUtils.getStubTurboLabels(2),
+			TestUtils.getStubTurboMilestones(2), issues);
+		CacheFileHandler.flushWrites();
+	}
+
+	private List<TurboIssue> read() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		assertNotNull(handler.getRepo());
+		return handler.getRepo().getIssues(model);
+	}
+
+	/**
+	 * Writes two snapshots, so that the first is left as the backup of the second.
+	 */
+	private File writeWithBackup() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		write(handler, issues(10, "first"));
+		write(handler, issues(20, "second"));
+		return handler.getCacheFile();
+	}
+
+	private static byte[] readBytes(File file) {
+		try {
+			return Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void writeBytes(File file, byte[] contents) {
+		try {
+			Files.write(file.toPath(), contents);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void assertDescriptions(String description, List<TurboIssue> issues) {
+		for (TurboIssue issue : issues) {
+			assertEquals(description + " " + issue.getId(), issue.getDescription());
+		}
+	}
+
+	@Test
+	public void flushWithoutWrites() {
+		CacheFileHandler.flushWrites();
+		assertFalse(new CacheFileHandler(REPO_ID).getCacheFile().exists());
+	}
+
+	@Test
+	public void latestSnapshotWritten() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		// Snapshots which arrive while one is waiting to be written replace it
+		for (int i = 1; i <= 10; i++) {
+			handler.writeToFile(REPO_ID, "issues" + i, "labels", "milestones", "collaborators", new Date(),
+				TestUtils.getStubTurboUsers(2), TestUtils.getStubTurboLabels(2),
+				TestUtils.getStubTurboMilestones(2), issues(i, "snapshot " + i));
+		}
+		CacheFileHandler.flushWrites();
+
+		CacheFileHandler reader = new CacheFileHandler(REPO_ID);
+		assertEquals("issues10", reader.getRepo().getIssuesETag());
+		List<TurboIssue> issues = reader.getRepo().getIssues(model);
+		assertEquals(10, issues.size());
+		assertDescriptions("snapshot 10", issues);
+	}
+
+	@Test
+	public void snapshotTakenWhenScheduled() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		List<TurboIssue> issues = issues(5, "scheduled");
+		handler.writeToFile(REPO_ID, "issues", "labels", "milestones", "collaborators", new Date(),
+			TestUtils.getStubTurboUsers(2), TestUtils.getStubTurboLabels(2),
+			TestUtils.getStubTurboMilestones(2), issues);
+		// Changes made after the write was scheduled are not written
+		issues.clear();
+		CacheFileHandler.flushWrites();
+		assertEquals(5, read().size());
+	}
+
+	@Test
+	public void checksumVerified() {
+		File cacheFile = writeWithBackup();
+		String contents = new String(readBytes(cacheFile), StandardCharsets.UTF_8);
+		assertTrue(contents.matches("(?s).*\n#crc32:[0-9a-f]{8}\n$"));
+		List<TurboIssue> issues = read();
+		assertEquals(20, issues.size());
+		assertDescriptions("second", issues);
+	}
+
+	@Test
+	public void flippedByteFallsBack() {
+		File cacheFile = writeWithBackup();
+		// The file remains valid JSON, so only the checksum shows the damage
+		String contents = new String(readBytes(cacheFile), StandardCharsets.UTF_8);
+		writeBytes(cacheFile, contents.replaceFirst("second 1", "sefond 1").getBytes(StandardCharsets.UTF_8));
+
+		List<TurboIssue> issues = read();
+		assertEquals(10, issues.size());
+		assertDescriptions("first", issues);
+	}
+
+	@Test
+	public void truncatedFileFallsBack() {
+		File cacheFile = writeWithBackup();
+		byte[] contents = readBytes(cacheFile);
+		writeBytes(cacheFile, Arrays.copyOf(contents, contents.length / 2));
+
+		List<TurboIssue> issues = read();
+		assertEquals(10, issues.size());
+		assertDescriptions("first", issues);
+	}
+
+	@Test
+	public void oldFormatRead() {
+		File cacheFile = writeWithBackup();
+		// Files written before checksums were introduced have no trailer
+		String contents = new String(readBytes(cacheFile), StandardCharsets.UTF_8);
+		writeBytes(cacheFile, contents.substring(0, contents.lastIndexOf("\n#crc32:"))
+			.getBytes(StandardCharsets.UTF_8));
+
+		List<TurboIssue> issues = read();
+		assertEquals(20, issues.size());
+		assertDescriptions("second", issues);
+	}
+
+	@Test
+	public void bothDamaged() {
+		File cacheFile = writeWithBackup();
+		File backupFile = new File(cacheFile.getPath().replace("-cache.json", "-cache-backup.json"));
+		assertTrue(backupFile.exists());
+		writeBytes(cacheFile, Arrays.copyOf(readBytes(cacheFile), 100));
+		writeBytes(backupFile, Arrays.copyOf(readBytes(backupFile), 100));
+
+		assertNull(new CacheFileHandler(REPO_ID).getRepo());
+	}
+
+	@Test
+	public void compressedRoundTrip() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		handler.setCompressionEnabled(true);
+		write(handler, issues(20, "compressed"));
+
+		byte[] contents = readBytes(handler.getCacheFile());
+		assertEquals((byte) 0x1f, contents[0]);
+		assertEquals((byte) 0x8b, contents[1]);
+
+		List<TurboIssue> issues = read();
+		assertEquals(20, issues.size());
+		assertDescriptions("compressed", issues);
+	}
+
+	@Test
+	public void formatsMixed() {
+		// Either format is read, whichever is written
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		handler.setCompressionEnabled(true);
+		write(handler, issues(10, "compressed"));
+		handler.setCompressionEnabled(false);
+		write(handler, issues(20, "uncompressed"));
+		assertDescriptions("uncompressed", read());
+
+		// The compressed backup is read when the uncompressed file is damaged
+		writeBytes(handler.getCacheFile(), new byte[0]);
+		List<TurboIssue> issues = read();
+		assertEquals(10, issues.size());
+		assertDescriptions("compressed", issues);
+	}
+
+	@Test
+	public void truncatedCompressedFileFallsBack() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		handler.setCompressionEnabled(true);
+		write(handler, issues(10, "first"));
+		write(handler, issues(20, "second"));
+
+		byte[] contents = readBytes(handler.getCacheFile());
+		writeBytes(handler.getCacheFile(), Arrays.copyOf(contents, contents.length - 4));
+		List<TurboIssue> issues = read();
+		assertEquals(10, issues.size());
+		assertDescriptions("first", issues);
+	}
+
+	@Test
+	public void lazyDescriptions() {
+		List<String> descriptions = Arrays.asList(
+			"plain",
+			"",
+			"quotes \" and backslashes \\ and\nnew lines\ttabs",
+			"unicode \u00e9\u00e8 \u65e5\u672c \ud83d\ude00",
+			// Looks like the field the descriptions are located by
+			"\"description\": \"not this one\"",
+			"{\"issues\": [}");
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int i = 0; i < descriptions.size(); i++) {
+			TurboIssue issue = new TurboIssue("issue " + i, descriptions.get(i), model);
+			issue.setId(i + 1);
+			issues.add(issue);
+		}
+		TurboIssue missing = new TurboIssue("no description", null, model);
+		missing.setId(descriptions.size() + 1);
+		issues.add(missing);
+
+		write(new CacheFileHandler(REPO_ID), issues);
+		List<TurboIssue> read = read();
+		assertEquals(issues.size(), read.size());
+		for (int i = 0; i < descriptions.size(); i++) {
+			assertEquals(descriptions.get(i), read.get(i).getDescription());
+			// Also when decoded through the source, which bypasses the cache of descriptions
+			assertEquals(descriptions.get(i), read.get(i).getDescriptionSource().get());
+		}
+		assertEquals("", read.get(descriptions.size()).getDescription());
+	}
+
+	@Test
+	public void lazyTextAdapter() {
+		Gson gson = new GsonBuilder()
+			.registerTypeHierarchyAdapter(Supplier.class, new LazyTextAdapter())
+			.create();
+		Supplier<String> text = () -> "text \"quoted\"";
+		assertEquals("\"text \\\"quoted\\\"\"", gson.toJson(text, Supplier.class));
+		assertEquals("null", gson.toJson((Supplier<String>) () -> null, Supplier.class));
+
+		Supplier<?> read = gson.fromJson("\"text \\\"quoted\\\"\"", Supplier.class);
+		assertEquals("text \"quoted\"", read.get());
+		assertNull(gson.fromJson("null", Supplier.class));
+	}
+
+	@Test
+	public void lazyDescriptionsMeasured() {
+		write(new CacheFileHandler(REPO_ID), issues(20, "a description of some length"));
+		List<TurboIssue> issues = read();
+		// Each description is held as its encoded bytes, with some overhead
+		long encodedBytes = 0;
+		for (TurboIssue issue : issues) {
+			encodedBytes += issue.getDescriptionSource().get().length() + 2;
+		}
+		long retainedBytes = MemoryReport.of(issues).getRetainedBytes("description");
+		assertTrue(retainedBytes > encodedBytes);
+		assertTrue(retainedBytes < encodedBytes + 100 * issues.size());
+	}
+
+	@Test
+	public void readWriteTwiceRead() {
+		CacheFileHandler handler = new CacheFileHandler(REPO_ID);
+		write(handler, issues(20, "first"));
+
+		// The descriptions read are left undecoded until they are needed
+		List<TurboIssue> issues = read();
+		assertEquals(20, issues.size());
+
+		// The file they were read from can still be replaced, twice over,
+		// which moves it to the backup, and then replaces the backup
+		write(handler, issues(20, "second"));
+		write(handler, issues(30, "third"));
+
+		assertDescriptions("first", issues);
+		List<TurboIssue> reread = read();
+		assertEquals(30, reread.size());
+		assertDescriptions("third", reread);
+	}
+}
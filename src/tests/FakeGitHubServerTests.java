@@ -0,0 +1,120 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Model;
+
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.PageIterator;
+import org.eclipse.egit.github.core.client.RequestException;
+import org.eclipse.egit.github.core.service.IssueService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import service.GitHubClientExtended;
+import service.GitHubEventsResponse;
+import service.IssueServiceExtended;
+import service.updateservice.IssueUpdateService;
+import benchmarks.FakeGitHubServer;
+import benchmarks.GitHubFixtures;
+
+public class FakeGitHubServerTests {
+
+	private static final int ISSUE_COUNT = 250;
+	private static final RepositoryId REPO = RepositoryId.create(GitHubFixtures.OWNER, GitHubFixtures.REPOSITORY);
+
+	private FakeGitHubServer server;
+	private GitHubClientExtended client;
+
+	@Before
+	public void setup() throws IOException {
+		Model.isInTestMode = true;
+		server = new FakeGitHubServer(GitHubFixtures.generate(1, ISSUE_COUNT));
+		server.start();
+		client = server.createClient();
+	}
+
+	@After
+	public void teardown() {
+		server.stop();
+	}
+
+	@Test
+	public void pagingTest() throws IOException {
+		Map<String, String> filters = new HashMap<>();
+		filters.put(IssueService.FILTER_STATE, "all");
+		PageIterator<Issue> pages = new IssueService(client).pageIssues(REPO, filters);
+
+		List<Issue> issues = new ArrayList<>();
+		int pageCount = 0;
+		while (pages.hasNext()) {
+			issues.addAll(pages.next());
+			pageCount++;
+		}
+		assertEquals(ISSUE_COUNT, issues.size());
+		assertEquals(3, pageCount);
+		assertEquals(ISSUE_COUNT, issues.get(0).getNumber());
+		assertEquals(1, issues.get(ISSUE_COUNT - 1).getNumber());
+	}
+
+	@Test
+	public void conditionalRequestTest() {
+		IssueUpdateService initial = new IssueUpdateService(client, null, new Date(0));
+		assertEquals(ISSUE_COUNT, initial.getUpdatedItems(REPO).size());
+		assertTrue(initial.hasUpdatedItems());
+		String etag = initial.getUpdatedETag();
+
+		IssueUpdateService unchanged = new IssueUpdateService(client, etag, initial.getUpdatedCheckTime());
+		assertTrue(unchanged.getUpdatedItems(REPO).isEmpty());
+		assertFalse(unchanged.hasUpdatedItems());
+		assertEquals(1, server.getNotModifiedCount());
+
+		server.getFixtures().updateIssues(3);
+		IssueUpdateService changed = new IssueUpdateService(client, etag, initial.getUpdatedCheckTime());
+		int updated = changed.getUpdatedItems(REPO).size();
+		assertTrue(updated >= 1 && updated <= 3);
+		assertFalse(etag.equals(changed.getUpdatedETag()));
+	}
+
+	@Test
+	public void eventsTest() throws IOException {
+		IssueServiceExtended issueService = new IssueServiceExtended(client);
+		GitHubEventsResponse events = issueService.getIssueEvents(REPO, 1, null);
+		assertFalse(events.isNotModified());
+		assertTrue(events.getETag().isPresent());
+
+		GitHubEventsResponse unchanged = issueService.getIssueEvents(REPO, 1, events.getETag().get());
+		assertTrue(unchanged.isNotModified());
+	}
+
+	@Test
+	public void rateLimitTest() throws IOException {
+		server.setRateLimit(2);
+		GitHubRequest request = new GitHubRequest().setUri("/repos/" + REPO.generateId());
+		client.get(request);
+		client.get(request);
+		assertEquals(0, client.getRemainingRequests());
+		assertEquals(2, client.getRequestLimit());
+		assertTrue(client.getRateLimitResetTime() > 0);
+
+		try {
+			client.get(request);
+			fail();
+		} catch (RequestException e) {
+			assertEquals(403, e.getStatus());
+		}
+	}
+}
@@ -14,6 +14,7 @@ import model.TurboMilestone;
 import model.TurboUser;
 
 import org.eclipse.egit.github.core.PullRequest;
+import org.eclipse.egit.github.core.RepositoryId;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -363,4 +364,21 @@ public class FilterEvalTests {
 		assertEquals(Qualifier.process(Parser.parse("updated:>26"), issue), false);
 	}
 
+	@Test
+	public void repo() {
+		model.setRepoId(RepositoryId.createFromId("owner/name"));
+		TurboIssue issue = new TurboIssue("", "", model);
+
+		assertEquals(Qualifier.process(Parser.parse("repo:owner/name"), issue), true);
+		assertEquals(Qualifier.process(Parser.parse("repo:Owner/Name"), issue), true);
+		assertEquals(Qualifier.process(Parser.parse("repo:owner/nam"), issue), false);
+		assertEquals(Qualifier.process(Parser.parse("repo:other/name || repo:owner/name"), issue), true);
+
+		// The repository of an issue is that of the model it belongs to
+		Model other = new Model();
+		other.setRepoId(RepositoryId.createFromId("owner/other"));
+		issue = new TurboIssue("", "", other);
+		assertEquals(Qualifier.process(Parser.parse("repo:owner/name"), issue), false);
+		assertEquals(Qualifier.process(Parser.parse("repo:owner/other"), issue), true);
+	}
 }
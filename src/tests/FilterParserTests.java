@@ -268,6 +268,17 @@ public class FilterParserTests {
                 new Token(TokenType.EOF, "", 0))));
     }
     
+    @Test
+    public void repo() {
+        assertEquals(Parser.parse("repo:owner/name_2"),
+                new Qualifier("repo", "owner/name_2"));
+        assertEquals(Parser.parse("repo:a/b || repo:c/d label:x"),
+                new Disjunction(new Qualifier("repo", "a/b"),
+                        new Conjunction(new Qualifier("repo", "c/d"), new Qualifier("label", "x"))));
+        assertEquals(Qualifier.getRepoIds(Parser.parse("(repo:A/b || repo:c/d) && !repo:a/B")),
+                Arrays.asList("a/b", "c/d"));
+    }
+
     @Test
     public void serialisation() {
     	
@@ -291,6 +302,7 @@ public class FilterParserTests {
 			"created:<2014-12-4",
 			"created:>2014-12-4",
 			"created:2014-12-4 .. 2014-12-6", // Date ranges
+			"repo:owner/name || repo:owner/other_name", // Repositories
     	};
 
     	// We want to ensure that parsing some filter, and parsing the serialised version
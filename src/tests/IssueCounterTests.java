@@ -0,0 +1,119 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import filter.IssueCounter;
+import filter.ParseException;
+import filter.Parser;
+
+public class IssueCounterTests {
+
+	private final Model model = new Model();
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private TurboIssue issue(int id, boolean isOpen) {
+		TurboIssue issue = new TurboIssue("issue " + id, "", model);
+		issue.setId(id);
+		issue.setOpen(isOpen);
+		return issue;
+	}
+
+	private static IssueCounter.Counts count(String filter, List<TurboIssue> issues) {
+		return IssueCounter.of(Parser.parse(filter)).get().count(Parser.parse(filter), issues);
+	}
+
+	@Test
+	public void noCountQualifier() {
+		assertFalse(IssueCounter.of(Parser.parse("is:open sort:updated")).isPresent());
+	}
+
+	@Test(expected = ParseException.class)
+	public void severalCountQualifiers() {
+		IssueCounter.of(Parser.parse("count:assignee count:milestone"));
+	}
+
+	@Test
+	public void total() {
+		List<TurboIssue> issues = Arrays.asList(issue(1, true), issue(2, false), issue(3, true));
+		IssueCounter.Counts counts = count("is:open count:total", issues);
+		assertEquals(2, counts.getTotal());
+		assertEquals(0, counts.getUngrouped());
+		assertEquals(0, counts.getGroups().size());
+	}
+
+	@Test
+	public void byAssignee() {
+		TurboIssue first = issue(1, true);
+		first.setAssignee(TestUtils.getStubTurboUser("bob"));
+		TurboIssue second = issue(2, true);
+		second.setAssignee(TestUtils.getStubTurboUser("alice"));
+		TurboIssue third = issue(3, true);
+		third.setAssignee(TestUtils.getStubTurboUser("bob"));
+		TurboIssue closed = issue(4, false);
+		closed.setAssignee(TestUtils.getStubTurboUser("alice"));
+		TurboIssue unassigned = issue(5, true);
+
+		IssueCounter.Counts counts = count("is:open count:assignee",
+			Arrays.asList(first, second, third, closed, unassigned));
+		assertEquals(4, counts.getTotal());
+		assertEquals(1, counts.getUngrouped());
+
+		// Largest groups first
+		Map<String, Integer> expected = new LinkedHashMap<>();
+		expected.put("bob", 2);
+		expected.put("alice", 1);
+		assertEquals(Arrays.asList("bob", "alice"), new ArrayList<>(counts.getGroups().keySet()));
+		assertEquals(expected, counts.getGroups());
+	}
+
+	@Test
+	public void byMilestone() {
+		TurboIssue first = issue(1, true);
+		first.setMilestone(TestUtils.getStubTurboMilestone("v0.1"));
+		TurboIssue second = issue(2, true);
+		second.setMilestone(TestUtils.getStubTurboMilestone("v0.1"));
+		TurboIssue third = issue(3, true);
+
+		IssueCounter.Counts counts = IssueCounter.byMilestone()
+			.count(Parser.parse("is:open"), Arrays.asList(first, second, third));
+		assertEquals(3, counts.getTotal());
+		assertEquals(1, counts.getUngrouped());
+		assertEquals(Integer.valueOf(2), counts.getGroups().get("v0.1"));
+	}
+
+	@Test
+	public void byLabelGroup() {
+		TurboIssue first = issue(1, true);
+		first.addLabel(TestUtils.getStubTurboLabel("counttype", "bug"));
+		TurboIssue second = issue(2, true);
+		second.addLabel(TestUtils.getStubTurboLabel("counttype", "bug"));
+		second.addLabel(TestUtils.getStubTurboLabel("counttype", "docs"));
+		TurboIssue third = issue(3, true);
+		third.addLabel(TestUtils.getStubTurboLabel("priority", "high"));
+
+		IssueCounter.Counts counts = count("count:counttype", Arrays.asList(first, second, third));
+		assertEquals(3, counts.getTotal());
+		assertEquals(1, counts.getUngrouped());
+		// An issue with several labels of the group counts towards each
+		assertEquals(Integer.valueOf(2), counts.getGroups().get("bug"));
+		assertEquals(Integer.valueOf(1), counts.getGroups().get("docs"));
+		assertEquals(2, counts.getGroups().size());
+	}
+}
@@ -0,0 +1,133 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboMilestone;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import filter.IssueSorter;
+import filter.ParseException;
+import filter.Parser;
+
+public class IssueSorterTests {
+
+	private final Model model = new Model();
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private TurboIssue issue(int id, int comments) {
+		TurboIssue issue = new TurboIssue("issue " + id, "", model);
+		issue.setId(id);
+		issue.setCommentCount(comments);
+		return issue;
+	}
+
+	private static IssueSorter sorter(String filter) {
+		return IssueSorter.of(Parser.parse(filter)).get();
+	}
+
+	private static List<Integer> ids(List<TurboIssue> issues) {
+		return issues.stream().map(TurboIssue::getId).collect(Collectors.toList());
+	}
+
+	@Test
+	public void noSortQualifiers() {
+		assertFalse(IssueSorter.of(Parser.parse("is:open label:bug")).isPresent());
+	}
+
+	@Test(expected = ParseException.class)
+	public void missingKey() {
+		IssueSorter.of(Parser.parse("sort:\"-asc\""));
+	}
+
+	@Test
+	public void directions() {
+		List<TurboIssue> issues = Arrays.asList(issue(1, 5), issue(2, 0), issue(3, 9));
+		assertEquals(Arrays.asList(3, 1, 2), ids(sorter("sort:comments").sort(issues)));
+		assertEquals(Arrays.asList(2, 1, 3), ids(sorter("sort:comments-asc").sort(issues)));
+		assertEquals(Arrays.asList(3, 2, 1), ids(sorter("sort:id-desc").sort(issues)));
+	}
+
+	@Test
+	public void severalKeys() {
+		// Issues which are equal on the first key are ordered by the second, then keep their order
+		List<TurboIssue> issues = Arrays.asList(issue(4, 1), issue(1, 2), issue(3, 1), issue(2, 2));
+		assertEquals(Arrays.asList(1, 2, 3, 4), ids(sorter("sort:comments sort:id").sort(issues)));
+		assertEquals(Arrays.asList(4, 3, 1, 2), ids(sorter("sort:comments-asc").sort(issues)));
+	}
+
+	@Test
+	public void missingValuesLast() {
+		TurboMilestone early = new TurboMilestone("early");
+		early.setDueOn(LocalDate.of(2015, 1, 1));
+		TurboMilestone late = new TurboMilestone("late");
+		late.setDueOn(LocalDate.of(2015, 6, 1));
+
+		TurboIssue none = issue(1, 0);
+		TurboIssue first = issue(2, 0);
+		first.setMilestone(early);
+		TurboIssue second = issue(3, 0);
+		second.setMilestone(late);
+
+		List<TurboIssue> issues = Arrays.asList(none, second, first);
+		assertEquals(Arrays.asList(2, 3, 1), ids(sorter("sort:milestone").sort(issues)));
+		assertEquals(Arrays.asList(3, 2, 1), ids(sorter("sort:milestone-desc").sort(issues)));
+	}
+
+	@Test
+	public void labelGroups() {
+		TurboIssue low = issue(1, 0);
+		low.addLabel(TestUtils.getStubTurboLabel("sortpriority", "low"));
+		TurboIssue high = issue(2, 0);
+		high.addLabel(TestUtils.getStubTurboLabel("sortpriority", "high"));
+		TurboIssue unlabelled = issue(3, 0);
+		unlabelled.addLabel(TestUtils.getStubTurboLabel("type", "bug"));
+
+		List<TurboIssue> issues = Arrays.asList(unlabelled, low, high);
+		assertEquals(Arrays.asList(2, 1, 3), ids(sorter("sort:sortpriority").sort(issues)));
+
+		// Labels first seen after the last sort are taken into account
+		IssueSorter sorter = sorter("sort:sortpriority");
+		sorter.sort(issues);
+		TurboIssue medium = issue(4, 0);
+		medium.addLabel(TestUtils.getStubTurboLabel("sortpriority", "medium"));
+		assertEquals(Arrays.asList(2, 1, 4, 3), ids(sorter.sort(Arrays.asList(unlabelled, low, high, medium))));
+	}
+
+	@Test
+	public void incrementalChanges() {
+		IssueSorter sorter = sorter("sort:comments");
+		TurboIssue a = issue(1, 3);
+		TurboIssue b = issue(2, 2);
+		TurboIssue c = issue(3, 1);
+		List<TurboIssue> issues = new ArrayList<>(Arrays.asList(a, b, c));
+		assertEquals(Arrays.asList(1, 2, 3), ids(sorter.sort(issues)));
+
+		// An issue changes in place, another is added, and another is removed
+		c.setCommentCount(10);
+		TurboIssue d = issue(4, 2);
+		issues.add(0, d);
+		issues.remove(a);
+		assertEquals(Arrays.asList(3, 4, 2), ids(sorter.sort(issues)));
+
+		// An issue is replaced by an updated copy
+		TurboIssue updated = new TurboIssue(b);
+		updated.setCommentCount(0);
+		issues.set(issues.indexOf(b), updated);
+		assertEquals(Arrays.asList(3, 4, 2), ids(sorter.sort(issues)));
+	}
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import service.HttpTransport;
+import util.metrics.Counter;
+import util.metrics.Gauge;
+import util.metrics.Histogram;
+import util.metrics.Metrics;
+import util.metrics.Timer;
+
+public class MetricsTests {
+
+	@Test
+	public void counterTest() {
+		Counter counter = Metrics.counter("tests.counter");
+		assertSame(counter, Metrics.counter("tests.counter"));
+		counter.increment();
+		counter.increment(41);
+		assertEquals(42, counter.getCount());
+		assertEquals(42L, Metrics.getValues().get("tests.counter").get("count"));
+	}
+
+	@Test
+	public void gaugeTest() {
+		Gauge gauge = Metrics.gauge("tests.gauge");
+		assertSame(gauge, Metrics.gauge("tests.gauge"));
+		gauge.set(7);
+		gauge.set(5);
+		assertEquals(5, gauge.getValue());
+		assertEquals(5L, Metrics.getValues().get("tests.gauge").get("value"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void metricTypeTest() {
+		Metrics.counter("tests.typed");
+		Metrics.timer("tests.typed");
+	}
+
+	@Test
+	public void histogramTest() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50), 0);
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.update(i);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(1000, histogram.getMax());
+		assertEquals(500.5, histogram.getMean(), 0.001);
+
+		// Percentiles are exact only to within a power of two
+		double median = histogram.get50thPercentile();
+		assertTrue(median >= 256 && median <= 1000);
+		double p99 = histogram.get99thPercentile();
+		assertTrue(p99 >= 512 && p99 <= 1000);
+		assertTrue(histogram.getPercentile(0) >= 1);
+		assertEquals(1000, histogram.getPercentile(100), 0);
+	}
+
+	@Test
+	public void histogramSingleValueTest() {
+		Histogram histogram = new Histogram();
+		histogram.update(300);
+		histogram.update(-5);
+		assertEquals(0, histogram.getMin());
+		assertEquals(300, histogram.getMax());
+		assertEquals(300, histogram.getPercentile(100), 0);
+	}
+
+	@Test
+	public void timerTest() {
+		Timer timer = new Timer();
+		int result = timer.time(() -> 1 + 1);
+		assertEquals(2, result);
+		timer.update(2_000_000);
+		assertEquals(2, timer.getCount());
+		assertEquals(2, timer.getMaxMillis(), 0.001);
+
+		Map<String, Object> values = timer.getValues();
+		assertEquals(2L, values.get("count"));
+	}
+
+	@Test
+	public void resourceNameTest() {
+		assertEquals("issues", HttpTransport.getResourceName("/api/v3/repos/owner/name/issues"));
+		assertEquals("issues.events", HttpTransport.getResourceName("/repos/owner/name/issues/12/events"));
+		assertEquals("repository", HttpTransport.getResourceName("/repos/owner/name"));
+		assertEquals("user.repos", HttpTransport.getResourceName("/user/repos"));
+		assertEquals("root", HttpTransport.getResourceName("/"));
+	}
+}
@@ -6,10 +6,13 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import model.Model;
+import model.ModelFootprint;
+import model.ResidentRepository;
 import model.TurboIssue;
 import model.TurboLabel;
 import model.TurboMilestone;
 
+import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.Milestone;
@@ -18,6 +21,7 @@ import org.eclipse.egit.github.core.User;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import service.UpdateSignature;
 import util.events.EventHandler;
 import util.events.ModelChangedEvent;
 import util.events.ModelChangedEventHandler;
@@ -84,6 +88,71 @@ public class ModelTests {
 		assertEquals(model.getIssues().size(), 10);
 	}
 
+	@Test
+	public void detachingAndAttachingRepositories() throws IOException {
+		Model model = new Model();
+		RepositoryId first = new RepositoryId(TEST_REPO_OWNER, TEST_REPO_NAME);
+		model.loadComponents(first, (a, b) -> {});
+		UpdateSignature signature = new UpdateSignature();
+
+		ResidentRepository detached = model.detachRepository(signature);
+		assertEquals(first.generateId(), detached.getRepoId());
+		assertSame(signature, detached.getUpdateSignature());
+		assertEquals(10, detached.getIssueCount());
+		assertEquals(0, model.getIssues().size());
+		assertEquals(0, model.getLabels().size());
+
+		// Loading another repository leaves the detached one alone
+		model.loadComponents(new RepositoryId(TEST_REPO_OWNER, "other"), (a, b) -> {});
+		model.loadTurboIssues(TestUtils.getStubTurboIssues(model, 3));
+		assertEquals(10, detached.getIssueCount());
+
+		model.attachRepository(detached);
+		assertEquals(first.generateId(), model.getRepoId().generateId());
+		assertEquals(10, model.getIssues().size());
+		assertEquals(10, model.getLabels().size());
+	}
+
+	@Test
+	public void footprint() throws IOException {
+		Model model = new Model();
+		assertFalse(model.getFootprint().isPresent());
+
+		RepositoryId repoId = new RepositoryId(TEST_REPO_OWNER, TEST_REPO_NAME);
+		model.loadComponents(repoId, (a, b) -> {});
+		ModelFootprint footprint = model.getFootprint().get();
+		assertEquals(repoId.generateId(), footprint.getRepoId());
+		assertEquals(10, footprint.getIssueCount());
+		assertTrue(footprint.get(ModelFootprint.ISSUES) > 0);
+		assertTrue(footprint.get(ModelFootprint.LABELS) > 0);
+		assertEquals(0, footprint.get(ModelFootprint.COMMENTS));
+		assertEquals(footprint.getCategories().values().stream().mapToLong(Long::longValue).sum(),
+			footprint.getTotal());
+	}
+
+	@Test
+	public void evictingIssueDetails() throws IOException {
+		Model model = new Model();
+		model.loadComponents(new RepositoryId(TEST_REPO_OWNER, TEST_REPO_NAME), (a, b) -> {});
+		TurboIssue shown = model.getIssueWithId(1);
+		TurboIssue hidden = model.getIssueWithId(2);
+		Comment comment = new Comment().setBody("comment");
+		shown.setComments(Arrays.asList(comment));
+		shown.setCommentsETag("shown");
+		hidden.setComments(Arrays.asList(comment));
+		hidden.setCommentsETag("hidden");
+		String description = hidden.getDescription();
+
+		model.evictIssueDetails(issue -> issue.getId() == 1);
+		assertEquals(1, shown.getComments().size());
+		assertEquals("shown", shown.getCommentsETag());
+		assertTrue(hidden.getComments().isEmpty());
+		assertNull(hidden.getCommentsETag());
+		assertEquals(description, hidden.getDescription());
+		// Nothing is left to drop
+		assertEquals(0, model.evictIssueDetails(issue -> issue.getId() == 1));
+	}
+
 	private int numberOfUpdates = 0;
 	private EventHandler modelChangedHandler = null;
 
@@ -0,0 +1,169 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ui.issuecolumn.PagedIssueList;
+
+public class PagedIssueListTests {
+
+	private final Model model = new Model();
+	private final Queue<Runnable> steps = new ArrayDeque<>();
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private ObservableList<TurboIssue> issues(int count) {
+		ObservableList<TurboIssue> issues = FXCollections.observableArrayList();
+		for (int i = 1; i <= count; i++) {
+			TurboIssue issue = new TurboIssue("issue " + i, "", model);
+			issue.setId(i);
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	private PagedIssueList paged(ObservableList<TurboIssue> source, Predicate<TurboIssue> predicate) {
+		return new PagedIssueList(source, predicate, steps::add);
+	}
+
+	private void runSteps() {
+		while (!steps.isEmpty()) {
+			steps.poll().run();
+		}
+	}
+
+	@Test
+	public void firstPageOnly() {
+		AtomicInteger evaluated = new AtomicInteger();
+		PagedIssueList list = paged(issues(1000), issue -> {
+			evaluated.incrementAndGet();
+			return true;
+		});
+		assertEquals(PagedIssueList.FIRST_PAGE, list.size());
+		assertEquals(PagedIssueList.FIRST_PAGE, evaluated.get());
+		assertFalse(list.isComplete());
+
+		runSteps();
+		assertTrue(list.isComplete());
+		assertEquals(1000, list.size());
+		assertEquals(1000, evaluated.get());
+	}
+
+	@Test
+	public void matchesInOrder() {
+		PagedIssueList list = paged(issues(1000), issue -> issue.getId() % 3 == 0);
+		runSteps();
+		assertEquals(333, list.size());
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals((i + 1) * 3, list.get(i).getId());
+			assertEquals((i + 1) * 3 - 1, list.getSourceIndex(i));
+		}
+	}
+
+	@Test
+	public void smallSource() {
+		PagedIssueList list = paged(issues(10), issue -> issue.getId() > 5);
+		assertTrue(list.isComplete());
+		assertEquals(5, list.size());
+		assertTrue(steps.isEmpty());
+	}
+
+	@Test
+	public void laterMatchesAdded() {
+		PagedIssueList list = paged(issues(1000), issue -> true);
+		AtomicInteger added = new AtomicInteger();
+		list.addListener((ListChangeListener<TurboIssue>) change -> {
+			while (change.next()) {
+				added.addAndGet(change.getAddedSize());
+			}
+		});
+		runSteps();
+		assertEquals(1000 - PagedIssueList.FIRST_PAGE, added.get());
+	}
+
+	@Test
+	public void completed() {
+		PagedIssueList list = paged(issues(1000), issue -> issue.getId() % 2 == 0);
+		AtomicInteger added = new AtomicInteger();
+		list.addListener((ListChangeListener<TurboIssue>) change -> {
+			while (change.next()) {
+				added.addAndGet(change.getAddedSize());
+			}
+		});
+		list.complete();
+		assertTrue(list.isComplete());
+		assertEquals(500, list.size());
+		assertEquals(500 - PagedIssueList.FIRST_PAGE, added.get());
+
+		// Steps scheduled before have nothing left to do
+		runSteps();
+		assertEquals(500, list.size());
+	}
+
+	@Test
+	public void disposed() {
+		PagedIssueList list = paged(issues(1000), issue -> true);
+		list.dispose();
+		runSteps();
+		assertEquals(PagedIssueList.FIRST_PAGE, list.size());
+		assertFalse(list.isComplete());
+	}
+
+	@Test
+	public void sourceChanged() {
+		ObservableList<TurboIssue> source = issues(1000);
+		PagedIssueList list = paged(source, issue -> issue.getId() <= 500);
+		runSteps();
+		assertEquals(500, list.size());
+
+		// The matches from before the change are reported as removed
+		List<Integer> removed = new ArrayList<>();
+		list.addListener((ListChangeListener<TurboIssue>) change -> {
+			while (change.next()) {
+				change.getRemoved().forEach(issue -> removed.add(issue.getId()));
+			}
+		});
+
+		// Evaluation starts over
+		source.remove(0, 10);
+		assertEquals(500, removed.size());
+		assertEquals(1, removed.get(0).intValue());
+		assertEquals(500, removed.get(499).intValue());
+		runSteps();
+		assertEquals(490, list.size());
+		assertEquals(11, list.get(0).getId());
+	}
+
+	@Test
+	public void disposedSourceChanged() {
+		ObservableList<TurboIssue> source = issues(1000);
+		PagedIssueList list = paged(source, issue -> true);
+		list.dispose();
+		AtomicInteger changes = new AtomicInteger();
+		list.addListener((ListChangeListener<TurboIssue>) change -> changes.incrementAndGet());
+
+		source.remove(0, 10);
+		runSteps();
+		assertEquals(0, changes.get());
+	}
+}
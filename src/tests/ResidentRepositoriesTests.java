@@ -0,0 +1,69 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import model.Model;
+import model.ResidentRepositories;
+import model.ResidentRepository;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import service.UpdateSignature;
+
+public class ResidentRepositoriesTests {
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private static ResidentRepository getRepository(String repoId, int issueCount) {
+		Model model = new Model();
+		return new ResidentRepository(repoId, TestUtils.getStubTurboIssues(model, issueCount),
+			new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, new UpdateSignature());
+	}
+
+	@Test
+	public void leastRecentlyUsedEvictionTest() {
+		ResidentRepositories repositories = new ResidentRepositories(2, 1000);
+		repositories.add(getRepository("test/a", 1));
+		repositories.add(getRepository("test/b", 1));
+		repositories.add(getRepository("test/c", 1));
+		assertEquals(Arrays.asList("test/b", "test/c"), repositories.getRepoIds());
+
+		// Adding a repository again makes it the most recently used
+		repositories.add(getRepository("test/b", 1));
+		repositories.add(getRepository("test/d", 1));
+		assertEquals(Arrays.asList("test/b", "test/d"), repositories.getRepoIds());
+	}
+
+	@Test
+	public void issueBudgetTest() {
+		ResidentRepositories repositories = new ResidentRepositories(10, 25);
+		repositories.add(getRepository("test/a", 10));
+		repositories.add(getRepository("test/b", 10));
+		repositories.add(getRepository("test/c", 10));
+		assertEquals(Arrays.asList("test/b", "test/c"), repositories.getRepoIds());
+		assertEquals(20, repositories.getIssueCount());
+
+		// A repository over budget on its own is not kept
+		repositories.add(getRepository("test/d", 30));
+		assertTrue(repositories.getRepoIds().isEmpty());
+	}
+
+	@Test
+	public void removeTest() {
+		ResidentRepositories repositories = new ResidentRepositories();
+		repositories.add(getRepository("test/a", 5));
+		assertTrue(repositories.contains("test/a"));
+		assertEquals(5, repositories.remove("test/a").get().getIssueCount());
+		assertFalse(repositories.contains("test/a"));
+		assertFalse(repositories.remove("test/a").isPresent());
+	}
+}
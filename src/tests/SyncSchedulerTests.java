@@ -0,0 +1,98 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import service.SyncScheduler;
+
+public class SyncSchedulerTests {
+
+	private static final int LIMIT = 5000;
+	private static final int UNKNOWN = -1;
+
+	@Test
+	public void defaultPeriodTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		assertEquals(SyncScheduler.DEFAULT_PERIOD, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+		assertEquals(SyncScheduler.DEFAULT_PERIOD, scheduler.getNextPeriod(UNKNOWN, UNKNOWN, UNKNOWN));
+	}
+
+	@Test
+	public void busyTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		scheduler.syncCompleted(true, 5);
+		assertEquals(SyncScheduler.MIN_PERIOD, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+
+		// Not while the window is unfocused
+		scheduler.setWindowFocused(false);
+		assertTrue(scheduler.getNextPeriod(LIMIT, LIMIT, 3600) >= SyncScheduler.DEFAULT_PERIOD);
+	}
+
+	@Test
+	public void backOffTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		scheduler.syncCompleted(false, 0);
+		assertEquals(60, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+		scheduler.syncCompleted(false, 0);
+		assertEquals(120, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+		scheduler.syncCompleted(false, 0);
+		assertEquals(240, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+
+		for (int i = 0; i < 50; i++) {
+			scheduler.syncCompleted(false, 0);
+		}
+		assertEquals(SyncScheduler.MAX_PERIOD, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+
+		// Any change resets the back-off
+		scheduler.syncCompleted(true, 1);
+		scheduler.syncCompleted(false, 0);
+		assertEquals(60, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+	}
+
+	@Test
+	public void unfocusedTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		scheduler.setWindowFocused(false);
+		assertEquals(2 * SyncScheduler.DEFAULT_PERIOD, scheduler.getNextPeriod(LIMIT, LIMIT, 3600));
+	}
+
+	@Test
+	public void lowQuotaTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		scheduler.syncCompleted(false, 1);
+		assertEquals(2 * SyncScheduler.DEFAULT_PERIOD, scheduler.getNextPeriod(LIMIT / 5, LIMIT, 60));
+	}
+
+	@Test
+	public void budgetTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+
+		// 1000 requests left after the reserve of 500, at 10 per sync: 100 syncs in 3600s
+		scheduler.syncCompleted(true, 10);
+		assertEquals(36, scheduler.getNextPeriod(1500, LIMIT, 3600));
+
+		// The budget overrides the maximum period
+		scheduler.syncCompleted(true, 100);
+		assertEquals(360, scheduler.getNextPeriod(1500, LIMIT, 3600));
+		scheduler.syncCompleted(true, 1000);
+		assertEquals(3600, scheduler.getNextPeriod(1500, LIMIT, 3600));
+
+		// Nothing is left beyond the reserve, so wait for the reset
+		assertEquals(3601, scheduler.getNextPeriod(LIMIT / 10, LIMIT, 3600));
+	}
+
+	@Test
+	public void budgetNeverExhaustedTest() {
+		SyncScheduler scheduler = new SyncScheduler();
+		int remaining = LIMIT;
+		long elapsed = 0;
+		while (elapsed < 3600) {
+			scheduler.syncCompleted(true, 50);
+			remaining -= 50;
+			elapsed += scheduler.getNextPeriod(remaining, LIMIT, 3600 - elapsed);
+		}
+		assertTrue(remaining >= LIMIT / 10 - 50);
+	}
+}
@@ -12,13 +12,24 @@ import service.ServiceManager;
 @RunWith(Suite.class)
 
 @Suite.SuiteClasses({
+	BoardPreloaderTests.class,
+	CacheFileHandlerTests.class,
 	DataManagerTests.class,
+	FakeGitHubServerTests.class,
 	FilterEvalTests.class,
 	FilterParserTests.class,
+	IssueCounterTests.class,
+	IssueSorterTests.class,
+	MetricsTests.class,
 	EventTests.class,
 	ServiceManagerTests.class,
 	ModelTests.class,
-	TickingTimerTests.class
+	PagedIssueListTests.class,
+	ResidentRepositoriesTests.class,
+	SyncSchedulerTests.class,
+	TextCacheTests.class,
+	TickingTimerTests.class,
+	TurboIssueTests.class
 })
 
 public class Tests {
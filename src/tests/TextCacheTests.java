@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import model.TextCache;
+
+import org.junit.Test;
+
+public class TextCacheTests {
+
+	/**
+	 * A source of text which counts how many times it is produced.
+	 */
+	private static class CountingSource implements Supplier<String> {
+		private final String text;
+		private final AtomicInteger count = new AtomicInteger();
+
+		public CountingSource(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public String get() {
+			count.incrementAndGet();
+			return text;
+		}
+	}
+
+	@Test
+	public void producedOnce() {
+		TextCache cache = new TextCache(2);
+		CountingSource source = new CountingSource("text");
+		assertEquals("text", cache.get(source));
+		assertEquals("text", cache.get(source));
+		assertEquals(1, source.count.get());
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() {
+		TextCache cache = new TextCache(2);
+		CountingSource first = new CountingSource("first");
+		CountingSource second = new CountingSource("second");
+		CountingSource third = new CountingSource("third");
+
+		cache.get(first);
+		cache.get(second);
+		// Using the first makes the second the least recently used
+		cache.get(first);
+		cache.get(third);
+		assertEquals(2, cache.size());
+
+		cache.get(first);
+		cache.get(third);
+		assertEquals(1, first.count.get());
+		assertEquals(1, third.count.get());
+		cache.get(second);
+		assertEquals(2, second.count.get());
+	}
+
+	@Test
+	public void nullNotCached() {
+		TextCache cache = new TextCache(2);
+		CountingSource source = new CountingSource(null);
+		assertNull(cache.get(source));
+		assertNull(cache.get(source));
+		assertEquals(2, source.count.get());
+		assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,135 @@
+package tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import model.LabelTable;
+import model.MemoryReport;
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TurboIssueTests {
+
+	@BeforeClass
+	public static void setup() {
+		Model.isInTestMode = true;
+	}
+
+	private static TurboLabel exclusiveLabel(String group, String name) {
+		TurboLabel label = TestUtils.getStubTurboLabel(group, name);
+		label.setExclusive(true);
+		return label;
+	}
+
+	@Test
+	public void labels() {
+		Model model = new Model();
+		TurboIssue issue = new TurboIssue("", "", model);
+		TurboLabel bug = TestUtils.getStubTurboLabel("type", "bug");
+		TurboLabel docs = TestUtils.getStubTurboLabel("type", "docs");
+
+		issue.addLabel(bug);
+		issue.addLabel(docs);
+		issue.addLabel(bug);
+		assertEquals(2, issue.getLabels().size());
+		assertTrue(issue.hasLabel(TestUtils.getStubTurboLabel("type", "bug")));
+
+		issue.removeLabel(bug);
+		assertFalse(issue.hasLabel(bug));
+		assertEquals(Arrays.asList("type-docs"), issue.getLabelNames());
+
+		issue.removeLabel(docs);
+		assertTrue(issue.getLabels().isEmpty());
+	}
+
+	@Test
+	public void exclusiveLabels() {
+		Model model = new Model();
+		TurboIssue issue = new TurboIssue("", "", model);
+
+		issue.addLabel(exclusiveLabel("priority", "high"));
+		issue.addLabel(exclusiveLabel("priority", "low"));
+		assertEquals(Arrays.asList("priority.low"), issue.getLabelNames());
+	}
+
+	@Test
+	public void labelIds() {
+		Model model = new Model();
+		TurboLabel label = TestUtils.getStubTurboLabel("status", "ongoing");
+		int id = LabelTable.getId(label);
+		assertEquals(id, LabelTable.getId(TestUtils.getStubTurboLabel("status", "ongoing")));
+		assertEquals(-1, LabelTable.findId(TestUtils.getStubTurboLabel("status", "unheard-of")));
+
+		TurboIssue issue = new TurboIssue("", "", model);
+		issue.addLabel(label);
+		BitSet ids = new BitSet();
+		assertFalse(issue.hasAnyLabel(ids));
+		ids.set(id);
+		assertTrue(issue.hasAnyLabel(ids));
+	}
+
+	@Test
+	public void labelReferences() {
+		// Labels resolve to those of the model, so that changes to them show
+		Model model = new Model();
+		TurboLabel label = TestUtils.getStubTurboLabel("area", "ui");
+		model.addLabel(label);
+
+		TurboIssue issue = new TurboIssue("", "", model);
+		issue.addLabel(TestUtils.getStubTurboLabel("area", "ui"));
+		assertSame(label, issue.getLabels().get(0));
+
+		TurboIssue copy = new TurboIssue(issue);
+		assertSame(label, copy.getLabels().get(0));
+	}
+
+	@Test
+	public void sharedStrings() {
+		Model model = new Model();
+		TurboIssue first = new TurboIssue("", "", model);
+		TurboIssue second = new TurboIssue("", "", model);
+		first.setCreator(new String("creator"));
+		second.setCreator(new String("creator"));
+		assertSame(first.getCreator(), second.getCreator());
+
+		MemoryReport report = MemoryReport.of(Arrays.asList(first, second));
+		assertEquals(2, report.getIssueCount());
+		assertEquals(0, report.getDuplicatedBytes("creator"));
+		assertTrue(report.getRetainedBytes("creator") > 0);
+	}
+
+	@Test
+	public void htmlUrl() {
+		Model model = new Model();
+		TurboIssue first = new TurboIssue("", "", model);
+		TurboIssue second = new TurboIssue("", "", model);
+		first.setHtmlUrl("https://github.com/owner/repo/issues/12");
+		second.setHtmlUrl("https://github.com/owner/repo/issues/345");
+		assertEquals("https://github.com/owner/repo/issues/12", first.getHtmlUrl());
+		assertEquals("https://github.com/owner/repo/issues/345", second.getHtmlUrl());
+		assertEquals(MemoryReport.of(Arrays.asList(first)).getRetainedBytes("htmlUrl"),
+			MemoryReport.of(Arrays.asList(first, second)).getRetainedBytes("htmlUrl"));
+
+		// URLs which do not end with a number which can be written back are kept whole
+		for (String url : Arrays.asList("https://github.com/owner/repo/issues/012",
+			"https://github.com/owner/repo/issues/", "https://github.com/owner/repo/issues/12345678901", "")) {
+			first.setHtmlUrl(url);
+			assertEquals(url, first.getHtmlUrl());
+		}
+		first.setHtmlUrl(null);
+		assertNull(first.getHtmlUrl());
+
+		TurboIssue copy = new TurboIssue(second);
+		assertEquals(second.getHtmlUrl(), copy.getHtmlUrl());
+	}
+}
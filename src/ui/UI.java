@@ -7,6 +7,8 @@ import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
@@ -34,6 +36,7 @@ import storage.DataManager;
 import ui.components.HTStatusBar;
 import ui.issuecolumn.ColumnControl;
 import util.DialogMessage;
+import util.FxThreadWatchdog;
 import util.PlatformEx;
 import util.PlatformSpecific;
 import util.Utility;
@@ -42,6 +45,7 @@ import util.events.Event;
 import util.events.EventDispatcher;
 import util.events.EventHandler;
 import util.events.LoginEvent;
+import util.metrics.Metrics;
 import browserview.BrowserComponent;
 
 import com.google.common.eventbus.EventBus;
@@ -58,6 +62,10 @@ public class UI extends Application implements EventDispatcher {
 
 	private static final double WINDOW_DEFAULT_PROPORTION = 0.6;
 
+	// Where the values of all metrics are written, and how often, in seconds
+	private static final String FILE_METRICS = "metrics.json";
+	private static final long METRICS_REPORT_PERIOD = 60;
+
 	private static final Logger logger = LogManager.getLogger(UI.class.getName());
 	private static HWND mainWindowHandle;
 
@@ -101,6 +109,8 @@ public class UI extends Application implements EventDispatcher {
 		commandLineArgs = initialiseCommandLineArguments();
 		DataManager.getInstance();
 		clearCacheIfNecessary();
+		Metrics.startReporting(FILE_METRICS, METRICS_REPORT_PERIOD, TimeUnit.SECONDS);
+		FxThreadWatchdog.getInstance().start(FxThreadWatchdog.DEFAULT_THRESHOLD);
 
 		repoSelector = createRepoSelector();
 
@@ -172,6 +182,7 @@ public class UI extends Application implements EventDispatcher {
 		mainStage.focusedProperty().addListener(new ChangeListener<Boolean>() {
 			@Override
 			public void changed(ObservableValue<? extends Boolean> unused, Boolean wasFocused, Boolean isFocused) {
+				ServiceManager.getInstance().setWindowFocused(isFocused);
 				if (!isFocused) {
 					return;
 				}
@@ -211,6 +222,9 @@ public class UI extends Application implements EventDispatcher {
 
 	public void quit() {
 		ServiceManager.getInstance().stopModelUpdate();
+		CacheFileHandler.flushWrites();
+		FxThreadWatchdog.getInstance().stop();
+		Metrics.stopReporting();
 		columns.saveSession();
 		DataManager.getInstance().saveLocalConfig();
 		DataManager.getInstance().saveSessionConfig();
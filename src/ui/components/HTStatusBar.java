@@ -3,6 +3,7 @@ package ui.components;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.HBox;
 
 import org.controlsfx.control.StatusBar;
@@ -19,18 +20,25 @@ public class HTStatusBar extends StatusBar {
 	}
 
 	private Label timerLabel = new Label();
+	private Label memoryLabel = new Label();
 
 	public HTStatusBar() {
 		getStyleClass().add("top-borders");
 
 		setupTimerLabel();
-		getRightItems().add(timerLabel);
+		setupMemoryLabel();
+		getRightItems().addAll(memoryLabel, timerLabel);
 	}
 
 	private void setupTimerLabel() {
 		HBox.setMargin(timerLabel, new Insets(3));
 	}
 
+	private void setupMemoryLabel() {
+		HBox.setMargin(memoryLabel, new Insets(3));
+		memoryLabel.setTooltip(new Tooltip());
+	}
+
 	public static void displayMessage(String text) {
 		Platform.runLater(() -> {
 			getInstance().setText(text);
@@ -43,6 +51,18 @@ public class HTStatusBar extends StatusBar {
 		});
 	}
 	
+	/**
+	 * Shows the estimated memory taken up by the repositories loaded.
+	 * @param summary a short summary, shown in the status bar
+	 * @param details a breakdown, shown on hovering over the summary
+	 */
+	public static void updateMemoryUsage(String summary, String details) {
+		Platform.runLater(() -> {
+			getInstance().memoryLabel.setText(summary);
+			getInstance().memoryLabel.getTooltip().setText(details);
+		});
+	}
+
 	public static void addProgress(double increment) {
 		double progress = Math.min(Math.max(0, getInstance().getProgress() + increment), 1);
 		Platform.runLater(() -> {
@@ -0,0 +1,306 @@
+package ui.issuecolumn;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.TurboIssue;
+import filter.ParseException;
+import filter.Parser;
+import filter.expression.FilterExpression;
+
+/**
+ * Evaluates the filters of the saved boards ahead of time, so that opening
+ * a board shows panels which are already evaluated, rather than parsing and
+ * evaluating every filter on the spot.
+ *
+ * Whenever the issues or the boards change, the panels of the boards are
+ * evaluated again against a snapshot of the issues, one panel per step, so
+ * as not to hold up the JavaFX application thread; issues are only changed
+ * on that thread, so they cannot be evaluated on another. Panels which are
+ * not ready yet when a board is opened are evaluated as usual.
+ *
+ * Changes usually come in bursts, and usually concern a few issues, so
+ * requests for updates are coalesced, and updates only evaluate the panels
+ * which the issues that changed may affect. Issues are told apart by their
+ * fingerprints, which cover the fields filters and sort keys refer to, save
+ * descriptions; descriptions only change along with the time the issue was
+ * updated.
+ */
+public class BoardPreloader {
+
+	/**
+	 * A panel evaluated ahead of time: its filter string, and its evaluation
+	 * against a snapshot of the issues.
+	 */
+	public static class Prepared {
+		private final String filterString;
+		private final ObservableList<TurboIssue> issues;
+		private final PanelEvaluation evaluation;
+
+		private Prepared(String filterString, ObservableList<TurboIssue> issues, PanelEvaluation evaluation) {
+			this.filterString = filterString;
+			this.issues = issues;
+			this.evaluation = evaluation;
+		}
+
+		public String getFilterString() {
+			return filterString;
+		}
+
+		/**
+		 * @return the issues of the current repository the panel was evaluated against
+		 */
+		public ObservableList<TurboIssue> getIssues() {
+			return issues;
+		}
+
+		public PanelEvaluation getEvaluation() {
+			return evaluation;
+		}
+	}
+
+	private final Supplier<Collection<List<String>>> boards;
+	private final Supplier<List<TurboIssue>> issues;
+	private final Supplier<String> currentRepoId;
+	private final Consumer<Runnable> scheduler;
+	private final Consumer<Runnable> delayer;
+
+	// The panels ready to be shown, by filter string
+	private final Map<String, Prepared> prepared = new HashMap<>();
+	// The issues the panels of the current round are evaluated against
+	private ObservableList<TurboIssue> snapshot = FXCollections.observableArrayList();
+	// The filter strings of the boards, and the fingerprints of the issues
+	// they refer to, as of the start of the current round
+	private Set<String> filterStrings = new LinkedHashSet<>();
+	private Map<TurboIssue, Integer> fingerprints = new IdentityHashMap<>();
+	// Incremented whenever the issues or the boards change, so that steps scheduled before are dropped
+	private int round = 0;
+	private boolean isUpdateRequested = false;
+
+	/**
+	 * @param boards the filter strings of the panels of each saved board
+	 * @param issues the issues of the current repository
+	 * @param currentRepoId
+	 * @param scheduler runs each step of evaluation
+	 * @param delayer runs requested updates after a while
+	 */
+	public BoardPreloader(Supplier<Collection<List<String>>> boards, Supplier<List<TurboIssue>> issues,
+			Supplier<String> currentRepoId, Consumer<Runnable> scheduler, Consumer<Runnable> delayer) {
+		this.boards = boards;
+		this.issues = issues;
+		this.currentRepoId = currentRepoId;
+		this.scheduler = scheduler;
+		this.delayer = delayer;
+	}
+
+	/**
+	 * Updates the panels after a while, along with any other requests made
+	 * in the meantime. To be called when the issues or the boards change.
+	 */
+	public void requestUpdate() {
+		if (isUpdateRequested) {
+			return;
+		}
+		isUpdateRequested = true;
+		delayer.accept(() -> {
+			isUpdateRequested = false;
+			update();
+		});
+	}
+
+	/**
+	 * Starts evaluating the panels of the boards again, save those which
+	 * cannot have changed. Does nothing if neither the issues nor the
+	 * boards have changed since the last update.
+	 */
+	public void update() {
+		Set<String> currentFilterStrings = new LinkedHashSet<>();
+		boards.get().forEach(currentFilterStrings::addAll);
+		List<TurboIssue> currentIssues = issues.get();
+		Map<TurboIssue, Integer> currentFingerprints = getFingerprints(currentIssues, currentFilterStrings);
+		Set<TurboIssue> changed = getChanged(fingerprints, currentFingerprints);
+		if (changed.isEmpty() && currentFilterStrings.equals(filterStrings)) {
+			return;
+		}
+
+		round++;
+		filterStrings = currentFilterStrings;
+		fingerprints = currentFingerprints;
+		snapshot = FXCollections.observableArrayList(currentIssues);
+
+		Map<String, Prepared> unaffected = new HashMap<>();
+		Deque<String> pending = new ArrayDeque<>();
+		for (String filterString : filterStrings) {
+			Prepared panel = prepared.remove(filterString);
+			if (panel != null && !isAffected(panel, changed)) {
+				// Its matches are the same against the new snapshot
+				unaffected.put(filterString, new Prepared(filterString, snapshot, panel.getEvaluation()));
+			} else {
+				pending.add(filterString);
+			}
+		}
+		// Disposes of the affected panels, and those of boards which are gone
+		clear();
+		prepared.putAll(unaffected);
+		scheduleStep(pending);
+	}
+
+	/**
+	 * Takes the evaluated panel for a filter string, if it is ready. The
+	 * panel is the caller's from then on, and another is evaluated for the
+	 * next time the filter string is asked for.
+	 * @param filterString
+	 * @return the panel
+	 */
+	public Optional<Prepared> take(String filterString) {
+		Prepared panel = prepared.remove(filterString);
+		if (panel == null) {
+			return Optional.empty();
+		}
+		Deque<String> pending = new ArrayDeque<>();
+		pending.add(filterString);
+		scheduleStep(pending);
+		return Optional.of(panel);
+	}
+
+	/**
+	 * @return the number of panels ready to be shown
+	 */
+	public int size() {
+		return prepared.size();
+	}
+
+	/**
+	 * @return the fingerprints of the given issues, and of the issues of the
+	 * other repositories which the filters refer to, by issue
+	 */
+	private Map<TurboIssue, Integer> getFingerprints(List<TurboIssue> issues, Set<String> filterStrings) {
+		Set<String> otherRepoIds = new LinkedHashSet<>();
+		for (String filterString : filterStrings) {
+			try {
+				FilterExpression expression = Parser.parse(filterString);
+				if (expression != null) {
+					otherRepoIds.addAll(PanelEvaluation.getOtherRepoIds(expression, currentRepoId.get()));
+				}
+			} catch (ParseException e) {
+				// Such panels are not prepared
+			}
+		}
+		List<TurboIssue> allIssues = PanelEvaluation.getSource(FXCollections.observableArrayList(issues),
+			new ArrayList<>(otherRepoIds));
+
+		Map<TurboIssue, Integer> result = new IdentityHashMap<>(allIssues.size());
+		for (TurboIssue issue : allIssues) {
+			result.put(issue, fingerprint(issue));
+		}
+		return result;
+	}
+
+	private static int fingerprint(TurboIssue issue) {
+		return Objects.hash(issue.getId(), issue.getTitle(), issue.isOpen(), issue.getCreator(),
+			issue.getCreatedAt(), issue.getUpdatedAt(), issue.getCommentCount(), issue.getParentIssue(),
+			issue.isPullRequest(), issue.getAssignee() == null ? null : issue.getAssignee().getGithubName(),
+			issue.getMilestone() == null ? null : issue.getMilestone().getTitle(),
+			issue.getMilestone() == null ? null : issue.getMilestone().getDueOn(),
+			Arrays.hashCode(issue.getLabelIds()));
+	}
+
+	/**
+	 * @return the issues which have been added, removed or changed
+	 */
+	private static Set<TurboIssue> getChanged(Map<TurboIssue, Integer> before, Map<TurboIssue, Integer> after) {
+		Set<TurboIssue> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+		after.forEach((issue, fingerprint) -> {
+			if (!fingerprint.equals(before.get(issue))) {
+				changed.add(issue);
+			}
+		});
+		before.keySet().stream()
+			.filter(issue -> !after.containsKey(issue))
+			.forEach(changed::add);
+		return changed;
+	}
+
+	/**
+	 * Determines if the changes to the given issues may change what a panel
+	 * shows: if any of them matches its filter, or was among its matches.
+	 * Counts, and filters on the time issues were updated, which is relative
+	 * to the current time, are always taken to be affected.
+	 */
+	private static boolean isAffected(Prepared panel, Set<TurboIssue> changed) {
+		if (changed.isEmpty()) {
+			return false;
+		}
+		PanelEvaluation evaluation = panel.getEvaluation();
+		if (evaluation.getCounts().isPresent()
+			|| evaluation.getExpression().getQualifierNames().contains("updated")) {
+			return true;
+		}
+		for (TurboIssue issue : changed) {
+			if (evaluation.matches(issue)) {
+				return true;
+			}
+		}
+		for (TurboIssue issue : evaluation.getIssues()) {
+			if (changed.contains(issue)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void clear() {
+		prepared.values().forEach(panel -> panel.getEvaluation().dispose());
+		prepared.clear();
+	}
+
+	private void scheduleStep(Deque<String> pending) {
+		if (pending.isEmpty()) {
+			return;
+		}
+		int current = round;
+		scheduler.accept(() -> step(current, pending));
+	}
+
+	private void step(int stepRound, Deque<String> pending) {
+		if (stepRound != round) {
+			return;
+		}
+		prepare(pending.poll());
+		scheduleStep(pending);
+	}
+
+	private void prepare(String filterString) {
+		try {
+			FilterExpression expression = Parser.parse(filterString);
+			if (expression == null) {
+				expression = IssueColumn.EMPTY;
+			}
+			PanelEvaluation evaluation = new PanelEvaluation(expression, scheduler);
+			List<String> otherRepoIds = PanelEvaluation.getOtherRepoIds(expression, currentRepoId.get());
+			evaluation.evaluate(PanelEvaluation.getSource(snapshot, otherRepoIds));
+			Prepared previous = prepared.put(filterString, new Prepared(filterString, snapshot, evaluation));
+			if (previous != null) {
+				previous.getEvaluation().dispose();
+			}
+		} catch (ParseException e) {
+			// The panel shows the error when the board is opened
+		}
+	}
+}
@@ -1,7 +1,7 @@
 package ui.issuecolumn;
 
 import command.TurboCommandExecutor;
-import javafx.application.Platform;
+import javafx.animation.PauseTransition;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -11,11 +11,17 @@ import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.Model;
+import model.TurboIssue;
+import service.ServiceManager;
 import storage.DataManager;
 import ui.UI;
 import ui.components.HTStatusBar;
 import ui.issuepanel.IssuePanel;
+import util.PlatformEx;
+import util.events.BoardSavedEvent;
+import util.events.BoardSavedEventHandler;
 import util.events.ColumnClickedEvent;
 import util.events.ColumnClickedEventHandler;
 import util.events.IssueSelectedEvent;
@@ -24,14 +30,20 @@ import util.events.ModelChangedEvent;
 import util.events.ModelChangedEventHandler;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 
 public class ColumnControl extends HBox {
 
+	// How long changes are collected for before the board preloader is updated
+	private static final int BOARD_PRELOAD_DELAY = 500;
+
 	private final UI ui;
 	private final Stage stage;
 	private final Model model;
@@ -40,6 +52,8 @@ public class ColumnControl extends HBox {
 	private final UIBrowserBridge uiBrowserBridge;
 
 	private TurboCommandExecutor dragAndDropExecutor;
+	// Evaluates the panels of saved boards ahead of time
+	private final BoardPreloader boardPreloader;
 	private Optional<Integer> currentlySelectedColumn = Optional.empty();
 	private final KeyCombination maximizeWindow = new KeyCodeCombination(KeyCode.X, KeyCombination.CONTROL_DOWN);
 	private final KeyCombination minimizeWindow = new KeyCodeCombination(KeyCode.N, KeyCombination.CONTROL_DOWN);
@@ -51,22 +65,44 @@ public class ColumnControl extends HBox {
 		this.model = model;
 		this.dragAndDropExecutor = new TurboCommandExecutor();
 		this.uiBrowserBridge = new UIBrowserBridge(ui);
+		this.boardPreloader = new BoardPreloader(
+			() -> model.getRepoId() == null
+				? Collections.emptyList()
+				: DataManager.getInstance().getAllBoards().values(),
+			model::getIssues,
+			() -> model.getRepoId() == null ? "" : model.getRepoId().generateId(),
+			step -> PlatformEx.runLater("evaluatePanel", step),
+			update -> {
+				PauseTransition delay = new PauseTransition(Duration.millis(BOARD_PRELOAD_DELAY));
+				delay.setOnFinished(e -> update.run());
+				delay.play();
+			});
 		setSpacing(10);
 		setPadding(new Insets(0,10,0,10));
 
 		ui.registerEvent(new ModelChangedEventHandler() {
 			@Override
 			public void handle(ModelChangedEvent e) {
-				Platform.runLater(() -> {
+				// Other models, of repositories panels refer to, also announce
+				// changes; panels get the issues of those from the store
+				PlatformEx.runLater("updatePanels", () -> {
 					forEach(child -> {
 						if (child instanceof IssueColumn) {
-							((IssueColumn) child).setItems(e.issues);
+							((IssueColumn) child).setItems(model.getIssues());
 						}
 					});
+					boardPreloader.requestUpdate();
 				});
 			}
 		});
 
+		ui.registerEvent(new BoardSavedEventHandler() {
+			@Override
+			public void handle(BoardSavedEvent e) {
+				boardPreloader.requestUpdate();
+			}
+		});
+
 		ui.registerEvent(new IssueSelectedEventHandler() {
 			@Override
 			public void handle(IssueSelectedEvent e) {
@@ -107,7 +143,8 @@ public class ColumnControl extends HBox {
 	}
 	
 	/**
-	 * Returns a list of issues to download comments for
+	 * Returns a list of issues to download comments for.
+	 * To be called on the JavaFX thread.
 	 * @return
 	 */
 	public List<Integer> getUpdatedIssues() {
@@ -115,14 +152,38 @@ public class ColumnControl extends HBox {
 		for (Node child : getChildren()) {
 			IssueColumn panel = (IssueColumn) child;
 			if (panel.getCurrentFilterExpression().getQualifierNames().contains("updated")) {
-				panel.getIssueList().stream()
+				// Metadata is only downloaded for the current repository
+				panel.getAllIssues().stream()
+						.filter(issue -> isOfCurrentRepository(issue))
 						.map(issue -> issue.getId()).
 						forEach(issueId -> result.add(issueId));
 			}
 		}
 		return new ArrayList<>(result);
 	}
-	
+
+	/**
+	 * Returns the ids of the issues of the current repository shown in any panel.
+	 * To be called on the JavaFX thread.
+	 * @return
+	 */
+	public Set<Integer> getShownIssues() {
+		HashSet<Integer> result = new HashSet<>();
+		for (Node child : getChildren()) {
+			IssueColumn panel = (IssueColumn) child;
+			for (TurboIssue issue : panel.getAllIssues()) {
+				if (isOfCurrentRepository(issue)) {
+					result.add(issue.getId());
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean isOfCurrentRepository(TurboIssue issue) {
+		return model.getRepoId() != null && model.getRepoId().generateId().equalsIgnoreCase(issue.getRepoId());
+	}
+
 	public void forEach(Consumer<Column> callback) {
 		getChildren().forEach(child -> callback.accept((Column) child));
 	}
@@ -162,16 +223,41 @@ public class ColumnControl extends HBox {
 		// There aren't any children left, so we don't need to update indices
 	}
 	
+	/**
+	 * Opens panels with the given filters, showing those evaluated ahead of
+	 * time by the board preloader where they are ready.
+	 * @param filters
+	 */
 	public void openColumnsWithFilters(List<String> filters) {
 		for (String filter : filters) {
 			IssueColumn column = addColumn();
-			column.filterByString(filter);
+			Optional<BoardPreloader.Prepared> prepared = boardPreloader.take(filter);
+			if (prepared.isPresent()) {
+				column.filterByPrepared(prepared.get());
+			} else {
+				column.filterByString(filter);
+			}
 		}
 	}
 
 	public void closeColumn(int index) {
 		getChildren().remove(index);
 		updateColumnIndices();
+		updatePanelRepositories();
+	}
+
+	/**
+	 * Informs the service manager of the repositories which panels refer to
+	 * besides the current one, so that they are loaded and kept in sync.
+	 */
+	public void updatePanelRepositories() {
+		Set<String> repoIds = new LinkedHashSet<>();
+		forEach(child -> {
+			if (child instanceof IssueColumn) {
+				repoIds.addAll(((IssueColumn) child).getOtherRepoIds());
+			}
+		});
+		ServiceManager.getInstance().setPanelRepositories(repoIds);
 	}
 
 	private void updateColumnIndices() {
@@ -2,14 +2,13 @@ package ui.issuecolumn;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.collections.transformation.TransformationList;
 import javafx.geometry.Insets;
@@ -32,8 +31,10 @@ import ui.UI;
 import ui.components.FilterTextField;
 import ui.components.HTStatusBar;
 import util.events.ColumnClickedEvent;
+import util.metrics.Metrics;
 import command.CommandType;
 import command.TurboCommandExecutor;
+import filter.IssueCounter;
 import filter.ParseException;
 import filter.Parser;
 import filter.QualifierApplicationException;
@@ -59,8 +60,12 @@ public abstract class IssueColumn extends Column {
 
 	private TransformationList<TurboIssue, TurboIssue> transformedIssueList = null;
 	public static final FilterExpression EMPTY = filter.expression.Qualifier.EMPTY;
-	private Predicate<TurboIssue> predicate = p -> true;
 	private FilterExpression currentFilterExpression = EMPTY;
+	private PanelEvaluation evaluation = new PanelEvaluation(EMPTY);
+	// Evaluated ahead of time, to be shown once its filter string is confirmed
+	private Optional<BoardPreloader.Prepared> prepared = Optional.empty();
+	// Set when the evaluation is already up to date for the next refresh
+	private boolean isEvaluated = false;
 	protected FilterTextField filterTextField;
 	private UI ui;
 
@@ -254,6 +259,14 @@ public abstract class IssueColumn extends Column {
 	// area won't update.
 
 	private void applyStringFilter(String filterString) {
+		if (prepared.isPresent() && prepared.get().getFilterString().equals(filterString)) {
+			applyPrepared(prepared.get());
+			prepared = Optional.empty();
+			HTStatusBar.displayMessage("");
+			return;
+		}
+		prepared.ifPresent(p -> p.getEvaluation().dispose());
+		prepared = Optional.empty();
 		try {
 			FilterExpression filter = Parser.parse(filterString);
 			if (filter != null) {
@@ -273,9 +286,22 @@ public abstract class IssueColumn extends Column {
 	}
 
 	private void applyFilterExpression(FilterExpression filter) {
+		PanelEvaluation next = new PanelEvaluation(filter);
+		evaluation.dispose();
+		evaluation = next;
 		currentFilterExpression = filter;
-		predicate = issue -> Qualifier.process(filter, issue);
 		refreshItems();
+		parentColumnControl.updatePanelRepositories();
+	}
+
+	private void applyPrepared(BoardPreloader.Prepared prepared) {
+		evaluation.dispose();
+		evaluation = prepared.getEvaluation();
+		currentFilterExpression = evaluation.getExpression();
+		issues = prepared.getIssues();
+		isEvaluated = true;
+		refreshItems();
+		parentColumnControl.updatePanelRepositories();
 	}
 
 	// An odd workaround for the above problem: serialising, then
@@ -291,6 +317,16 @@ public abstract class IssueColumn extends Column {
 		filterTextField.setFilterText(filterString);
 	}
 
+	/**
+	 * Shows a panel evaluated ahead of time, along with its filter string,
+	 * without evaluating it again.
+	 * @param prepared
+	 */
+	public void filterByPrepared(BoardPreloader.Prepared prepared) {
+		this.prepared = Optional.of(prepared);
+		filterByString(prepared.getFilterString());
+	}
+
 	public FilterExpression getCurrentFilterExpression() {
 		return currentFilterExpression;
 	}
@@ -319,10 +355,38 @@ public abstract class IssueColumn extends Column {
 		}
 	}
 	
+	/**
+	 * @return the repositories besides the current one which the filter refers to
+	 */
+	public List<String> getOtherRepoIds() {
+		String current = model.getRepoId() == null ? "" : model.getRepoId().generateId();
+		return PanelEvaluation.getOtherRepoIds(currentFilterExpression, current);
+	}
+
+	/**
+	 * @return the issues shown, which may only be the first of the matches
+	 * while the rest are still being evaluated
+	 */
 	public TransformationList<TurboIssue, TurboIssue> getIssueList() {
 		return transformedIssueList;
 	}
 
+	/**
+	 * Evaluates the rest of the filter at once, if need be.
+	 * @return every issue which matches the filter
+	 */
+	public TransformationList<TurboIssue, TurboIssue> getAllIssues() {
+		evaluation.complete();
+		return transformedIssueList;
+	}
+
+	/**
+	 * @return the counts shown instead of issues, if the filter has a count qualifier
+	 */
+	public Optional<IssueCounter.Counts> getCounts() {
+		return evaluation.getCounts();
+	}
+
 	public void setItems(List<TurboIssue> items) {
 		this.issues = FXCollections.observableArrayList(items);
 		refreshItems();
@@ -339,7 +403,17 @@ public abstract class IssueColumn extends Column {
 
 	@Override
 	public void refreshItems() {
-		transformedIssueList = new FilteredList<TurboIssue>(issues, predicate);
+		// Only the first page of matches is evaluated here; see PagedIssueList
+		long start = System.nanoTime();
+		if (isEvaluated) {
+			isEvaluated = false;
+		} else {
+			evaluation.evaluate(PanelEvaluation.getSource(issues, getOtherRepoIds()));
+		}
+		transformedIssueList = evaluation.getIssues();
+		long duration = System.nanoTime() - start;
+		Metrics.timer("filter.panels").update(duration);
+		Metrics.timer("filter.panel" + (columnIndex + 1)).update(duration);
 
 		// If parent issue, sort child issues by depth
 		if (currentFilterExpression instanceof filter.expression.Qualifier) {
@@ -0,0 +1,199 @@
+package ui.issuecolumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+import model.TurboIssue;
+import util.metrics.Metrics;
+
+/**
+ * The issues of a source list which match a predicate, like a FilteredList,
+ * but evaluated a page at a time.
+ *
+ * Only enough issues to fill a panel, and a margin to scroll into, are
+ * matched when the list is created, so that a panel of thousands of issues
+ * shows up as quickly as one of a few. The rest of the source is matched in
+ * short steps run later, each of which adds the issues it finds to the end
+ * of the list, until the list holds every match and its size is the total
+ * count. Matches are kept as positions in the source, along with references
+ * to the issues, which are needed to report their removal once the source
+ * has changed; the list view creates cards just for the issues it shows.
+ *
+ * The list only ever holds the matches found so far: its size, iteration
+ * and lookups never evaluate issues which have not been reached yet.
+ */
+public class PagedIssueList extends TransformationList<TurboIssue, TurboIssue> {
+
+	// A screenful of cards, and a margin to scroll into
+	public static final int FIRST_PAGE = 50;
+
+	// How long each later step may take up the JavaFX application thread
+	private static final long STEP_DURATION = TimeUnit.MILLISECONDS.toNanos(4);
+
+	// How many issues are evaluated between checks of the time
+	private static final int STEP_CHECK_INTERVAL = 64;
+
+	private final Predicate<TurboIssue> predicate;
+	private final Consumer<Runnable> scheduler;
+
+	// The positions in the source of the matches found so far, and the matches themselves
+	private int[] matches = new int[FIRST_PAGE];
+	private TurboIssue[] matched = new TurboIssue[FIRST_PAGE];
+	private int size = 0;
+	// How much of the source has been evaluated
+	private int evaluated = 0;
+
+	// Incremented when evaluation starts over, so that steps scheduled before are dropped
+	private int generation = 0;
+	private boolean isDisposed = false;
+
+	/**
+	 * @param source
+	 * @param predicate
+	 * @param scheduler runs each later step of evaluation
+	 */
+	public PagedIssueList(ObservableList<TurboIssue> source, Predicate<TurboIssue> predicate,
+			Consumer<Runnable> scheduler) {
+		super(source);
+		this.predicate = predicate;
+		this.scheduler = scheduler;
+		evaluate(FIRST_PAGE, Long.MAX_VALUE);
+		scheduleStep();
+	}
+
+	/**
+	 * @return true if the whole source has been evaluated, and so the size
+	 * of the list is the number of matches
+	 */
+	public boolean isComplete() {
+		return evaluated == getSource().size();
+	}
+
+	/**
+	 * Evaluates the rest of the source at once, so that the list holds every
+	 * match. For when all the matches are needed rather than just those shown.
+	 */
+	public void complete() {
+		if (isComplete()) {
+			return;
+		}
+		int from = size;
+		evaluate(Integer.MAX_VALUE, Long.MAX_VALUE);
+		if (size > from) {
+			beginChange();
+			nextAdd(from, size);
+			endChange();
+		}
+	}
+
+	/**
+	 * Stops evaluating the rest of the source. To be called when the list is
+	 * no longer shown; it no longer follows changes to the source either.
+	 */
+	public void dispose() {
+		isDisposed = true;
+	}
+
+	@Override
+	public TurboIssue get(int index) {
+		checkIndex(index);
+		return matched[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getSourceIndex(int index) {
+		checkIndex(index);
+		return matches[index];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	protected void sourceChanged(ListChangeListener.Change<? extends TurboIssue> change) {
+		if (isDisposed) {
+			return;
+		}
+		// Panels replace their sources rather than change them, so start over.
+		// The source has already changed, so the matches are taken from the
+		// issues kept rather than from their positions.
+		List<TurboIssue> removed = new ArrayList<>(Arrays.asList(matched).subList(0, size));
+		Arrays.fill(matched, 0, size, null);
+		generation++;
+		size = 0;
+		evaluated = 0;
+		evaluate(FIRST_PAGE, Long.MAX_VALUE);
+
+		beginChange();
+		if (!removed.isEmpty()) {
+			nextRemove(0, removed);
+		}
+		if (size > 0) {
+			nextAdd(0, size);
+		}
+		endChange();
+		scheduleStep();
+	}
+
+	/**
+	 * Evaluates the source from where the last call left off, until the list
+	 * holds the given number of matches, or the deadline passes.
+	 */
+	private void evaluate(int limit, long deadline) {
+		List<? extends TurboIssue> source = getSource();
+		int count = 0;
+		while (evaluated < source.size() && size < limit) {
+			if (predicate.test(source.get(evaluated))) {
+				if (size == matches.length) {
+					matches = Arrays.copyOf(matches, matches.length * 2);
+					matched = Arrays.copyOf(matched, matched.length * 2);
+				}
+				matches[size] = evaluated;
+				matched[size++] = source.get(evaluated);
+			}
+			evaluated++;
+			if (++count % STEP_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+				break;
+			}
+		}
+	}
+
+	private void scheduleStep() {
+		if (isComplete()) {
+			return;
+		}
+		int current = generation;
+		scheduler.accept(() -> step(current));
+	}
+
+	private void step(int stepGeneration) {
+		if (isDisposed || stepGeneration != generation) {
+			return;
+		}
+		long start = System.nanoTime();
+		int from = size;
+		evaluate(Integer.MAX_VALUE, start + STEP_DURATION);
+		Metrics.timer("filter.panelSteps").update(System.nanoTime() - start);
+		if (size > from) {
+			beginChange();
+			nextAdd(from, size);
+			endChange();
+		}
+		scheduleStep();
+	}
+}
@@ -0,0 +1,164 @@
+package ui.issuecolumn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.TransformationList;
+import model.TurboIssue;
+import service.MultiRepositoryStore;
+import service.ServiceManager;
+import util.CollectionUtilities;
+import util.PlatformEx;
+import util.metrics.Metrics;
+import filter.IssueCounter;
+import filter.IssueSorter;
+import filter.ParseException;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * What a panel shows for a filter expression: the issues which match it,
+ * in order if it has sort qualifiers, or their counts if it has a count
+ * qualifier.
+ *
+ * Panels evaluate their filters through this class, and so can
+ * {@link BoardPreloader}, ahead of time, for panels which do not exist yet.
+ */
+public class PanelEvaluation {
+
+	private final FilterExpression expression;
+	private final Predicate<TurboIssue> predicate;
+	private final Optional<IssueSorter> sorter;
+	private final Optional<IssueCounter> counter;
+	private final Consumer<Runnable> scheduler;
+
+	private TransformationList<TurboIssue, TurboIssue> issues = new FilteredList<>(FXCollections.observableArrayList());
+	private Optional<IssueCounter.Counts> counts = Optional.empty();
+
+	/**
+	 * @param expression
+	 * @throws ParseException if the sort or count qualifiers of the expression are malformed
+	 */
+	public PanelEvaluation(FilterExpression expression) {
+		this(expression, step -> PlatformEx.runLater("evaluatePanel", step));
+	}
+
+	/**
+	 * @param expression
+	 * @param scheduler runs the later steps of evaluating unsorted panels; see {@link PagedIssueList}
+	 * @throws ParseException if the sort or count qualifiers of the expression are malformed
+	 */
+	public PanelEvaluation(FilterExpression expression, Consumer<Runnable> scheduler) {
+		this.expression = expression;
+		this.predicate = issue -> Qualifier.process(expression, issue);
+		this.sorter = IssueSorter.of(expression);
+		this.counter = IssueCounter.of(expression);
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Evaluates the expression against the given issues, replacing the result
+	 * of the last call. Only the first page of matches of unsorted panels is
+	 * evaluated before this returns.
+	 * @param source
+	 */
+	public void evaluate(ObservableList<TurboIssue> source) {
+		dispose();
+		counts = Optional.empty();
+		if (counter.isPresent()) {
+			// Only the counts are shown, so no list of matches is needed
+			counts = Optional.of(Metrics.timer("count.panels").time(() -> counter.get().count(source, predicate)));
+			issues = new FilteredList<TurboIssue>(FXCollections.observableArrayList());
+		} else if (sorter.isPresent()) {
+			// The first issues in order may be anywhere in the source, so every match is needed
+			List<TurboIssue> matches = source.stream()
+				.filter(predicate)
+				.collect(Collectors.toList());
+			List<TurboIssue> items = Metrics.timer("sort.panels").time(() -> sorter.get().sort(matches));
+			issues = new FilteredList<TurboIssue>(FXCollections.observableArrayList(items));
+		} else {
+			issues = new PagedIssueList(source, predicate, scheduler);
+		}
+	}
+
+	/**
+	 * Evaluates the rest of the issues of the last call at once, if any are left.
+	 */
+	public void complete() {
+		if (issues instanceof PagedIssueList) {
+			((PagedIssueList) issues).complete();
+		}
+	}
+
+	/**
+	 * Stops evaluating the rest of the issues of the last call, if any.
+	 */
+	public void dispose() {
+		if (issues instanceof PagedIssueList) {
+			((PagedIssueList) issues).dispose();
+		}
+	}
+
+	/**
+	 * @param issue
+	 * @return true if the issue matches the expression, as it is now
+	 */
+	public boolean matches(TurboIssue issue) {
+		return predicate.test(issue);
+	}
+
+	public FilterExpression getExpression() {
+		return expression;
+	}
+
+	/**
+	 * @return the issues shown, from the last call to evaluate
+	 */
+	public TransformationList<TurboIssue, TurboIssue> getIssues() {
+		return issues;
+	}
+
+	/**
+	 * @return the counts shown instead of issues, if the expression has a count qualifier
+	 */
+	public Optional<IssueCounter.Counts> getCounts() {
+		return counts;
+	}
+
+	/**
+	 * @param expression
+	 * @param currentRepoId
+	 * @return the repositories besides the current one which the expression refers to
+	 */
+	public static List<String> getOtherRepoIds(FilterExpression expression, String currentRepoId) {
+		return Qualifier.getRepoIds(expression).stream()
+			.filter(repoId -> !repoId.equalsIgnoreCase(currentRepoId))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * @param issues the issues of the current repository
+	 * @param otherRepoIds
+	 * @return the given issues, followed by those of the other repositories, if any
+	 */
+	public static ObservableList<TurboIssue> getSource(ObservableList<TurboIssue> issues, List<String> otherRepoIds) {
+		if (otherRepoIds.isEmpty()) {
+			return issues;
+		}
+		// Filter the issues of all the repositories as one list
+		List<List<TurboIssue>> sources = new ArrayList<>();
+		sources.add(issues);
+		MultiRepositoryStore store = ServiceManager.getInstance().getMultiRepositoryStore();
+		for (String repoId : otherRepoIds) {
+			sources.add(store.getIssues(repoId));
+		}
+		return FXCollections.observableArrayList(CollectionUtilities.concatenate(sources));
+	}
+}
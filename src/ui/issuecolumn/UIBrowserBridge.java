@@ -29,7 +29,7 @@ public class UIBrowserBridge {
 		this.ui = ui;
 		ui.registerEvent(new IssueSelectedEventHandler() {
 			@Override public void handle(IssueSelectedEvent e) {
-				ui.getBrowserComponent().showIssue(e.id);
+				ui.getBrowserComponent().showIssue(e.repoId, e.id);
 			}
 		});
 		ui.registerEvent(new IssueCreatedEventHandler() {
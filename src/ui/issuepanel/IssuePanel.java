@@ -3,8 +3,14 @@ package ui.issuepanel;
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import javafx.collections.ListChangeListener;
 import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.input.KeyCode;
@@ -12,6 +18,8 @@ import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.util.Callback;
 import model.Model;
@@ -24,6 +32,7 @@ import ui.issuecolumn.IssueColumn;
 import util.KeyPress;
 import util.events.IssueSelectedEvent;
 import command.TurboCommandExecutor;
+import filter.IssueCounter;
 
 public class IssuePanel extends IssueColumn {
 
@@ -31,6 +40,8 @@ public class IssuePanel extends IssueColumn {
 	private final UI ui;
 
 	private NavigableListView<TurboIssue> listView;
+	// Shown instead of the list view when the filter counts issues
+	private final VBox summary = new VBox();
 	private final KeyCombination keyCombBoxToList = new KeyCodeCombination(KeyCode.DOWN, KeyCombination.CONTROL_DOWN);
 	private final KeyCombination keyCombListToBox = new KeyCodeCombination(KeyCode.UP, KeyCombination.CONTROL_DOWN);
 	private HashMap<Integer, Integer> issueCommentCounts = new HashMap<>();;
@@ -42,7 +53,8 @@ public class IssuePanel extends IssueColumn {
 
 		listView = new NavigableListView<>();
 		setupListView();
-		getChildren().add(listView);
+		setupSummary();
+		getChildren().addAll(listView, summary);
 
 		refreshItems();
 	}
@@ -65,13 +77,13 @@ public class IssuePanel extends IssueColumn {
 	}
 
 	/**
-	 * Updates {@link #issueCommentCounts} with the latest counts.
-	 * Returns a list of issues which have new comments.
-	 * @return
+	 * Updates {@link #issueCommentCounts} with the latest counts of the
+	 * given issues, and adds those which have new comments to the result.
+	 * @param issues
+	 * @param result
 	 */
-	private HashSet<Integer> updateIssueCommentCounts() {
-		HashSet<Integer> result = new HashSet<>();
-		for (TurboIssue issue : getIssueList()) {
+	private void updateIssueCommentCounts(List<? extends TurboIssue> issues, Set<Integer> result) {
+		for (TurboIssue issue : issues) {
 			if (issueCommentCounts.containsKey(issue.getId())) {
 				// We know about this issue; check if it's been updated
 				if (issueHasNewComments(issue)) {
@@ -82,15 +94,28 @@ public class IssuePanel extends IssueColumn {
 				issueCommentCounts.put(issue.getId(), issue.getCommentCount());
 			}
 		}
-		return result;
 	}
 
 	@Override
 	public void refreshItems() {
 		super.refreshItems();
+		Optional<IssueCounter.Counts> counts = getCounts();
+		showSummary(counts.isPresent());
+		if (counts.isPresent()) {
+			updateSummary(counts.get());
+		}
 		WeakReference<IssuePanel> that = new WeakReference<IssuePanel>(this);
 		
-		final HashSet<Integer> issuesWithNewComments = updateIssueCommentCounts();
+		final HashSet<Integer> issuesWithNewComments = new HashSet<>();
+		updateIssueCommentCounts(getIssueList(), issuesWithNewComments);
+		// The rest of the matches are added as they are evaluated; see PagedIssueList
+		getIssueList().addListener((ListChangeListener<TurboIssue>) change -> {
+			while (change.next()) {
+				if (change.wasAdded()) {
+					updateIssueCommentCounts(change.getAddedSubList(), issuesWithNewComments);
+				}
+			}
+		});
 		
 		// Set the cell factory every time - this forces the list view to update
 		listView.setCellFactory(new Callback<ListView<TurboIssue>, ListCell<TurboIssue>>() {
@@ -114,12 +139,45 @@ public class IssuePanel extends IssueColumn {
 		listView.restoreSelection();
 	}
 
+	private void setupSummary() {
+		summary.setSpacing(3);
+		summary.setPadding(new Insets(5));
+		showSummary(false);
+	}
+
+	private void showSummary(boolean isShown) {
+		listView.setVisible(!isShown);
+		listView.setManaged(!isShown);
+		summary.setVisible(isShown);
+		summary.setManaged(isShown);
+	}
+
+	/**
+	 * Lists the counts in place of issue cards: the number of matches, then
+	 * the number in each group, largest first.
+	 */
+	private void updateSummary(IssueCounter.Counts counts) {
+		summary.getChildren().clear();
+		Text total = new Text(counts.getTotal() + (counts.getTotal() == 1 ? " issue" : " issues"));
+		total.getStyleClass().add("issue-panel-name");
+		summary.getChildren().add(total);
+		counts.getGroups().forEach((group, count) ->
+			summary.getChildren().add(new Label(group + ": " + count)));
+		if (counts.getUngrouped() > 0 && !counts.getKey().equals("total")) {
+			String none = counts.getKey().equals("assignee") || counts.getKey().equals("milestone")
+				? "No " + counts.getKey()
+				: "No " + counts.getKey() + " label";
+			summary.getChildren().add(new Label(none + ": " + counts.getUngrouped()));
+		}
+	}
+
 	private void setupListView() {
 		setVgrow(listView, Priority.ALWAYS);
 		setupKeyboardShortcuts();
 		listView.setOnItemSelected(i -> {
 			TurboIssue issue = listView.getItems().get(i);
-			ui.triggerEvent(new IssueSelectedEvent(issue.getId(), columnIndex));
+			// The issue may belong to another repository, in a cross-repository panel
+			ui.triggerEvent(new IssueSelectedEvent(issue.getRepoId(), issue.getId(), columnIndex));
 			if (issueHasNewComments(issue)) {
 				issueCommentCounts.put(issue.getId(), issue.getCommentCount());
 				refreshItems();
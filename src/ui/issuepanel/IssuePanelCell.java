@@ -48,6 +48,17 @@ public class IssuePanelCell extends ListCell<TurboIssue> {
 	}
 
 	private void registerDragEvents(TurboIssue issue) {
+		// Issues of other repositories, shown by cross-repository panels, are
+		// not dragged or dropped onto; the commands involved act on the current one
+		if (!isOfCurrentRepository(issue)) {
+			setOnDragDetected(null);
+			setOnDragOver(null);
+			setOnDragEntered(null);
+			setOnDragExited(null);
+			setOnDragDropped(null);
+			return;
+		}
+
 		setOnDragDetected((event) -> {
 			Dragboard db = startDragAndDrop(TransferMode.MOVE);
 			ClipboardContent content = new ClipboardContent();
@@ -109,4 +120,8 @@ public class IssuePanelCell extends ListCell<TurboIssue> {
 			e.consume();
 		});
 	}
+
+	private boolean isOfCurrentRepository(TurboIssue issue) {
+		return model.getRepoId() != null && model.getRepoId().generateId().equalsIgnoreCase(issue.getRepoId());
+	}
 }
@@ -1,8 +1,10 @@
 package util;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -84,6 +86,42 @@ public class CollectionUtilities {
 		return githubLabels;
 	}
 	
+	/**
+	 * Joins lists end to end without copying them. The result is a read-only
+	 * view, which reflects later changes to the lists.
+	 *
+	 * @param lists
+	 * @return the elements of all the lists, in order
+	 */
+	public static <T> List<T> concatenate(List<? extends List<? extends T>> lists) {
+		return new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				if (index >= 0) {
+					int remaining = index;
+					for (List<? extends T> list : lists) {
+						if (remaining < list.size()) {
+							return list.get(remaining);
+						}
+						remaining -= list.size();
+					}
+				}
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			@Override
+			public Iterator<T> iterator() {
+				// Walks each list in turn, rather than looking every index up from the start
+				return lists.stream().<T>flatMap(List::stream).iterator();
+			}
+
+			@Override
+			public int size() {
+				return lists.stream().mapToInt(List::size).sum();
+			}
+		};
+	}
+
 	public static List<TurboLabel> deepCopyLabels(List<TurboLabel> labels) {
 	    return labels.stream().map(l -> new TurboLabel(l)).collect(Collectors.toList());
 	}
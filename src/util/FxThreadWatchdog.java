@@ -0,0 +1,224 @@
+package util;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javafx.application.Platform;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import util.metrics.Metrics;
+
+/**
+ * Watches the JavaFX application thread for stalls: any stretch of time in
+ * which it does not get around to running queued tasks, which the user sees
+ * as the UI freezing.
+ *
+ * While running, the watchdog regularly queues a heartbeat task on the JavaFX
+ * thread. If a heartbeat has waited longer than the threshold, the thread is
+ * stalled; its stack is sampled and logged, along with the task it is
+ * running, if that task was submitted through {@link PlatformEx}. Tasks
+ * submitted through PlatformEx remember where they were submitted from, so
+ * that a slow task can be traced back to its call site. Each stall is logged
+ * once, and counted under fx.stalls in {@link Metrics}.
+ */
+public class FxThreadWatchdog {
+
+	private static final Logger logger = LogManager.getLogger(FxThreadWatchdog.class.getName());
+
+	public static final long DEFAULT_THRESHOLD = 500; // in milliseconds
+	private static final long CHECK_PERIOD = 100; // in milliseconds
+
+	// The number of frames of a call site which are logged
+	private static final int CALL_SITE_DEPTH = 4;
+
+	private static final FxThreadWatchdog instance = new FxThreadWatchdog();
+
+	public static FxThreadWatchdog getInstance() {
+		return instance;
+	}
+
+	private volatile boolean running = false;
+	private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD);
+	private ScheduledExecutorService checker = null;
+
+	private volatile Thread fxThread = null;
+
+	// The task being run on the JavaFX thread, if it was submitted through PlatformEx
+	private volatile Task currentTask = null;
+
+	// When the heartbeat waiting to run was queued, or -1 if there is none
+	private final AtomicLong heartbeatQueued = new AtomicLong(-1);
+	// Whether the current stall has already been logged
+	private volatile boolean stallReported = false;
+
+	private FxThreadWatchdog() {
+	}
+
+	/**
+	 * Starts watching the JavaFX thread.
+	 * @param thresholdMillis how long the thread may go without running queued tasks
+	 */
+	public synchronized void start(long thresholdMillis) {
+		if (running) {
+			return;
+		}
+		thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		heartbeatQueued.set(-1);
+		checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "FX Thread Watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checker.scheduleAtFixedRate(this::check, CHECK_PERIOD, CHECK_PERIOD, TimeUnit.MILLISECONDS);
+		running = true;
+	}
+
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		checker.shutdownNow();
+		checker = null;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Called when a task is about to be submitted to the JavaFX thread.
+	 * @param name names the kind of task; may be null
+	 * @return the task, which remembers where it was submitted from if the
+	 * watchdog is running
+	 */
+	Task submitted(String name) {
+		// Creating the throwable captures the stack; it is only decoded if needed
+		return new Task(name, System.nanoTime(), running ? new Throwable() : null);
+	}
+
+	/**
+	 * Called on the JavaFX thread when a task starts running.
+	 * @param task
+	 */
+	void started(Task task) {
+		fxThread = Thread.currentThread();
+		task.started = System.nanoTime();
+		currentTask = task;
+	}
+
+	/**
+	 * Called on the JavaFX thread when a task is done.
+	 * @param task
+	 * @return the time the task took, in nanoseconds
+	 */
+	long finished(Task task) {
+		currentTask = null;
+		long duration = System.nanoTime() - task.started;
+		if (running && duration > thresholdNanos) {
+			logger.warn(String.format("FX thread task %stook %d ms; submitted from %s",
+				task.name == null ? "" : task.name + " ", TimeUnit.NANOSECONDS.toMillis(duration),
+				task.getCallSite()));
+		}
+		return duration;
+	}
+
+	/**
+	 * Runs on the watchdog thread.
+	 */
+	private void check() {
+		try {
+			long now = System.nanoTime();
+			long queued = heartbeatQueued.get();
+			if (queued < 0) {
+				heartbeatQueued.set(now);
+				Platform.runLater(this::heartbeat);
+			} else if (now - queued > thresholdNanos && !stallReported) {
+				stallReported = true;
+				reportStall(now - queued);
+			}
+		} catch (RuntimeException e) {
+			// Keep the watchdog going; an exception would cancel it
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Runs on the JavaFX thread.
+	 */
+	private void heartbeat() {
+		fxThread = Thread.currentThread();
+		long queued = heartbeatQueued.getAndSet(-1);
+		if (stallReported) {
+			stallReported = false;
+			logger.warn(String.format("FX thread stall ended after %d ms",
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queued)));
+		}
+	}
+
+	private void reportStall(long stalledNanos) {
+		Metrics.counter("fx.stalls").increment();
+
+		StringBuilder message = new StringBuilder(String.format("FX thread stalled for %d ms",
+			TimeUnit.NANOSECONDS.toMillis(stalledNanos)));
+		Task task = currentTask;
+		if (task != null) {
+			message.append(String.format(", running task %ssubmitted from %s",
+				task.name == null ? "" : task.name + " ", task.getCallSite()));
+		}
+
+		Thread thread = fxThread;
+		if (thread != null) {
+			message.append("; stack:");
+			for (StackTraceElement frame : thread.getStackTrace()) {
+				message.append(System.lineSeparator()).append("\tat ").append(frame);
+			}
+		}
+		logger.warn(message.toString());
+	}
+
+	/**
+	 * A task submitted to the JavaFX thread.
+	 */
+	static class Task {
+		private final String name;
+		private final long submitted;
+		private final Throwable origin;
+		private volatile long started;
+
+		private Task(String name, long submitted, Throwable origin) {
+			this.name = name;
+			this.submitted = submitted;
+			this.origin = origin;
+		}
+
+		/**
+		 * @return how long the task waited to run, in nanoseconds
+		 */
+		long getQueueDelay() {
+			return started - submitted;
+		}
+
+		/**
+		 * @return the innermost frames of where the task was submitted from,
+		 * leaving out the frames of PlatformEx and the watchdog
+		 */
+		String getCallSite() {
+			if (origin == null) {
+				return "an unknown call site";
+			}
+			return Arrays.stream(origin.getStackTrace())
+				.filter(frame -> !frame.getClassName().equals(PlatformEx.class.getName())
+					&& !frame.getClassName().equals(FxThreadWatchdog.class.getName()))
+				.limit(CALL_SITE_DEPTH)
+				.map(StackTraceElement::toString)
+				.collect(Collectors.joining(" <- "));
+		}
+	}
+}
@@ -22,6 +22,17 @@ public class GitHubURL {
 	public static String getPathForIssue(int id) {
 		return String.format("https://github.com/%s/%s/issues/%d", ServiceManager.getInstance().getRepoOwner(), ServiceManager.getInstance().getRepoName(), id);
 	}
+
+	/**
+	 * @param repoId the repository the issue belongs to, as owner/name, or null for the current one
+	 * @param id
+	 */
+	public static String getPathForIssue(String repoId, int id) {
+		if (repoId == null) {
+			return getPathForIssue(id);
+		}
+		return String.format("https://github.com/%s/issues/%d", repoId, id);
+	}
 	
 	public static String getPathForNewIssue() {
 		return String.format("https://github.com/%s/%s/issues/new", ServiceManager.getInstance().getRepoOwner(), ServiceManager.getInstance().getRepoName());
@@ -8,11 +8,19 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import util.metrics.Metrics;
+
 /**
  * Extensions to JavaFX's Platform class.
  *
  * Contains utility methods for running code in various ways,
  * on or off (but close to) the JavaFX application thread.
+ *
+ * Tasks submitted to the JavaFX application thread through this class are
+ * timed: how long each waited in the queue is recorded under fx.queueDelay,
+ * and how long it ran under fx.tasks, in {@link Metrics}. They are also
+ * tracked by the {@link FxThreadWatchdog}, so that slow tasks are reported
+ * along with where they came from.
  */
 public class PlatformEx {
 
@@ -20,6 +28,39 @@ public class PlatformEx {
 
 	private static final ExecutorService delayExecutor = Executors.newSingleThreadExecutor();
 
+	/**
+	 * Platform.runLater, with the task timed.
+	 * @param action
+	 */
+	public static void runLater(Runnable action) {
+		runLater(null, action);
+	}
+
+	/**
+	 * Platform.runLater, with the task timed. Its duration is additionally
+	 * recorded under fx.tasks.[name], to tell apart the tasks which occupy
+	 * the JavaFX application thread the most.
+	 * @param name names the kind of task; may be null
+	 * @param action
+	 */
+	public static void runLater(String name, Runnable action) {
+		FxThreadWatchdog watchdog = FxThreadWatchdog.getInstance();
+		FxThreadWatchdog.Task task = watchdog.submitted(name);
+		Platform.runLater(() -> {
+			watchdog.started(task);
+			Metrics.timer("fx.queueDelay").update(task.getQueueDelay());
+			try {
+				action.run();
+			} finally {
+				long duration = watchdog.finished(task);
+				Metrics.timer("fx.tasks").update(duration);
+				if (name != null) {
+					Metrics.timer("fx.tasks." + name).update(duration);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Similar to Platform.runLater, but with a small delay, so UI updates have time to propagate.
 	 * @param action
@@ -31,7 +72,7 @@ public class PlatformEx {
 			} catch (InterruptedException e) {
 				assert false;
 			}
-			Platform.runLater(action);
+			runLater(action);
 		});
 	}
 
@@ -51,8 +92,9 @@ public class PlatformEx {
 			return;
 		}
 
+		long start = System.nanoTime();
 		CountDownLatch latch = new CountDownLatch(1);
-		Platform.runLater(() -> {
+		runLater(() -> {
 			action.run();
 			latch.countDown();
 		});
@@ -61,5 +103,7 @@ public class PlatformEx {
 		} catch (InterruptedException e) {
 			logger.error(e.getLocalizedMessage(), e);
 		}
+		// The time the calling thread was blocked for
+		Metrics.timer("fx.runAndWait").update(System.nanoTime() - start);
 	}
 }
@@ -1,10 +1,17 @@
 package util.events;
 
 public class IssueSelectedEvent extends Event {
+	// The repository the issue belongs to, or null if it is the current one
+	public String repoId;
 	public int id;
 	public int columnIndex;
 	
 	public IssueSelectedEvent(int id, int columnIndex) {
+		this(null, id, columnIndex);
+	}
+
+	public IssueSelectedEvent(String repoId, int id, int columnIndex) {
+		this.repoId = repoId;
 		this.id = id;
 		this.columnIndex = columnIndex;
 	}
@@ -0,0 +1,33 @@
+package util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of events, or a running total of some quantity.
+ */
+public class Counter implements Metric, CounterMXBean {
+
+	private final LongAdder count = new LongAdder();
+
+	public void increment() {
+		count.increment();
+	}
+
+	public void increment(long amount) {
+		count.add(amount);
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("count", getCount());
+		return values;
+	}
+}
@@ -0,0 +1,8 @@
+package util.metrics;
+
+/**
+ * How a {@link Counter} appears over JMX.
+ */
+public interface CounterMXBean {
+	long getCount();
+}
@@ -0,0 +1,29 @@
+package util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The current level of some quantity, such as the memory taken up by
+ * something, which is set whenever it is measured.
+ */
+public class Gauge implements Metric, GaugeMXBean {
+
+	private volatile long value = 0;
+
+	public void set(long value) {
+		this.value = value;
+	}
+
+	@Override
+	public long getValue() {
+		return value;
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("value", getValue());
+		return values;
+	}
+}
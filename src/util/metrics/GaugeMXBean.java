@@ -0,0 +1,8 @@
+package util.metrics;
+
+/**
+ * How a {@link Gauge} appears over JMX.
+ */
+public interface GaugeMXBean {
+	long getValue();
+}
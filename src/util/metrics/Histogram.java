@@ -0,0 +1,148 @@
+package util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The distribution of a quantity which cannot be negative, such as a size
+ * or a duration.
+ *
+ * Values are not kept. Each is counted in a bucket instead, the buckets
+ * covering successive powers of two, so recording is cheap and memory use is
+ * constant. Percentiles are interpolated within the bucket they fall in,
+ * and are exact only to within that bucket. Counts, totals, minimums and
+ * maximums are exact.
+ */
+public class Histogram implements Metric, HistogramMXBean {
+
+	// Bucket 0 holds zero; bucket i holds values from 2^(i-1) to 2^i - 1
+	private static final int BUCKETS = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * @param value negative values are counted as zero
+	 */
+	public void update(long value) {
+		long v = Math.max(value, 0);
+		buckets.incrementAndGet(getBucket(v));
+		count.increment();
+		sum.add(v);
+		min.accumulateAndGet(v, Math::min);
+		max.accumulateAndGet(v, Math::max);
+	}
+
+	private static int getBucket(long value) {
+		return 64 - Long.numberOfLeadingZeros(value);
+	}
+
+	private static long getLowerBound(int bucket) {
+		return bucket == 0 ? 0 : 1L << (bucket - 1);
+	}
+
+	private static long getUpperBound(int bucket) {
+		return bucket == 0 ? 0 : (1L << (bucket - 1)) * 2 - 1;
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return the smallest value, or 0 if there are none
+	 */
+	@Override
+	public long getMin() {
+		return getCount() == 0 ? 0 : min.get();
+	}
+
+	/**
+	 * @return the largest value, or 0 if there are none
+	 */
+	@Override
+	public long getMax() {
+		return getCount() == 0 ? 0 : max.get();
+	}
+
+	/**
+	 * @return the mean of the values, or 0 if there are none
+	 */
+	@Override
+	public double getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : (double) getSum() / n;
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return an estimate of the given percentile of the values, or 0 if there are none
+	 */
+	public double getPercentile(double percentile) {
+		assert percentile >= 0 && percentile <= 100;
+
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		double rank = percentile / 100 * total;
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			if (counts[i] > 0 && seen + counts[i] >= rank) {
+				// Assume the values in the bucket are spread evenly across it,
+				// but never beyond the values actually recorded
+				long lower = Math.max(getLowerBound(i), getMin());
+				long upper = Math.min(getUpperBound(i), getMax());
+				double fraction = (rank - seen) / counts[i];
+				return lower + Math.max(upper - lower, 0) * fraction;
+			}
+			seen += counts[i];
+		}
+		return getMax();
+	}
+
+	@Override
+	public double get50thPercentile() {
+		return getPercentile(50);
+	}
+
+	@Override
+	public double get95thPercentile() {
+		return getPercentile(95);
+	}
+
+	@Override
+	public double get99thPercentile() {
+		return getPercentile(99);
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("count", getCount());
+		values.put("min", getMin());
+		values.put("max", getMax());
+		values.put("mean", getMean());
+		values.put("p50", get50thPercentile());
+		values.put("p95", get95thPercentile());
+		values.put("p99", get99thPercentile());
+		return values;
+	}
+}
@@ -0,0 +1,14 @@
+package util.metrics;
+
+/**
+ * How a {@link Histogram} appears over JMX.
+ */
+public interface HistogramMXBean {
+	long getCount();
+	long getMin();
+	long getMax();
+	double getMean();
+	double get50thPercentile();
+	double get95thPercentile();
+	double get99thPercentile();
+}
@@ -0,0 +1,13 @@
+package util.metrics;
+
+import java.util.Map;
+
+/**
+ * A measurement kept in the {@link Metrics} registry.
+ */
+public interface Metric {
+	/**
+	 * @return the current values of the metric, by name, for reporting
+	 */
+	Map<String, Object> getValues();
+}
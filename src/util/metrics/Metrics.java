@@ -0,0 +1,169 @@
+package util.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The registry of all metrics kept by the application.
+ *
+ * Metrics are identified by dotted names, such as sync.total, and are created
+ * the first time they are asked for, so instrumenting a piece of code is a
+ * matter of one line:
+ *
+ *     Metrics.timer("cache.read").time(this::read);
+ *
+ * Every metric is registered with the platform MBean server under the
+ * {@link #JMX_DOMAIN} domain, so it can be watched live from JConsole or
+ * VisualVM. All metrics can also be written out to a JSON file periodically;
+ * see {@link #startReporting(String, long, TimeUnit)}.
+ *
+ * All methods are thread-safe.
+ */
+public class Metrics {
+
+	private static final Logger logger = LogManager.getLogger(Metrics.class.getName());
+
+	public static final String JMX_DOMAIN = "hubturbo";
+
+	private static final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+	private static final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Metrics Reporter");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static ScheduledFuture<?> reporting = null;
+	private static String reportFile = null;
+
+	private static final long startTime = System.currentTimeMillis();
+
+	private Metrics() {
+	}
+
+	public static Counter counter(String name) {
+		return get(name, Counter.class, Counter::new);
+	}
+
+	public static Gauge gauge(String name) {
+		return get(name, Gauge.class, Gauge::new);
+	}
+
+	public static Histogram histogram(String name) {
+		return get(name, Histogram.class, Histogram::new);
+	}
+
+	public static Timer timer(String name) {
+		return get(name, Timer.class, Timer::new);
+	}
+
+	private static <T extends Metric> T get(String name, Class<T> type, Supplier<T> create) {
+		Metric metric = metrics.get(name);
+		if (metric == null) {
+			metric = metrics.computeIfAbsent(name, n -> {
+				T created = create.get();
+				register(n, type, created);
+				return created;
+			});
+		}
+		if (!type.isInstance(metric)) {
+			throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName()
+				+ ", not a " + type.getSimpleName());
+		}
+		return type.cast(metric);
+	}
+
+	private static void register(String name, Class<?> type, Metric metric) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type.getSimpleName()
+				+ ",name=" + ObjectName.quote(name));
+			if (!server.isRegistered(objectName)) {
+				server.registerMBean(metric, objectName);
+			}
+		} catch (JMException e) {
+			// The metric still works; it is just not visible over JMX
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * @return the current values of all metrics, by name, in order of name
+	 */
+	public static Map<String, Map<String, Object>> getValues() {
+		Map<String, Map<String, Object>> values = new TreeMap<>();
+		metrics.forEach((name, metric) -> values.put(name, metric.getValues()));
+		return values;
+	}
+
+	/**
+	 * Starts writing the values of all metrics to the given file periodically,
+	 * replacing its contents each time. Stops any reporting already going on.
+	 * @param filename
+	 * @param period the time between writes
+	 * @param unit the unit of the period
+	 */
+	public static synchronized void startReporting(String filename, long period, TimeUnit unit) {
+		stopReporting();
+		reportFile = filename;
+		reporting = reporter.scheduleAtFixedRate(() -> writeReport(filename), period, period, unit);
+	}
+
+	/**
+	 * Stops periodic reporting, writing the values of all metrics one final time.
+	 */
+	public static synchronized void stopReporting() {
+		if (reporting == null) {
+			return;
+		}
+		reporting.cancel(false);
+		reporting = null;
+		writeReport(reportFile);
+	}
+
+	/**
+	 * Writes the values of all metrics to a file, as JSON.
+	 * @param filename
+	 */
+	public static void writeReport(String filename) {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("time", Instant.now().toString());
+		report.put("uptimeMillis", System.currentTimeMillis() - startTime);
+		report.put("metrics", getValues());
+
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		Path path = Paths.get(filename).toAbsolutePath();
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			// Readers never see a partially-written report
+			Files.write(temp, gson.toJson(report).getBytes(StandardCharsets.UTF_8));
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+}
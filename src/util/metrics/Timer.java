@@ -0,0 +1,98 @@
+package util.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The distribution of the durations of some operation. Durations are
+ * recorded in nanoseconds and reported in milliseconds.
+ */
+public class Timer implements Metric, TimerMXBean {
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private final Histogram durations = new Histogram();
+
+	/**
+	 * @param nanos the duration of one operation
+	 */
+	public void update(long nanos) {
+		durations.update(nanos);
+	}
+
+	/**
+	 * Runs and times an operation.
+	 * @param operation
+	 */
+	public void time(Runnable operation) {
+		long start = System.nanoTime();
+		try {
+			operation.run();
+		} finally {
+			update(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Runs and times an operation.
+	 * @param operation
+	 * @return the result of the operation
+	 */
+	public <T> T time(Supplier<T> operation) {
+		long start = System.nanoTime();
+		try {
+			return operation.get();
+		} finally {
+			update(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public long getCount() {
+		return durations.getCount();
+	}
+
+	@Override
+	public double getTotalMillis() {
+		return durations.getSum() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMaxMillis() {
+		return durations.getMax() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanMillis() {
+		return durations.getMean() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double get50thPercentileMillis() {
+		return durations.get50thPercentile() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double get95thPercentileMillis() {
+		return durations.get95thPercentile() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double get99thPercentileMillis() {
+		return durations.get99thPercentile() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public Map<String, Object> getValues() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("count", getCount());
+		values.put("totalMillis", getTotalMillis());
+		values.put("maxMillis", getMaxMillis());
+		values.put("meanMillis", getMeanMillis());
+		values.put("p50Millis", get50thPercentileMillis());
+		values.put("p95Millis", get95thPercentileMillis());
+		values.put("p99Millis", get99thPercentileMillis());
+		return values;
+	}
+}
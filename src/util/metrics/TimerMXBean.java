@@ -0,0 +1,14 @@
+package util.metrics;
+
+/**
+ * How a {@link Timer} appears over JMX. Durations are in milliseconds.
+ */
+public interface TimerMXBean {
+	long getCount();
+	double getTotalMillis();
+	double getMaxMillis();
+	double getMeanMillis();
+	double get50thPercentileMillis();
+	double get95thPercentileMillis();
+	double get99thPercentileMillis();
+}